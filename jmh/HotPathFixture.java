@@ -0,0 +1,200 @@
+import gradebook.jmh.HotPath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * A synthetic grade book for the JMH benchmarks in gradebook.jmh, which reach it through HotPath.
+ * The grades are shared evenly by CLASS_COUNT classes of CATEGORIES_PER_CLASS categories, with at least one
+ * grade per category, so the measured class, the first, grows with the grade book.
+ */
+public class HotPathFixture implements HotPath {
+    private static final int CLASS_COUNT = 10;
+    private static final int CATEGORIES_PER_CLASS = 5;
+    private static final int WHAT_IF_SCENARIOS = 10_000;
+    private static final long SEED = 42;
+    private static final String CLASS = GradeBookGenerator.className(0);
+    private static final String CATEGORY = GradeBookGenerator.categoryName(0);
+
+    private final Path directory;
+    /// The generated CSV files, which the grade book was loaded from
+    private final Path csvDirectory;
+    /// The same grade book, checkpointed, so it loads from its binary snapshot
+    private final Path snapshotDirectory;
+    private final GradeBook gradeBook;
+    private final List<String> classNames;
+    private final GradeList category;
+    private final double[] classGrades;
+    private final List<GradeBookReport.ClassReport> reports;
+    private final WhatIf whatIf;
+    private final double[][][] scenarios;
+
+    public HotPathFixture(long grades) throws IOException {
+        directory = Files.createTempDirectory("gradebook-jmh");
+        long gradesPerCategory = Math.max(1, grades / ((long) CLASS_COUNT * CATEGORIES_PER_CLASS));
+        csvDirectory = Files.createDirectory(directory.resolve("csv"));
+        snapshotDirectory = Files.createDirectory(directory.resolve("snapshot"));
+        new GradeBookGenerator(SEED, CLASS_COUNT, CATEGORIES_PER_CLASS, gradesPerCategory, 0).write(csvDirectory);
+        new GradeBookGenerator(SEED, CLASS_COUNT, CATEGORIES_PER_CLASS, gradesPerCategory, 0).write(snapshotDirectory);
+        GradeBook checkpointed = new GradeBook(snapshotDirectory);
+        checkpointed.load();
+        checkpointed.checkpoint();
+        checkpointed.close();
+
+        gradeBook = new GradeBook(csvDirectory);
+        gradeBook.load();
+        classNames = new ArrayList<>(gradeBook.classNames());
+        category = GradeList.wrap(gradeBook.grades(CLASS, CATEGORY));
+        GradeList all = new GradeList();
+        for (String name : gradeBook.categoryNames(CLASS)) {
+            all.addAll(gradeBook.grades(CLASS, name));
+        }
+        classGrades = all.toArray();
+        reports = new GradeBookReport().generate(gradeBook);
+
+        whatIf = gradeBook.whatIf(CLASS);
+        SplittableRandom random = new SplittableRandom(SEED);
+        scenarios = new double[WHAT_IF_SCENARIOS][][];
+        for (int s = 0; s < scenarios.length; s++) {
+            scenarios[s] = new double[whatIf.categoryCount()][];
+            for (int k = 0; k < whatIf.categoryCount(); k++) {
+                if (random.nextBoolean()) {
+                    scenarios[s][k] = new double[random.nextInt(1, 6)];
+                    for (int i = 0; i < scenarios[s][k].length; i++) {
+                        scenarios[s][k][i] = random.nextInt(12_001) / 100.0;  // Some very low, some over 100
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        gradeBook.invalidateAllClasses();
+    }
+
+    @Override
+    public double categoryGrade() {
+        return gradeBook.calculateCatGrade(CLASS, CATEGORY);
+    }
+
+    @Override
+    public double finalGrade() {
+        return gradeBook.finalGrade(CLASS).value();
+    }
+
+    @Override
+    public double median() {
+        return category.statistics(1).median();
+    }
+
+    @Override
+    public String letterGrade(double finalGrade) {
+        return gradeBook.getLetterGrade(finalGrade, CLASS);
+    }
+
+    @Override
+    public double applyRounding(double finalGrade) {
+        return gradeBook.applyRounding(finalGrade, CLASS);
+    }
+
+    @Override
+    public int fillGradeList() {
+        GradeList grades = new GradeList();
+        for (double grade : classGrades) {
+            grades.add(grade);
+        }
+        return grades.size();
+    }
+
+    @Override
+    public int report() {
+        gradeBook.invalidateAllClasses();
+        return new GradeBookReport().generate(gradeBook, classNames).size();
+    }
+
+    @Override
+    public int display() {
+        try {
+            GradeBookConsole.writeReport(reports, new DisplayWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return reports.size();
+    }
+
+    @Override
+    public double quantile(double quantile) {
+        return gradeBook.histogram(classNames).quantile(quantile);
+    }
+
+    @Override
+    public double[] whatIf() {
+        return whatIf.finalGrades(scenarios);
+    }
+
+    @Override
+    public long parseGrades() throws IOException {
+        try (InputStream in = Files.newInputStream(csvDirectory.resolve("grades.csv"))) {
+            return new GradeCsvParser().parse(in, (className, categoryName, grade) -> { });
+        }
+    }
+
+    @Override
+    public int loadGrades() throws IOException {
+        Map<String, Map<String, GradeList>> loaded =
+                new ParallelGradeLoader(ForkJoinPool.commonPool()).load(csvDirectory.resolve("grades.csv"));
+        return loaded.size();
+    }
+
+    @Override
+    public boolean load() {
+        return load(csvDirectory);
+    }
+
+    @Override
+    public boolean loadSnapshot() {
+        return load(snapshotDirectory);
+    }
+
+    private static boolean load(Path from) {
+        GradeBook loaded = new GradeBook(from);
+        try {
+            return loaded.load();
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Override
+    public boolean save(double grade) {
+        gradeBook.setGrade(CLASS, CATEGORY, 0, grade);
+        return gradeBook.save();
+    }
+
+    @Override
+    public boolean checkpoint() {
+        return gradeBook.checkpoint();
+    }
+
+    @Override
+    public void close() throws IOException {
+        gradeBook.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import gradebook.jmh.Roster;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * A roster of small synthetic classes for the JMH benchmarks in gradebook.jmh, which reach it through
+ * Roster. Every class has CATEGORIES_PER_CLASS categories of about GRADES_PER_CATEGORY grades and 0 to
+ * MAX_REMAINING items still to be graded in each.
+ */
+public class RosterFixture implements Roster {
+    private static final int CATEGORIES_PER_CLASS = 4;
+    private static final int GRADES_PER_CATEGORY = 10;
+    private static final int MAX_REMAINING = 5;
+    private static final long SEED = 42;
+    private static final String FIRST_CLASS = GradeBookGenerator.className(0);
+
+    private final Path directory;
+    private final Path remainingFile;
+    private final GradeBook gradeBook;
+    private final Map<String, Map<String, Integer>> roster = new LinkedHashMap<>();
+
+    public RosterFixture(int classes) throws IOException {
+        directory = Files.createTempDirectory("gradebook-jmh-roster");
+        new GradeBookGenerator(SEED, classes, CATEGORIES_PER_CLASS, GRADES_PER_CATEGORY, 0).write(directory);
+        gradeBook = new GradeBook(directory);
+        gradeBook.load();
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        remainingFile = directory.resolve("remaining.csv");
+        try (BufferedWriter remaining = Files.newBufferedWriter(remainingFile)) {
+            remaining.write("Class,Category,Remaining\n");
+            for (int c = 0; c < classes; c++) {
+                String className = GradeBookGenerator.className(c);
+                Map<String, Integer> items = new LinkedHashMap<>();
+                for (int k = 0; k < CATEGORIES_PER_CLASS; k++) {
+                    String category = GradeBookGenerator.categoryName(k);
+                    int count = random.nextInt(MAX_REMAINING + 1);
+                    items.put(category, count);
+                    remaining.write(className + "," + category + "," + count + "\n");
+                }
+                roster.put(className, items);
+            }
+        }
+    }
+
+    @Override
+    public int neededGrades() {
+        return gradeBook.neededGrades(roster).size();
+    }
+
+    @Override
+    public long project() throws IOException {
+        try (InputStream in = Files.newInputStream(remainingFile)) {
+            return new NeededGradeProjection(gradeBook).run(in, directory.resolve("projection.csv")).rows();
+        }
+    }
+
+    @Override
+    public double forecast(long trials, long seed) {
+        return new GradeForecast().forecast(gradeBook, FIRST_CLASS, roster.get(FIRST_CLASS), trials, seed).mean();
+    }
+
+    @Override
+    public void close() throws IOException {
+        gradeBook.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
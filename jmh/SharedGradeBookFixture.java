@@ -0,0 +1,57 @@
+import gradebook.jmh.SharedGradeBook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A synthetic grade book behind a ConcurrentGradeBook for the JMH benchmarks in gradebook.jmh, which
+ * reach it through SharedGradeBook. Like HotPathFixture, the grades are shared evenly by CLASS_COUNT
+ * classes of CATEGORIES_PER_CLASS categories.
+ */
+public class SharedGradeBookFixture implements SharedGradeBook {
+    private static final int CLASS_COUNT = 8;
+    private static final int CATEGORIES_PER_CLASS = 4;
+    private static final long SEED = 42;
+
+    private final Path directory;
+    private final ConcurrentGradeBook gradeBook;
+
+    public SharedGradeBookFixture(long grades) throws IOException {
+        directory = Files.createTempDirectory("gradebook-jmh-shared");
+        long gradesPerCategory = Math.max(1, grades / ((long) CLASS_COUNT * CATEGORIES_PER_CLASS));
+        new GradeBookGenerator(SEED, CLASS_COUNT, CATEGORIES_PER_CLASS, gradesPerCategory, 0).write(directory);
+        GradeBook loaded = new GradeBook(directory);
+        loaded.load();
+        gradeBook = new ConcurrentGradeBook(loaded);
+    }
+
+    @Override
+    public int addGrade(int writer, double grade) {
+        String className = GradeBookGenerator.className(writer % CLASS_COUNT);
+        String category = GradeBookGenerator.categoryName(writer / CLASS_COUNT % CATEGORIES_PER_CLASS);
+        return gradeBook.addGrade(className, category, grade);
+    }
+
+    @Override
+    public double snapshotFinalGrade(int reader) {
+        return gradeBook.snapshot(GradeBookGenerator.className(reader % CLASS_COUNT)).finalGrade().value();
+    }
+
+    @Override
+    public boolean save() {
+        return gradeBook.save();
+    }
+
+    @Override
+    public void close() throws IOException {
+        gradeBook.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package gradebook.jmh;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the JMH benchmarks and optionally checks them against an earlier run.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar [--baseline previous.json] [--threshold 0.10] [JMH options]}.
+ * Every JMH option works as usual; results are written in JMH's JSON format to jmh-result.json unless
+ * -rf or -rff say otherwise. With --baseline each score is compared with the same benchmark and parameters in
+ * an earlier JSON result file, and the run exits with status 1 if any benchmark is slower by more than
+ * the threshold.
+ */
+public class BenchmarkRunner {
+    private static final String RESULT_FILE = "jmh-result.json";
+    private static final double DEFAULT_THRESHOLD = 0.10;
+    /// One benchmark of a JMH JSON result file, up to the score of its primary metric
+    private static final Pattern RESULT = Pattern.compile(
+            "\"benchmark\"\\s*:\\s*\"([^\"]+)\"(.*?)\"primaryMetric\".*?\"score\"\\s*:\\s*([0-9.eE+-]+|\"NaN\")",
+            Pattern.DOTALL);
+    /// The parameters of one benchmark, between its name and its primary metric
+    private static final Pattern PARAMS = Pattern.compile("\"params\"\\s*:\\s*\\{([^}]*)}");
+    private static final Pattern PARAM = Pattern.compile("\"([^\"]+)\"\\s*:\\s*\"([^\"]*)\"");
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        Path baseline = null;
+        double threshold = DEFAULT_THRESHOLD;
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--baseline")) {
+                baseline = Path.of(args[++i]);
+            } else if (args[i].equals("--threshold")) {
+                threshold = Double.parseDouble(args[++i]);
+            } else {
+                jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        } catch (CommandLineOptionException e) {
+            System.out.println("Error parsing command line: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList() || commandLine.shouldListWithParams() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            // Listing is all the stock runner does with these options
+            org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(RESULT_FILE);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        if (baseline != null && !compare(readScores(baseline), results, threshold)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the scores of a JMH JSON result file.
+     * @return The score of each benchmark and set of parameters, keyed as by key().
+     */
+    static Map<String, Double> readScores(Path file) throws IOException {
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+        Map<String, Double> scores = new HashMap<>();
+        // Each match starts at a benchmark and stops at its own score, so matches do not run into each other
+        Matcher matcher = RESULT.matcher(json);
+        while (matcher.find()) {
+            Map<String, String> params = new TreeMap<>();
+            Matcher block = PARAMS.matcher(matcher.group(2));
+            if (block.find()) {
+                Matcher param = PARAM.matcher(block.group(1));
+                while (param.find()) {
+                    params.put(param.group(1), param.group(2));
+                }
+            }
+            String score = matcher.group(3);
+            scores.put(key(matcher.group(1), params), score.startsWith("\"") ? Double.NaN : Double.parseDouble(score));
+        }
+        return scores;
+    }
+
+    /**
+     * @param benchmark The benchmark's full name.
+     * @param params Its parameters, sorted by name.
+     * @return The key of its score, such as "gradebook.jmh.CalculationBenchmarks.statistics@grades=1000".
+     */
+    private static String key(String benchmark, Map<String, String> params) {
+        StringBuilder key = new StringBuilder(benchmark);
+        char separator = '@';
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            key.append(separator).append(param.getKey()).append('=').append(param.getValue());
+            separator = ',';
+        }
+        return key.toString();
+    }
+
+    /**
+     * Prints each score next to its baseline.
+     * @return false if any benchmark got slower by more than the threshold.
+     */
+    private static boolean compare(Map<String, Double> baseline, Collection<RunResult> results, double threshold) {
+        boolean passed = true;
+        System.out.println("Comparison with baseline (threshold " + Math.round(threshold * 100) + "%):");
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            Map<String, String> params = new TreeMap<>();
+            for (String param : result.getParams().getParamsKeys()) {
+                params.put(param, result.getParams().getParam(param));
+            }
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            String size = String.join(" ", params.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).toList());
+            Double previous = baseline.get(key(benchmark, params));
+            if (previous == null || previous.isNaN()) {
+                System.out.printf(Locale.ROOT, " - %-45s %-24s no baseline%n", name, size);
+                continue;
+            }
+            double change = result.getPrimaryResult().getScore() / previous - 1;
+            // Throughput scores fall as they get slower, time scores rise
+            if (result.getParams().getMode() == Mode.Throughput) {
+                change = previous / result.getPrimaryResult().getScore() - 1;
+            }
+            boolean regressed = change > threshold;
+            passed &= !regressed;
+            System.out.printf(Locale.ROOT, " - %-45s %-24s %+.1f%%%s%n",
+                    name, size, change * 100, regressed ? "  REGRESSION" : "");
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,108 @@
+package gradebook.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The grade calculations, with their caches warm and cold.
+ * <p>
+ * The cold benchmarks forget the cached grades and recalculate COLD_BATCH times per invocation rather than
+ * forgetting them in a per-invocation setup, whose own overhead swamps calculations this short. Forgetting
+ * clears one small map, so its cost is part of the score but a negligible one.
+ * <p>
+ * getLetterGrade and applyRounding look a grade up in a compiled scale, which does not depend on the size
+ * of the grade book; their scores at each size only repeat one another.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CalculationBenchmarks {
+    private static final int COLD_BATCH = 16;
+
+    /**
+     * Final grades that land on every letter grade and on both sides of the rounding band.
+     */
+    @State(Scope.Thread)
+    public static class Probes {
+        private static final double[] GRADES = {99.97, 91.2, 84.96, 77.5, 62.0, 12.3};
+        private int next;
+
+        double next() {
+            double grade = GRADES[next];
+            next = next + 1 == GRADES.length ? 0 : next + 1;
+            return grade;
+        }
+    }
+
+    @Benchmark
+    public double calculateCatGrade(GradeBookState state) {
+        return state.hotPath.categoryGrade();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COLD_BATCH)
+    public double calculateCatGradeCold(GradeBookState state) {
+        double sum = 0;
+        for (int i = 0; i < COLD_BATCH; i++) {
+            state.hotPath.invalidate();
+            sum += state.hotPath.categoryGrade();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double calculateFinalGrade(GradeBookState state) {
+        return state.hotPath.finalGrade();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COLD_BATCH)
+    public double calculateFinalGradeCold(GradeBookState state) {
+        double sum = 0;
+        for (int i = 0; i < COLD_BATCH; i++) {
+            state.hotPath.invalidate();
+            sum += state.hotPath.finalGrade();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double statistics(GradeBookState state) {
+        return state.hotPath.median();
+    }
+
+    /**
+     * Run with -prof gc for the bytes allocated per grade appended.
+     */
+    @Benchmark
+    public int fillGradeList(GradeBookState state) {
+        return state.hotPath.fillGradeList();
+    }
+
+    @Benchmark
+    public double[] whatIf(GradeBookState state) {
+        return state.hotPath.whatIf();
+    }
+
+    @Benchmark
+    public String getLetterGrade(GradeBookState state, Probes probes) {
+        return state.hotPath.letterGrade(probes.next());
+    }
+
+    @Benchmark
+    public double applyRounding(GradeBookState state, Probes probes) {
+        return state.hotPath.applyRounding(probes.next());
+    }
+}
@@ -0,0 +1,94 @@
+package gradebook.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ConcurrentGradeBook under 64 writers adding grades while 4 readers read class snapshots and one
+ * thread saves in a loop. JMH reports each kind of thread separately as well as the whole group.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConcurrentBenchmarks {
+    /**
+     * A synthetic grade book of each benchmarked size, shared by the threads of a group.
+     */
+    @State(Scope.Group)
+    public static class Shared {
+        @Param({"10", "1000", "100000", "10000000"})
+        public long grades;
+
+        SharedGradeBook gradeBook;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            gradeBook = SharedGradeBook.create(grades);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            gradeBook.close();
+        }
+    }
+
+    /**
+     * Numbers the threads, so that they spread over the classes and categories.
+     */
+    @State(Scope.Thread)
+    public static class Worker {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+        final int index = NEXT.getAndIncrement();
+        private int grade;
+        private int reads;
+
+        double nextGrade() {
+            grade = grade == 10_000 ? 0 : grade + 1;
+            return grade / 100.0;
+        }
+
+        int nextClass() {
+            return index + reads++;
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(64)
+    public int addGrade(Shared shared, Worker worker) {
+        return shared.gradeBook.addGrade(worker.index, worker.nextGrade());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(4)
+    public double readSnapshot(Shared shared, Worker worker) {
+        return shared.gradeBook.snapshotFinalGrade(worker.nextClass());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public boolean save(Shared shared) {
+        return shared.gradeBook.save();
+    }
+}
@@ -0,0 +1,31 @@
+package gradebook.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * A synthetic grade book of each benchmarked size, generated and loaded once per trial.
+ */
+@State(Scope.Benchmark)
+public class GradeBookState {
+    @Param({"10", "1000", "100000", "10000000"})
+    public long grades;
+
+    HotPath hotPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        hotPath = HotPath.create(grades);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        hotPath.close();
+    }
+}
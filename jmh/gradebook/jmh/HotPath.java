@@ -0,0 +1,132 @@
+package gradebook.jmh;
+
+import java.io.IOException;
+
+/**
+ * The grade book operations the benchmarks measure, on one synthetic grade book.
+ * <p>
+ * JMH only accepts benchmarks in a named package, and a named package cannot refer to the grade book's
+ * classes in the default package. HotPathFixture, in the default package, implements this interface and
+ * is created reflectively once per trial; every call after that is an ordinary monomorphic interface call,
+ * which the JIT inlines like a direct one.
+ */
+public interface HotPath extends AutoCloseable {
+    /**
+     * Generates a grade book of about the given number of grades in a temporary directory and loads it.
+     * @param grades The number of grades.
+     * @return The fixture.
+     * @throws Exception if the fixture cannot be created or the grade book cannot be written.
+     */
+    static HotPath create(long grades) throws Exception {
+        return (HotPath) Class.forName("HotPathFixture").getConstructor(long.class).newInstance(grades);
+    }
+
+    /**
+     * Forgets every cached category and final grade, so the next calculation starts cold.
+     */
+    void invalidate();
+
+    /**
+     * @return The grade of the first category of the measured class.
+     */
+    double categoryGrade();
+
+    /**
+     * @return The final grade of the measured class.
+     */
+    double finalGrade();
+
+    /**
+     * @return The median, after dropping one grade, of the first category of the measured class.
+     */
+    double median();
+
+    /**
+     * @param finalGrade A final grade.
+     * @return Its letter grade in the measured class.
+     */
+    String letterGrade(double finalGrade);
+
+    /**
+     * @param finalGrade A final grade.
+     * @return The grade rounded as the measured class rounds.
+     */
+    double applyRounding(double finalGrade);
+
+    /**
+     * Appends every grade of the measured class to a new GradeList.
+     * @return The number of grades appended.
+     */
+    int fillGradeList();
+
+    /**
+     * Reports every class from scratch, with the cached grades forgotten first.
+     * @return The number of classes reported.
+     */
+    int report();
+
+    /**
+     * Prints the report of every class to a stream that discards it.
+     * @return The number of classes printed.
+     */
+    int display();
+
+    /**
+     * Merges the histograms of every class and estimates a quantile from them.
+     * @param quantile The quantile, between 0 and 1.
+     * @return The estimate.
+     */
+    double quantile(double quantile);
+
+    /**
+     * Evaluates a fixed batch of what-if scenarios on the measured class.
+     * @return The final grade of each scenario.
+     */
+    double[] whatIf();
+
+    /**
+     * Parses grades.csv on one thread.
+     * @return The number of grades parsed.
+     * @throws IOException if the file cannot be read.
+     */
+    long parseGrades() throws IOException;
+
+    /**
+     * Loads grades.csv into per-category grade lists on the common pool.
+     * @return The number of classes loaded.
+     * @throws IOException if the file cannot be read.
+     */
+    int loadGrades() throws IOException;
+
+    /**
+     * Loads the grade book from its CSV files into a new GradeBook.
+     * @return Whether it loaded.
+     */
+    boolean load();
+
+    /**
+     * Loads a checkpoint of the grade book, its binary snapshot, into a new GradeBook.
+     * @return Whether it loaded.
+     */
+    boolean loadSnapshot();
+
+    /**
+     * Changes one grade of the measured class and saves the change to the journal.
+     * @param grade The new grade.
+     * @return Whether it was saved.
+     */
+    boolean save(double grade);
+
+    /**
+     * Writes a checkpoint of the loaded grade book.
+     * @return Whether it was written.
+     */
+    boolean checkpoint();
+
+    /**
+     * Closes the grade book and deletes its directory.
+     * @throws IOException if the directory cannot be deleted.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,52 @@
+package gradebook.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a grade book from disk, saving a change to the journal and writing a checkpoint of it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PersistenceBenchmarks {
+    @Benchmark
+    public long parseGrades(GradeBookState state) throws IOException {
+        return state.hotPath.parseGrades();
+    }
+
+    @Benchmark
+    public int loadGrades(GradeBookState state) throws IOException {
+        return state.hotPath.loadGrades();
+    }
+
+    @Benchmark
+    public boolean load(GradeBookState state) {
+        return state.hotPath.load();
+    }
+
+    @Benchmark
+    public boolean loadSnapshot(GradeBookState state) {
+        return state.hotPath.loadSnapshot();
+    }
+
+    @Benchmark
+    public boolean save(GradeBookState state, CalculationBenchmarks.Probes probes) {
+        return state.hotPath.save(probes.next());
+    }
+
+    @Benchmark
+    public boolean checkpoint(GradeBookState state) {
+        return state.hotPath.checkpoint();
+    }
+}
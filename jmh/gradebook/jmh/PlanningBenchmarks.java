@@ -0,0 +1,91 @@
+package gradebook.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning from the grades so far: the grades needed for each letter grade over a roster of classes, and
+ * forecasts of one class's final grade.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PlanningBenchmarks {
+    /**
+     * A roster of each benchmarked number of classes, generated and loaded once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class RosterState {
+        @Param({"2000", "20000"})
+        public int classes;
+
+        Roster roster;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            roster = Roster.create(classes);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            roster.close();
+        }
+    }
+
+    /**
+     * One class, forecast with each benchmarked number of trials.
+     */
+    @State(Scope.Benchmark)
+    public static class ForecastState {
+        @Param({"100000", "4000000"})
+        public long trials;
+
+        Roster roster;
+        private long seed;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            roster = Roster.create(1);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            roster.close();
+        }
+
+        long nextSeed() {
+            return seed++;
+        }
+    }
+
+    @Benchmark
+    public int neededGrades(RosterState state) {
+        return state.roster.neededGrades();
+    }
+
+    @Benchmark
+    public long project(RosterState state) throws IOException {
+        return state.roster.project();
+    }
+
+    @Benchmark
+    public double forecast(ForecastState state) {
+        return state.roster.forecast(state.trials, state.nextSeed());
+    }
+}
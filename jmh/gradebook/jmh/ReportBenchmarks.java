@@ -0,0 +1,36 @@
+package gradebook.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reporting, printing and summarizing every class of a grade book.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReportBenchmarks {
+    @Benchmark
+    public int report(GradeBookState state) {
+        return state.hotPath.report();
+    }
+
+    @Benchmark
+    public int display(GradeBookState state) {
+        return state.hotPath.display();
+    }
+
+    @Benchmark
+    public double histogramMedian(GradeBookState state) {
+        return state.hotPath.quantile(0.5);
+    }
+}
@@ -0,0 +1,49 @@
+package gradebook.jmh;
+
+import java.io.IOException;
+
+/**
+ * A roster of small synthetic classes, each with a number of items still to be graded per category, for
+ * the benchmarks that plan ahead from the grades so far. Created reflectively like HotPath, from
+ * RosterFixture.
+ */
+public interface Roster extends AutoCloseable {
+    /**
+     * Generates a grade book of the given number of classes in a temporary directory, loads it and writes
+     * the remaining items of every category to a file.
+     * @param classes The number of classes.
+     * @return The fixture.
+     * @throws Exception if the fixture cannot be created or the grade book cannot be written.
+     */
+    static Roster create(int classes) throws Exception {
+        return (Roster) Class.forName("RosterFixture").getConstructor(int.class).newInstance(classes);
+    }
+
+    /**
+     * Solves the grades needed for every letter grade of every class.
+     * @return The number of classes solved.
+     */
+    int neededGrades();
+
+    /**
+     * Projects the needed grades of every class from the remaining-items file to a CSV file.
+     * @return The number of rows written.
+     * @throws IOException if either file cannot be read or written.
+     */
+    long project() throws IOException;
+
+    /**
+     * Forecasts the final grade of the first class on the common pool.
+     * @param trials The number of trials.
+     * @param seed The seed of the random grades.
+     * @return The mean final grade of the trials.
+     */
+    double forecast(long trials, long seed);
+
+    /**
+     * Closes the grade book and deletes its directory.
+     * @throws IOException if the directory cannot be deleted.
+     */
+    @Override
+    void close() throws IOException;
+}
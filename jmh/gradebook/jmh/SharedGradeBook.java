@@ -0,0 +1,47 @@
+package gradebook.jmh;
+
+import java.io.IOException;
+
+/**
+ * A synthetic grade book behind a ConcurrentGradeBook, for benchmarks that write, read and save it from
+ * several threads at once. Created reflectively like HotPath, from SharedGradeBookFixture.
+ */
+public interface SharedGradeBook extends AutoCloseable {
+    /**
+     * Generates a grade book of about the given number of grades in a temporary directory, loads it and
+     * wraps it for concurrent use.
+     * @param grades The number of grades.
+     * @return The fixture.
+     * @throws Exception if the fixture cannot be created or the grade book cannot be written.
+     */
+    static SharedGradeBook create(long grades) throws Exception {
+        return (SharedGradeBook) Class.forName("SharedGradeBookFixture").getConstructor(long.class).newInstance(grades);
+    }
+
+    /**
+     * Adds a grade to one of the classes.
+     * @param writer The writing thread's index, which picks the class and category.
+     * @param grade The grade.
+     * @return The number of grades in the category afterwards.
+     */
+    int addGrade(int writer, double grade);
+
+    /**
+     * @param reader The reading thread's index, which picks the class.
+     * @return The final grade of the class's current snapshot.
+     */
+    double snapshotFinalGrade(int reader);
+
+    /**
+     * Saves every change made since the last save.
+     * @return Whether they were saved.
+     */
+    boolean save();
+
+    /**
+     * Closes the grade book and deletes its directory.
+     * @throws IOException if the directory cannot be deleted.
+     */
+    @Override
+    void close() throws IOException;
+}
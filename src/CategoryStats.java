@@ -0,0 +1,11 @@
+/**
+ * Statistics for the grades of one category.
+ * @param count The number of grades.
+ * @param grade The category grade after dropping the lowest grades.
+ * @param average The average of all grades.
+ * @param median The median of all grades.
+ * @param highest The highest grade.
+ * @param lowest The lowest grade.
+ */
+public record CategoryStats(int count, double grade, double average, double median, double highest, double lowest) {
+}
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/**
+ * An int-indexed view of one class's configuration, compiled from the string-keyed maps in GradeBook.
+ * Each category occupies a slot; the parallel arrays hold that category's interned id, grades,
+ * weight and drop count, so calculations can walk arrays instead of hashing names. The grading scale
+ * is compiled along with it.
+ * The table also caches each category grade and the final grade. Cached values are checked against
+ * the grade lists' versions, so a grade change only recomputes its own category; configuration
+ * changes discard the whole table.
+ */
+public class ClassTable {
+    /// Interned id of the class
+    final int classId;
+    /// Interned category id for each slot
+    final int[] categoryIds;
+    /// Grade list for each slot (shared with GradeBook.classes, so grade edits show up here)
+    final GradeList[] grades;
+    /// Weight of each slot as a fraction of the final grade
+    final double[] weights;
+    /// Number of lowest grades dropped in each slot
+    final int[] dropCounts;
+    /// Whether the class rounds its final grade up to nearby cutoffs
+    final boolean round;
+    /// The class's grading scale, compiled for letter and rounding lookups
+    final CompiledScale scale;
+
+    /// Cached grade of each slot, valid while catVersions matches the slot's grade list version
+    private final double[] catGrades;
+    private final long[] catVersions;
+    /// Cached final grade and letter, valid while finalStamp matches versionStamp()
+    private double finalGrade;
+    private String letterGrade;
+    private long finalStamp = -1;
+
+    ClassTable(int classId, int[] categoryIds, GradeList[] grades, double[] weights, int[] dropCounts, boolean round,
+               CompiledScale scale) {
+        this.classId = classId;
+        this.categoryIds = categoryIds;
+        this.grades = grades;
+        this.weights = weights;
+        this.dropCounts = dropCounts;
+        this.round = round;
+        this.scale = scale;
+        this.catGrades = new double[categoryIds.length];
+        this.catVersions = new long[categoryIds.length];
+        Arrays.fill(catVersions, -1);
+    }
+
+    /**
+     * @return The number of categories in the class.
+     */
+    public int size() {
+        return categoryIds.length;
+    }
+
+    /**
+     * @param slot The slot of the category.
+     * @return true if the cached grade for the slot reflects its current grades.
+     */
+    boolean hasCatGrade(int slot) {
+        return catVersions[slot] == grades[slot].version();
+    }
+
+    /**
+     * @param slot The slot of the category.
+     * @return The cached grade of the slot; only meaningful if hasCatGrade(slot) is true.
+     */
+    double cachedCatGrade(int slot) {
+        return catGrades[slot];
+    }
+
+    /**
+     * Caches the grade of a slot against its current grade list version.
+     * @param slot The slot of the category.
+     * @param catGrade The calculated category grade.
+     */
+    void cacheCatGrade(int slot, double catGrade) {
+        catGrades[slot] = catGrade;
+        catVersions[slot] = grades[slot].version();
+    }
+
+    /**
+     * @return true if the cached final grade reflects the current grades of every category.
+     */
+    boolean hasFinalGrade() {
+        return finalStamp == versionStamp();
+    }
+
+    /**
+     * @return The cached final grade; only meaningful if hasFinalGrade() is true.
+     */
+    double cachedFinalGrade() {
+        return finalGrade;
+    }
+
+    /**
+     * @return The cached letter grade; only meaningful if hasFinalGrade() is true.
+     */
+    String cachedLetterGrade() {
+        return letterGrade;
+    }
+
+    /**
+     * Caches the final grade and letter against the current grade list versions.
+     * @param finalGrade The calculated final grade.
+     * @param letterGrade The letter grade for the final grade.
+     */
+    void cacheFinalGrade(double finalGrade, String letterGrade) {
+        this.finalGrade = finalGrade;
+        this.letterGrade = letterGrade;
+        this.finalStamp = versionStamp();
+    }
+
+    /**
+     * Sums the versions of all grade lists. Versions only ever increase, so the sum changes
+     * whenever any category's grades change.
+     */
+    private long versionStamp() {
+        long stamp = 0;
+        for (GradeList list : grades) {
+            stamp += list.version();
+        }
+        return stamp;
+    }
+
+    /**
+     * Finds the slot holding a category.
+     * @param categoryId The interned category id.
+     * @return The slot of the category, or -1 if the class does not have it.
+     */
+    public int slotOf(int categoryId) {
+        for (int slot = 0; slot < categoryIds.length; slot++) {
+            if (categoryIds[slot] == categoryId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,221 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A class's grading scale compiled for fast lookups. The unused (null) letter grades are left out and
+ * the remaining cutoffs are kept in a primitive array, with the GRADE_LABELS index of each cutoff in a
+ * parallel array. Scales run from the highest letter grade down, so the cutoffs are normally in
+ * descending order and both the letter grade and the rounding target are found by binary search.
+ * A scale whose cutoffs are out of order is still honored exactly, by scanning it in scale order.
+ */
+public final class CompiledScale {
+    /// The letter grade given when a class has no grading scale
+    static final String NO_SCALE = "No Scale";
+    /// A final grade this close below a cutoff is rounded up to it
+    static final double ROUND_SIZE = 0.05;
+    private static final CompiledScale EMPTY = new CompiledScale(new double[0], new int[0]);
+
+    /// The cutoffs that are set, in scale order
+    private final double[] cutoffs;
+    /// The GRADE_LABELS index of each cutoff
+    private final int[] labels;
+    /// Whether the cutoffs never increase, so binary search applies
+    private final boolean descending;
+
+    private CompiledScale(double[] cutoffs, int[] labels) {
+        this.cutoffs = cutoffs;
+        this.labels = labels;
+        boolean ordered = true;
+        for (int i = 1; i < cutoffs.length; i++) {
+            if (!(cutoffs[i] <= cutoffs[i - 1])) {
+                ordered = false;
+                break;
+            }
+        }
+        this.descending = ordered;
+    }
+
+    /**
+     * Compiles a grading scale.
+     * @param scale The cutoff of each letter grade in GRADE_LABELS order, with null for unused letter
+     * grades, or null if the class has no grading scale. Entries past the last label are ignored.
+     * @return The compiled scale.
+     */
+    static CompiledScale compile(List<Double> scale) {
+        if (scale == null) {
+            return EMPTY;
+        }
+        int length = Math.min(scale.size(), GradeBook.GRADE_LABELS.length);
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (scale.get(i) != null) {
+                count++;
+            }
+        }
+        double[] cutoffs = new double[count];
+        int[] labels = new int[count];
+        int next = 0;
+        for (int i = 0; i < length; i++) {
+            Double cutoff = scale.get(i);
+            if (cutoff != null) {
+                cutoffs[next] = cutoff;
+                labels[next] = i;
+                next++;
+            }
+        }
+        return new CompiledScale(cutoffs, labels);
+    }
+
+    /**
+     * Determines the letter grade for a final grade: the first letter grade on the scale whose cutoff
+     * the grade reaches, or the highest letter grade if it reaches none.
+     * @param finalGrade The final numeric grade.
+     * @return The letter grade, or NO_SCALE if the scale has no cutoffs.
+     */
+    public String letter(double finalGrade) {
+        int label = label(finalGrade);
+        return label < 0 ? NO_SCALE : GradeBook.GRADE_LABELS[label];
+    }
+
+    /**
+     * Determines the letter grade for a final grade, as letter() does.
+     * @param finalGrade The final numeric grade.
+     * @return The GRADE_LABELS index of the letter grade, or -1 if the scale has no cutoffs.
+     */
+    int label(double finalGrade) {
+        if (cutoffs.length == 0) {
+            return -1;
+        }
+        int index = descending ? firstAtOrBelow(finalGrade) : scanAtOrBelow(finalGrade);
+        return labels[index < cutoffs.length ? index : 0];
+    }
+
+    /**
+     * Rounds a final grade up to the first cutoff on the scale that is above it by at most ROUND_SIZE.
+     * @param finalGrade The final numeric grade.
+     * @return The cutoff it rounds up to, or the grade itself if there is none.
+     */
+    public double round(double finalGrade) {
+        if (!descending) {
+            for (double cutoff : cutoffs) {
+                if (finalGrade < cutoff && cutoff - finalGrade <= ROUND_SIZE) {
+                    return cutoff;
+                }
+            }
+            return finalGrade;
+        }
+        // cutoff - finalGrade only shrinks down the scale, so the cutoffs within reach form a suffix;
+        // its first cutoff is the answer if it is still above the grade
+        int low = 0;
+        int high = cutoffs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cutoffs[mid] - finalGrade <= ROUND_SIZE) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low < cutoffs.length && cutoffs[low] > finalGrade ? cutoffs[low] : finalGrade;
+    }
+
+    /**
+     * Finds the lowest final grade that round() brings to a cutoff or above it. A cutoff c takes exactly
+     * the grades in [lowestInReach(c), c), so round() only changes at the ends of these ranges, and the
+     * answer is the first of those ends, from the cutoff's own range on, that rounds high enough. On a
+     * descending scale the cutoffs that take the start of the range are all at or above the cutoff.
+     * @param cutoff A cutoff on this scale.
+     * @return The lowest final grade that rounds to the cutoff or above it.
+     */
+    double lowestRoundingTo(double cutoff) {
+        double lowest = lowestInReach(cutoff);
+        if (descending || round(lowest) >= cutoff) {
+            return lowest;
+        }
+        double[] ends = new double[2 * cutoffs.length];
+        int count = 0;
+        for (double other : cutoffs) {
+            double start = lowestInReach(other);
+            if (start > lowest && start < cutoff) {
+                ends[count++] = start;
+            }
+            if (other > lowest && other < cutoff) {
+                ends[count++] = other;
+            }
+        }
+        Arrays.sort(ends, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (round(ends[i]) >= cutoff) {
+                return ends[i];
+            }
+        }
+        return cutoff;
+    }
+
+    /**
+     * Finds the lowest grade with cutoff - grade <= ROUND_SIZE. The subtraction rounds, so it can sit a
+     * few ulps either side of cutoff - ROUND_SIZE; binary search a window around it, which cutoff - grade
+     * never increases over.
+     */
+    private static double lowestInReach(double cutoff) {
+        double slack = 4 * Math.ulp(Math.abs(cutoff) + ROUND_SIZE);
+        double low = cutoff - ROUND_SIZE - slack;
+        double high = cutoff - ROUND_SIZE + slack;
+        if (!(cutoff - low > ROUND_SIZE && cutoff - high <= ROUND_SIZE)) {
+            return cutoff - ROUND_SIZE;  // Only for infinite or NaN cutoffs
+        }
+        while (true) {
+            double mid = low + (high - low) / 2;
+            if (mid <= low || mid >= high) {
+                return high;
+            }
+            if (cutoff - mid <= ROUND_SIZE) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+    }
+
+    /**
+     * @param label The GRADE_LABELS index of a letter grade.
+     * @return The cutoff of the letter grade, or -1 if it is not used on this scale.
+     */
+    double cutoff(int label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == label) {
+                return cutoffs[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index of the first cutoff at or below the grade in a descending scale, or cutoffs.length if none is.
+     */
+    private int firstAtOrBelow(double finalGrade) {
+        int low = 0;
+        int high = cutoffs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cutoffs[mid] <= finalGrade) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The index of the first cutoff at or below the grade in scale order, or cutoffs.length if none is.
+     */
+    private int scanAtOrBelow(double finalGrade) {
+        for (int i = 0; i < cutoffs.length; i++) {
+            if (finalGrade >= cutoffs[i]) {
+                return i;
+            }
+        }
+        return cutoffs.length;
+    }
+}
@@ -0,0 +1,558 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe front for a GradeBook, for many graders working at once.
+ * <p>
+ * Reads never take a lock: each class is published as an immutable ClassSnapshot in a
+ * ConcurrentHashMap, and finalGrade(), categoryGrade(), grades(), categoryStats() and neededGrades() read
+ * whichever snapshot is current.
+ * Writes have a single writer: the backing GradeBook, which keeps journaling, saving and the grade
+ * calculations, is not thread-safe and its journal is one ordered log, so every write holds one write
+ * lock while it updates the grade book and publishes the class's next snapshot. Writes are therefore
+ * applied and published one at a time, in the order they take the lock, and readers see them in that order.
+ * <p>
+ * save() only holds the write lock while it takes the journal entries recorded since the last save; it
+ * writes and fsyncs them after releasing it, so writes continue while a save waits on the disk.
+ * <p>
+ * Snapshots are copy-on-write, except that appending a grade reuses the previous snapshot's array when
+ * it has room: older snapshots only read up to their own size, so they never see the new slot.
+ */
+public class ConcurrentGradeBook {
+    /**
+     * The state of one category at the time its class snapshot was published.
+     */
+    public static final class CategorySnapshot {
+        private final double grade;
+        private final double weight;
+        private final int dropped;
+        /// Shared with later snapshots when grades are appended; only the first `size` slots belong to this one
+        private final double[] grades;
+        private final int size;
+
+        private CategorySnapshot(double grade, double weight, int dropped, double[] grades, int size) {
+            this.grade = grade;
+            this.weight = weight;
+            this.dropped = dropped;
+            this.grades = grades;
+            this.size = size;
+        }
+
+        /**
+         * @return The category grade after dropping the lowest grades.
+         */
+        public double grade() {
+            return grade;
+        }
+
+        /**
+         * @return The weight of the category as a fraction of the final grade.
+         */
+        public double weight() {
+            return weight;
+        }
+
+        /**
+         * @return The number of lowest grades dropped.
+         */
+        public int dropped() {
+            return dropped;
+        }
+
+        /**
+         * @return The number of grades.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param index The position of a grade.
+         * @return The grade at that position.
+         */
+        public double get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return grades[index];
+        }
+
+        /**
+         * @return A copy of the grades, in order.
+         */
+        public double[] toArray() {
+            return Arrays.copyOf(grades, size);
+        }
+    }
+
+    /**
+     * An immutable view of one class. A reader that holds a snapshot sees all of its values as of
+     * the same write.
+     */
+    public static final class ClassSnapshot {
+        private final String className;
+        private final long version;
+        private final FinalGrade finalGrade;
+        private final Map<String, CategorySnapshot> categories;
+        private final boolean round;
+        private final CompiledScale scale;
+        /// Built from the categories on first use; racing readers may each build one, and any of them will do
+        private volatile WhatIf whatIf;
+
+        private ClassSnapshot(String className, long version, FinalGrade finalGrade, Map<String, CategorySnapshot> categories,
+                              boolean round, CompiledScale scale) {
+            this.className = className;
+            this.version = version;
+            this.finalGrade = finalGrade;
+            this.categories = categories;
+            this.round = round;
+            this.scale = scale;
+        }
+
+        /**
+         * @return The name of the class.
+         */
+        public String className() {
+            return className;
+        }
+
+        /**
+         * @return The number of writes applied to the class since this grade book was created; later
+         * snapshots of a class always have higher versions.
+         */
+        public long version() {
+            return version;
+        }
+
+        /**
+         * @return The final grade of the class.
+         */
+        public FinalGrade finalGrade() {
+            return finalGrade;
+        }
+
+        /**
+         * @return The categories of the class, by name.
+         */
+        public Map<String, CategorySnapshot> categories() {
+            return categories;
+        }
+
+        /**
+         * @return A what-if engine over this snapshot, with scratch space of its own for the caller.
+         */
+        WhatIf whatIf() {
+            WhatIf built = whatIf;
+            if (built == null) {
+                int size = categories.size();
+                String[] names = new String[size];
+                double[] weights = new double[size];
+                int[] dropCounts = new int[size];
+                int[] sizes = new int[size];
+                double[] sums = new double[size];
+                double[][] lowest = new double[size][];
+                double[] grades = new double[size];
+                int slot = 0;
+                for (Map.Entry<String, CategorySnapshot> entry : categories.entrySet()) {
+                    CategorySnapshot category = entry.getValue();
+                    GradeList list = GradeList.wrap(category.toArray());
+                    names[slot] = entry.getKey();
+                    weights[slot] = category.weight;
+                    dropCounts[slot] = category.dropped;
+                    sizes[slot] = category.size;
+                    sums[slot] = list.sum();
+                    lowest[slot] = list.lowestGrades(category.dropped);
+                    grades[slot] = category.grade;
+                    slot++;
+                }
+                built = new WhatIf(className, names, weights, dropCounts, sizes, sums, lowest, grades, round, scale);
+                whatIf = built;
+            }
+            return built.copy();
+        }
+    }
+
+    private final GradeBook gradeBook;
+    /// Guards every call into gradeBook, which is not thread-safe, and every snapshot publication
+    private final Object writeLock = new Object();
+    /// Held by save() and close() from taking the journal entries until they are on disk
+    private final Object saveLock = new Object();
+    /// The current snapshot of each class
+    private final ConcurrentHashMap<String, ClassSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Wraps a grade book. From here on the grade book must only be used through this object.
+     * @param gradeBook A loaded grade book.
+     */
+    public ConcurrentGradeBook(GradeBook gradeBook) {
+        this.gradeBook = gradeBook;
+        synchronized (writeLock) {
+            for (String className : gradeBook.classNames()) {
+                snapshots.put(className, buildSnapshot(className, 0));
+            }
+        }
+    }
+
+    /**
+     * @return The names of every class. The set is a live view and can be read while classes change.
+     */
+    public Set<String> classNames() {
+        return Collections.unmodifiableSet(snapshots.keySet());
+    }
+
+    /**
+     * @param className The name of the class.
+     * @return The current snapshot of the class, or null if the class does not exist.
+     */
+    public ClassSnapshot snapshot(String className) {
+        return snapshots.get(className);
+    }
+
+    /**
+     * @param className The name of the class.
+     * @return The final grade of the class.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public FinalGrade finalGrade(String className) {
+        return requireSnapshot(className).finalGrade();
+    }
+
+    /**
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return The grade of the category after dropping the lowest grades.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public double categoryGrade(String className, String categoryName) {
+        return requireCategory(requireSnapshot(className), categoryName).grade();
+    }
+
+    /**
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return A copy of the grades in the category.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public double[] grades(String className, String categoryName) {
+        return requireCategory(requireSnapshot(className), categoryName).toArray();
+    }
+
+    /**
+     * Calculates statistics for a category from its current snapshot.
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return The category grade, and the average, median, highest and lowest of all grades.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public CategoryStats categoryStats(String className, String categoryName) {
+        CategorySnapshot category = requireCategory(requireSnapshot(className), categoryName);
+        return GradeList.statistics(category.grades, category.size, category.dropped);
+    }
+
+    /**
+     * Calculates the average needed on the remaining items of each category to reach a letter grade,
+     * from the class's current snapshot.
+     * @param className The name of the class.
+     * @param letterGrade The desired letter grade.
+     * @param remainingItems The number of items still to be graded in each category.
+     * @return The needed averages, or the reason the letter grade is already reached or out of reach.
+     * @throws IllegalArgumentException if the class does not exist or the letter grade is not on its grading scale.
+     */
+    public NeededGrades neededGrades(String className, String letterGrade, Map<String, Integer> remainingItems) {
+        return new NeededGradeSolver(requireSnapshot(className).whatIf()).solve(letterGrade, remainingItems);
+    }
+
+    /**
+     * Calculates the needed grades of every letter grade on a class's grading scale in one pass.
+     * Like neededGrades for one letter grade, this reads the class's current snapshot.
+     * @param className The name of the class.
+     * @param remainingItems The number of items still to be graded in each category.
+     * @return The needed grades of each letter grade on the scale, from the highest letter grade down.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public List<NeededGrades> neededGrades(String className, Map<String, Integer> remainingItems) {
+        return new NeededGradeSolver(requireSnapshot(className).whatIf()).solveAll(remainingItems);
+    }
+
+    /**
+     * Adds a new class with no categories.
+     * @param className The name of the class.
+     * @return true if the class was added; false if it already exists.
+     */
+    public boolean createClass(String className) {
+        synchronized (writeLock) {
+            if (!gradeBook.createClass(className)) {
+                return false;
+            }
+            snapshots.put(className, buildSnapshot(className, 0));
+            return true;
+        }
+    }
+
+    /**
+     * Deletes a class and all its data.
+     * @param className The name of the class.
+     * @return true if the class was deleted; false if it does not exist.
+     */
+    public boolean deleteClass(String className) {
+        synchronized (writeLock) {
+            if (!gradeBook.deleteClass(className)) {
+                return false;
+            }
+            snapshots.remove(className);
+            return true;
+        }
+    }
+
+    /**
+     * Adds a category to a class, with no weight until setWeight() is called.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @return true if the category was added; false if it already exists.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public boolean createCategory(String className, String categoryName) {
+        return reconfigure(className, () -> gradeBook.createCategory(className, categoryName));
+    }
+
+    /**
+     * Sets the percentage of the final grade a category is worth.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @param percent The percentage.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public void setWeight(String className, String categoryName, double percent) {
+        reconfigure(className, () -> {
+            gradeBook.setWeight(className, categoryName, percent);
+            return true;
+        });
+    }
+
+    /**
+     * Sets the number of lowest grades dropped in a category.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @param numItems The number of grades to drop.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public void setDropped(String className, String categoryName, double numItems) {
+        reconfigure(className, () -> {
+            gradeBook.setDropped(className, categoryName, numItems);
+            return true;
+        });
+    }
+
+    /**
+     * Turns rounding of the final grade on or off.
+     * @param className The name of the class.
+     * @param round Whether final grades just below a cutoff are rounded up to it.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public void setRounding(String className, boolean round) {
+        reconfigure(className, () -> {
+            gradeBook.setRounding(className, round);
+            return true;
+        });
+    }
+
+    /**
+     * Sets the grading scale of a class.
+     * @param className The name of the class.
+     * @param scale The cutoff of each letter grade from A+ down, or null where a letter grade is not used.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public void setGradingScale(String className, List<Double> scale) {
+        reconfigure(className, () -> {
+            gradeBook.setGradingScale(className, scale);
+            return true;
+        });
+    }
+
+    /**
+     * Adds a grade to a category.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @param grade The grade.
+     * @return The number of grades in the category afterwards.
+     * @throws IllegalArgumentException if the class or category does not exist or the grade is not valid.
+     */
+    public int addGrade(String className, String categoryName, double grade) {
+        return addGrades(className, categoryName, new double[] {grade});
+    }
+
+    /**
+     * Adds several grades to a category as one write: readers see either none or all of them.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @param grades The grades, in order.
+     * @return The number of grades in the category afterwards.
+     * @throws IllegalArgumentException if the class or category does not exist or a grade is not valid.
+     */
+    public int addGrades(String className, String categoryName, double[] grades) {
+        synchronized (writeLock) {
+            ClassSnapshot current = requireSnapshot(className);
+            CategorySnapshot category = requireCategory(current, categoryName);
+            gradeBook.addGrades(className, categoryName, grades);
+
+            // Append in place when the shared array has room; earlier snapshots stop at their own size
+            int size = category.size + grades.length;
+            double[] array = category.grades;
+            if (size > array.length) {
+                array = Arrays.copyOf(array, Math.max(size, array.length + (array.length >> 1)));
+            }
+            System.arraycopy(grades, 0, array, category.size, grades.length);
+            publish(current, categoryName, new CategorySnapshot(gradeBook.calculateCatGrade(className, categoryName),
+                    category.weight, category.dropped, array, size), gradeBook.finalGrade(className));
+            return size;
+        }
+    }
+
+    /**
+     * Replaces a grade.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @param index The position of the grade.
+     * @param grade The new grade.
+     * @return The grade that was replaced.
+     * @throws IllegalArgumentException if the class or category does not exist or the grade is not valid.
+     * @throws IndexOutOfBoundsException if there is no grade at the index.
+     */
+    public double setGrade(String className, String categoryName, int index, double grade) {
+        synchronized (writeLock) {
+            ClassSnapshot current = requireSnapshot(className);
+            CategorySnapshot category = requireCategory(current, categoryName);
+            double previous = gradeBook.setGrade(className, categoryName, index, grade);
+            double[] array = category.toArray();
+            array[index] = grade;
+            publish(current, categoryName, new CategorySnapshot(gradeBook.calculateCatGrade(className, categoryName),
+                    category.weight, category.dropped, array, array.length), gradeBook.finalGrade(className));
+            return previous;
+        }
+    }
+
+    /**
+     * Removes a grade.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @param index The position of the grade.
+     * @return The grade that was removed.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     * @throws IndexOutOfBoundsException if there is no grade at the index.
+     */
+    public double removeGrade(String className, String categoryName, int index) {
+        synchronized (writeLock) {
+            ClassSnapshot current = requireSnapshot(className);
+            CategorySnapshot category = requireCategory(current, categoryName);
+            double removed = gradeBook.removeGrade(className, categoryName, index);
+            double[] array = new double[category.size - 1];
+            System.arraycopy(category.grades, 0, array, 0, index);
+            System.arraycopy(category.grades, index + 1, array, index, array.length - index);
+            publish(current, categoryName, new CategorySnapshot(gradeBook.calculateCatGrade(className, categoryName),
+                    category.weight, category.dropped, array, array.length), gradeBook.finalGrade(className));
+            return removed;
+        }
+    }
+
+    /**
+     * Saves every write made before the call. Writes only wait while the recorded journal entries are
+     * taken; the entries are written and fsynced outside the write lock. Saves run one at a time.
+     * @return true if the save succeeded.
+     */
+    public boolean save() {
+        synchronized (saveLock) {
+            GradeBook.PendingSave pending;
+            synchronized (writeLock) {
+                pending = gradeBook.beginSave();
+            }
+            if (gradeBook.finishSave(pending)) {
+                return true;
+            }
+            synchronized (writeLock) {
+                gradeBook.abortSave(pending);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Waits for saving to finish and closes the journal.
+     */
+    public void close() {
+        synchronized (saveLock) {
+            synchronized (writeLock) {
+                gradeBook.close();
+            }
+        }
+    }
+
+    /**
+     * A change to a class's configuration, applied to the backing grade book under the write lock.
+     */
+    private interface Change {
+        boolean apply();
+    }
+
+    /**
+     * Applies a configuration change and republishes the whole class, since weights, drops, rounding
+     * and the scale can change every category grade.
+     */
+    private boolean reconfigure(String className, Change change) {
+        synchronized (writeLock) {
+            ClassSnapshot current = requireSnapshot(className);
+            if (!change.apply()) {
+                return false;
+            }
+            snapshots.put(className, buildSnapshot(className, current.version + 1));
+            return true;
+        }
+    }
+
+    /**
+     * Builds a snapshot of a class from the backing grade book. The caller holds writeLock.
+     */
+    private ClassSnapshot buildSnapshot(String className, long version) {
+        Map<String, Double> weights = gradeBook.weights(className);
+        Map<String, CategorySnapshot> categories = new LinkedHashMap<>();
+        for (String categoryName : gradeBook.categoryNames(className)) {
+            double[] grades = gradeBook.grades(className, categoryName);
+            Double percent = weights.get(categoryName);
+            categories.put(categoryName, new CategorySnapshot(gradeBook.calculateCatGrade(className, categoryName),
+                    percent != null ? percent / 100.0 : 0.0, (int) gradeBook.dropped(className, categoryName),
+                    grades, grades.length));
+        }
+        return new ClassSnapshot(className, version, gradeBook.finalGrade(className), Collections.unmodifiableMap(categories),
+                gradeBook.rounds(className), CompiledScale.compile(gradeBook.gradingScale(className)));
+    }
+
+    /**
+     * Publishes the next snapshot of a class with one category replaced. The caller holds writeLock.
+     */
+    private void publish(ClassSnapshot current, String categoryName, CategorySnapshot category, FinalGrade finalGrade) {
+        Map<String, CategorySnapshot> categories = new LinkedHashMap<>(current.categories);
+        categories.put(categoryName, category);
+        snapshots.put(current.className, new ClassSnapshot(current.className, current.version + 1, finalGrade,
+                Collections.unmodifiableMap(categories), current.round, current.scale));
+    }
+
+    private ClassSnapshot requireSnapshot(String className) {
+        ClassSnapshot snapshot = snapshots.get(className);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Class does not exist: " + className);
+        }
+        return snapshot;
+    }
+
+    private static CategorySnapshot requireCategory(ClassSnapshot snapshot, String categoryName) {
+        CategorySnapshot category = snapshot.categories.get(categoryName);
+        if (category == null) {
+            throw new IllegalArgumentException("Category does not exist in " + snapshot.className + ": " + categoryName);
+        }
+        return category;
+    }
+}
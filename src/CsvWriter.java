@@ -0,0 +1,205 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes CSV output through one large reusable byte buffer.
+ * <p>
+ * Text is encoded straight into the buffer (ASCII without allocating, anything else through UTF-8),
+ * pre-encoded byte runs such as a repeated "class,category," prefix are copied in bulk, and doubles
+ * are formatted without creating strings whenever they can be written exactly with at most
+ * FRACTION_DIGITS decimals. Other doubles fall back to Double.toString. The buffer only reaches the
+ * file when it is full, on flush() and on sync().
+ */
+public class CsvWriter implements Closeable {
+    static final int BUFFER_SIZE = 1 << 20;
+    /// Doubles with at most this many decimals are formatted without allocating
+    private static final int FRACTION_DIGITS = 6;
+    private static final long FRACTION_SCALE = 1_000_000;
+    /// Larger magnitudes could overflow the exactly representable range once scaled
+    private static final double FIXED_POINT_LIMIT = 1e9;
+
+    private final FileChannel channel;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+    /// Scratch space for the digits of one number, written in reverse
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Creates or truncates a file and writes to it.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be opened.
+     */
+    public CsvWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Encodes text as UTF-8 once, for runs that are written many times.
+     * @param text The text to encode.
+     * @return The encoded bytes.
+     */
+    public static byte[] encode(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a single ASCII character.
+     * @param c The character.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void write(char c) throws IOException {
+        ensure(1);
+        bytes[position++] = (byte) c;
+    }
+
+    /**
+     * Writes pre-encoded bytes.
+     * @param run The bytes to copy.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void write(byte[] run) throws IOException {
+        if (run.length > BUFFER_SIZE) {
+            flush();
+            channel.write(ByteBuffer.wrap(run));
+            return;
+        }
+        ensure(run.length);
+        System.arraycopy(run, 0, bytes, position, run.length);
+        position += run.length;
+    }
+
+    /**
+     * Writes text as UTF-8.
+     * @param text The text to write.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void write(String text) throws IOException {
+        int length = text.length();
+        if (length > BUFFER_SIZE) {
+            write(encode(text));
+            return;
+        }
+        ensure(length);
+        int start = position;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                // Not plain ASCII; undo and encode the whole string instead
+                position = start;
+                write(encode(text));
+                return;
+            }
+            bytes[position++] = (byte) c;
+        }
+    }
+
+    /**
+     * Writes a double so that parsing it back gives the same value.
+     * @param value The value to write.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void writeDouble(double value) throws IOException {
+        if (!writeFixedPoint(value)) {
+            write(Double.toString(value));
+        }
+    }
+
+    /**
+     * Writes a value that is exactly a whole number of millionths as plain decimal digits, trimming
+     * trailing zeros but always keeping one decimal, like Double.toString ("85.0", "92.75").
+     * @return false if the value cannot be written this way.
+     */
+    private boolean writeFixedPoint(double value) throws IOException {
+        if (!(Math.abs(value) < FIXED_POINT_LIMIT) || (value == 0 && Double.doubleToRawLongBits(value) != 0)) {
+            return false;  // NaN, infinite, too large or negative zero
+        }
+        long scaled = Math.round(value * FRACTION_SCALE);
+        if ((double) scaled / FRACTION_SCALE != value) {
+            return false;  // Needs more than FRACTION_DIGITS decimals
+        }
+        ensure(digits.length + FRACTION_DIGITS + 2);
+        if (scaled < 0) {
+            bytes[position++] = '-';
+            scaled = -scaled;
+        }
+        writeDigits(scaled / FRACTION_SCALE, 1);
+        bytes[position++] = '.';
+        long fraction = scaled % FRACTION_SCALE;
+        if (fraction == 0) {
+            bytes[position++] = '0';
+            return true;
+        }
+        int width = FRACTION_DIGITS;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            width--;
+        }
+        writeDigits(fraction, width);
+        return true;
+    }
+
+    /**
+     * Writes a non-negative number, padded with leading zeros to at least width digits.
+     */
+    private void writeDigits(long value, int width) {
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count < width) {
+            digits[count++] = '0';
+        }
+        while (count > 0) {
+            bytes[position++] = digits[--count];
+        }
+    }
+
+    /**
+     * Writes everything buffered so far to the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void flush() throws IOException {
+        buffer.limit(position).position(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        position = 0;
+    }
+
+    /**
+     * Flushes the buffer and forces the file to disk.
+     * @throws IOException if the file cannot be written.
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    /**
+     * Flushes the buffer and closes the file.
+     * @throws IOException if the file cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensure(int length) throws IOException {
+        if (BUFFER_SIZE - position < length) {
+            flush();
+        }
+    }
+}
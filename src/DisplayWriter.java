@@ -0,0 +1,187 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Writes console text through one reusable byte buffer, handing it to the underlying stream only when
+ * the buffer is full and on flush().
+ * <p>
+ * ASCII text is copied straight into the buffer and numbers are formatted into it digit by digit,
+ * so writing a grade allocates nothing. writeFixed() prints exactly what String.format("%.2f")
+ * would: values that are clearly on one side of a rounding boundary are rounded with plain
+ * arithmetic, and the rare values within a hair of a tie, where double arithmetic could round the
+ * other way, are handed to String.format.
+ */
+public class DisplayWriter implements Closeable {
+    static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_DECIMALS = 6;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    /// Larger magnitudes could lose whole digits once scaled, so they go through String.format
+    private static final double FIXED_POINT_LIMIT = 1e12;
+    /// Scaled values closer than this to a rounding tie go through String.format
+    private static final double TIE_MARGIN = 1e-6;
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private int position;
+    /// Scratch space for the digits of one number, written in reverse
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Creates a writer for a stream.
+     * @param out The stream to write to; it is flushed but never closed by this writer.
+     * @param charset The charset for text that is not plain ASCII.
+     */
+    public DisplayWriter(OutputStream out, Charset charset) {
+        this.out = out;
+        this.charset = charset;
+    }
+
+    /**
+     * Creates a writer for standard output, in the charset standard output uses.
+     * @return The writer.
+     */
+    public static DisplayWriter forStandardOutput() {
+        String encoding = System.getProperty("stdout.encoding");
+        return new DisplayWriter(System.out, encoding != null ? Charset.forName(encoding) : Charset.defaultCharset());
+    }
+
+    /**
+     * Writes a single ASCII character.
+     * @param c The character.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void write(char c) throws IOException {
+        ensure(1);
+        bytes[position++] = (byte) c;
+    }
+
+    /**
+     * Writes text.
+     * @param text The text to write.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void write(String text) throws IOException {
+        int length = text.length();
+        if (length > BUFFER_SIZE) {
+            writeEncoded(text);
+            return;
+        }
+        ensure(length);
+        int start = position;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                // Not plain ASCII; undo and encode the whole string instead
+                position = start;
+                writeEncoded(text);
+                return;
+            }
+            bytes[position++] = (byte) c;
+        }
+    }
+
+    /**
+     * Writes text followed by the platform line separator, like println.
+     * @param text The text to write.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void writeLine(String text) throws IOException {
+        write(text);
+        write(System.lineSeparator());
+    }
+
+    /**
+     * Writes a number with a fixed number of decimals, exactly as String.format("%.Nf") would.
+     * @param value The value to write.
+     * @param decimals The number of decimals, from 0 to 6.
+     * @throws IOException if the buffer cannot be flushed.
+     */
+    public void writeFixed(double value, int decimals) throws IOException {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimals must be between 0 and " + MAX_DECIMALS + ": " + decimals);
+        }
+        double magnitude = Math.abs(value);
+        if (!(magnitude < FIXED_POINT_LIMIT)) {
+            write(String.format("%." + decimals + "f", value));  // NaN, infinite or too large
+            return;
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        double scaled = magnitude * scale;
+        double floor = Math.floor(scaled);
+        if (Math.abs(scaled - floor - 0.5) < TIE_MARGIN * Math.max(1, scaled)) {
+            write(String.format("%." + decimals + "f", value));  // Too close to a tie to trust the arithmetic
+            return;
+        }
+        long rounded = (long) floor + (scaled - floor > 0.5 ? 1 : 0);
+
+        ensure(digits.length + decimals + 2);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            bytes[position++] = '-';  // String.format keeps the sign of values that round to zero, and of -0.0
+        }
+        writeDigits(rounded / scale, 1);
+        if (decimals > 0) {
+            bytes[position++] = '.';
+            writeDigits(rounded % scale, decimals);
+        }
+    }
+
+    /**
+     * Writes everything buffered so far to the stream and flushes it.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void flush() throws IOException {
+        out.write(bytes, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    /**
+     * Flushes the buffer. The stream is left open.
+     * @throws IOException if the stream cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * Writes a non-negative number, padded with leading zeros to at least width digits.
+     */
+    private void writeDigits(long value, int width) {
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count < width) {
+            digits[count++] = '0';
+        }
+        while (count > 0) {
+            bytes[position++] = digits[--count];
+        }
+    }
+
+    private void writeEncoded(String text) throws IOException {
+        byte[] encoded = text.getBytes(charset);
+        if (encoded.length > BUFFER_SIZE - position) {
+            out.write(bytes, 0, position);
+            position = 0;
+            if (encoded.length > BUFFER_SIZE) {
+                out.write(encoded);
+                return;
+            }
+        }
+        System.arraycopy(encoded, 0, bytes, position, encoded.length);
+        position += encoded.length;
+    }
+
+    private void ensure(int length) throws IOException {
+        if (BUFFER_SIZE - position < length) {
+            out.write(bytes, 0, position);
+            position = 0;
+        }
+    }
+}
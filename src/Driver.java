@@ -6,13 +6,14 @@ public class Driver {
 
     public static void main(String[] args) {
         GradeBook gradeBook = new GradeBook();
+        GradeBookConsole console = new GradeBookConsole(gradeBook, scanner);
         boolean loadedSuccessfully = gradeBook.load();
 
         if (!loadedSuccessfully) {
             System.out.println("Some data files were not found or could not be loaded. Starting with empty data.");
         } else {
             System.out.println("Grades loaded successfully.");
-            gradeBook.displayClassesGrades();
+            console.displayClassesGrades();
         }
 
         // Add a shutdown hook to save on unexpected exits
@@ -23,11 +24,12 @@ public class Driver {
             } else {
                 System.out.println("Data not saved.");
             }
+            gradeBook.close();
         });
         Runtime.getRuntime().addShutdownHook(shutdownHook);
 
         // Start the main program loop
-        runProgramLoop(gradeBook);
+        runProgramLoop(gradeBook, console);
     }
 
     /**
@@ -35,8 +37,9 @@ public class Driver {
      * Exits and prompts to save when the user chooses to exit.
      *
      * @param gradeBook the GradeBook instance to interact with
+     * @param console the console flows that prompt for and apply each action
      */
-    private static void runProgramLoop(GradeBook gradeBook) {
+    private static void runProgramLoop(GradeBook gradeBook, GradeBookConsole console) {
         while (true) {
             System.out.println("Choose an option:\n"
                     + "1) Add a new class\n"
@@ -48,38 +51,42 @@ public class Driver {
                     + "7) Delete a class\n"
                     + "8) Delete all data\n"
                     + "9) Help\n"
-                    + "10) Exit\n");
+                    + "10) Import grades from a file\n"
+                    + "11) Exit\n");
             String choice = scanner.nextLine().trim();
 
             switch (choice) {
                 case "1":
-                    gradeBook.addClass();
+                    console.addClass();
                     break;
                 case "2":
-                    gradeBook.addGrade();
+                    console.addGrade();
                     break;
                 case "3":
-                    gradeBook.displayClassesGrades();
+                    console.displayClassesGrades();
                     break;
                 case "4":
-                    gradeBook.addPossibleGrades();
+                    console.addPossibleGrades();
                     break;
                 case "5":
-                    gradeBook.calculateNeededGradesForLetterGrade();
+                    console.calculateNeededGradesForLetterGrade();
                     break;
                 case "6":
-                    gradeBook.editGrade();
+                    console.editGrade();
                     break;
                 case "7":
-                    gradeBook.deleteClass();
+                    console.deleteClass();
                     break;
                 case "8":
-                    gradeBook.deleteAllData();
+                    console.deleteAllData();
                     break;
                 case "9":
-                    gradeBook.displayHelp();
+                    console.displayHelp();
                     break;
                 case "10":
+                    console.importGrades();
+                    break;
+                case "11":
                     exitWithPrompt(gradeBook); // Ask before exiting
                     return; // Exit loop if user confirms
                 default:
@@ -98,7 +105,15 @@ public class Driver {
         System.out.println("Do you want to save before exiting? (Y/N)");
         String choice = scanner.nextLine().toLowerCase();
         if (choice.equals("y") || choice.equals("yes")) {
-            gradeBook.save();
+            // Write every save file, so grades.csv and the other CSV files show this session's changes
+            if (gradeBook.checkpoint()) {
+                System.out.println("Data saved successfully.");
+            } else if (gradeBook.save()) {
+                System.out.println("Changes saved to the journal; the CSV files will be updated on the next save.");
+            } else {
+                System.out.println("Data not saved.");
+            }
+            gradeBook.close();
         } else {
             try {
                 Runtime.getRuntime().removeShutdownHook(shutdownHook);
@@ -0,0 +1,7 @@
+/**
+ * The final grade of a class.
+ * @param value The final numeric grade, after rounding if the class rounds; may be over 100.
+ * @param letter The letter grade, or "No Scale" if the class has no grading scale.
+ */
+public record FinalGrade(double value, String letter) {
+}
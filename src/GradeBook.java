@@ -1,17 +1,31 @@
 import java.io.*;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
 
 /**
  * The GradeBook class manages the grades for multiple classes, handling categories, grades,
  * grading scales, rounding options, and calculations for current and hypothetical grades.
+ * It never prompts or prints results; the interactive flows live in GradeBookConsole.
  */
 public class GradeBook {
-    private Scanner scanner = new Scanner(System.in);
     /// Holds classes and their categories and grades for categories
-    private HashMap<String, HashMap<String, ArrayList<Double>>> classes = new HashMap<>();
+    private HashMap<String, HashMap<String, GradeList>> classes = new HashMap<>();
     /// Holds cutoffs for letter grades in each class
     private HashMap<String, ArrayList<Double>> gradingScale = new HashMap<>();
     /// Holds how many items from each category in a class will be dropped
@@ -20,7 +34,29 @@ public class GradeBook {
     private HashMap<String, Boolean> rounding = new HashMap<>();
     /// Holds what percentage each category is worth
     private HashMap<String, HashMap<String, Double>> percentage = new HashMap<>();
-    private static final String[] GRADE_LABELS = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
+    /// Interns class names to dense ids
+    private final SymbolTable classSymbols = new SymbolTable();
+    /// Interns category names to dense ids
+    private final SymbolTable categorySymbols = new SymbolTable();
+    /// Compiled lookup table for each class id; a null entry is rebuilt from the maps on next use
+    private final ArrayList<ClassTable> classTables = new ArrayList<>();
+    /// Directory holding the save files
+    private final Path directory;
+    /// Records every change since the last save; replaced when the grade book is loaded
+    private GradeJournal journal;
+    /// Writes snapshots and CSV exports in the background
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gradebook-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /// The running or last finished compaction, or null if none was started
+    private Future<?> compaction;
+    /// Number of the last save generation committed by GradeBookManifest
+    private long generation;
+    /// Whether the saved snapshot is missing, unreadable or failed to save, so the next save must compact
+    private volatile boolean snapshotStale = true;
+    static final String[] GRADE_LABELS = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
 
 
     private static final String GRADES = "grades.csv";
@@ -28,14 +64,33 @@ public class GradeBook {
     private static final String DROP = "drop.csv";
     private static final String ROUNDING = "rounding.csv";
     private static final String PERCENTAGE = "percentage.csv";
-    private static final double ROUND_SIZE = 0.05;
+    private static final String SNAPSHOT = "gradebook.bin";
+    /// Every file written by a compaction, committed together as one generation
+    private static final List<String> SAVE_FILES = List.of(SNAPSHOT, GRADES, GRADING_SCALE, DROP, ROUNDING, PERCENTAGE);
+    /// Journal segment size at which save() folds the journal into a new snapshot
+    private static final long COMPACTION_THRESHOLD = 4 << 20;
+
+    /**
+     * Creates an empty grade book that saves to the current working directory.
+     */
+    public GradeBook() {
+        this(Path.of("."));
+    }
+    /**
+     * Creates an empty grade book that saves to the given directory.
+     * @param directory The directory holding the save files.
+     */
+    public GradeBook(Path directory) {
+        this.directory = directory;
+        this.journal = new GradeJournal(directory, 0);
+    }
 
     public static void main(String[] args) {
         GradeBook gradeBook = new GradeBook();
         boolean loadedSuccessfully = gradeBook.load();
         if (loadedSuccessfully) {
             System.out.println("Grades loaded successfully.");
-            gradeBook.displayClassesGrades(); // Optionally display loaded data
+            new GradeBookConsole(gradeBook, new Scanner(System.in)).displayClassesGrades(); // Optionally display loaded data
         }
         else {
             System.out.println("Failed to load grades. Please check file existence and format.");
@@ -44,80 +99,172 @@ public class GradeBook {
 
     /**
      * Loads all grade book data from files.
+     * The binary snapshot is the saved state when it exists; the CSV files are only imported when there
+     * is no readable snapshot. Journal entries written since the snapshot are then replayed on top.
+     * An interrupted save is first rolled forward or back to the last committed generation.
      * @return true if all files loaded successfully; false if any fail to load.
      */
     public boolean load() {
-        if (!loadPercentage()) {
+        boolean loaded = true;
+        GradeBookManifest manifest = null;
+        try {
+            manifest = GradeBookManifest.recover(directory, SAVE_FILES);
+        } catch (IOException e) {
+            System.out.println("An error occurred while recovering the last save: " + e.getMessage());
+            loaded = false;
+        }
+        if (manifest != null) {
+            generation = manifest.generation();
+        }
+        long firstSegment = -1;
+        if (directory.resolve(SNAPSHOT).toFile().isFile() && matchesManifest(manifest, SNAPSHOT)) {
+            firstSegment = loadSnapshot();
+            if (firstSegment < 0) {
+                System.out.println("Could not load the grade book snapshot; importing CSV files instead");
+            }
+        }
+        snapshotStale = firstSegment < 0;
+        if (firstSegment < 0) {
+            // The CSV files are exported with every snapshot, so replay the journal from the first segment
+            // their generation does not include; segments before it may outlive a crash during compaction
+            for (String fileName : new String[]{GRADES, GRADING_SCALE, DROP, ROUNDING, PERCENTAGE}) {
+                if (!matchesManifest(manifest, fileName)) {
+                    System.out.println(fileName + " has changed since it was saved; importing it as it is");
+                }
+            }
+            loaded = importCsv() && loaded;
+            firstSegment = manifest != null ? manifest.journalSegment() : 0;
+        }
+        long lastSegment = firstSegment;
+        try {
+            lastSegment = GradeJournal.replay(directory, firstSegment, new JournalReplay());
+        } catch (IOException e) {
+            System.out.println("An error occurred while replaying the journal: " + e.getMessage());
+            loaded = false;
+        }
+        initializeClassesAndCategories();
+        invalidateAllClasses();
+        journal = new GradeJournal(directory, lastSegment);
+        return loaded;
+    }
+    /**
+     * @param manifest The manifest of the last committed generation, or null if there is none.
+     * @param fileName The name of the save file to check.
+     * @return true if the file is exactly as it was saved, or there is no manifest to check it against.
+     */
+    private boolean matchesManifest(GradeBookManifest manifest, String fileName) {
+        if (manifest == null) {
+            return true;
+        }
+        try {
+            if (manifest.matches(directory, fileName)) {
+                return true;
+            }
+            System.out.println(fileName + " does not match the last saved generation");
+        } catch (IOException e) {
+            System.out.println("An error occurred while checking " + fileName + ": " + e.getMessage());
+        }
+        return false;
+    }
+    /**
+     * Reads the binary snapshot into fresh maps and merges them in only if the whole file was valid.
+     * @return The first journal segment not included in the snapshot, or -1 if the snapshot could not be loaded.
+     */
+    private long loadSnapshot() {
+        GradeBookData loaded = GradeBookData.empty();
+        long journalSegment;
+        try {
+            journalSegment = GradeBookSnapshot.read(directory.resolve(SNAPSHOT), loaded);
+        } catch (IOException e) {
+            System.out.println("An error occurred while loading the snapshot: " + e.getMessage());
+            return -1;
+        }
+        mergeGrades(loaded.classes());
+        loaded.percentage().forEach((className, values) -> percentage.computeIfAbsent(className, k -> new HashMap<>()).putAll(values));
+        loaded.drop().forEach((className, values) -> drop.computeIfAbsent(className, k -> new HashMap<>()).putAll(values));
+        rounding.putAll(loaded.rounding());
+        gradingScale.putAll(loaded.gradingScale());
+        return journalSegment;
+    }
+    /**
+     * Imports all grade book data from the CSV files.
+     * The five files are read concurrently on the common fork-join pool; each loader only fills its
+     * own map, and the maps are tied together on the calling thread once every file has been read,
+     * even when one of them failed.
+     * @return true if all files loaded successfully; false if any fail to load.
+     */
+    private boolean importCsv() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ForkJoinTask<Boolean> percentageTask = pool.submit(this::loadPercentage);
+        ForkJoinTask<Boolean> gradesTask = pool.submit(this::loadGrades);
+        ForkJoinTask<Boolean> gradingScaleTask = pool.submit(this::loadGradingScale);
+        ForkJoinTask<Boolean> roundingTask = pool.submit(this::loadRounding);
+        ForkJoinTask<Boolean> droppedTask = pool.submit(this::loadDropped);
+
+        // Wait for every loader before looking at any result, so none is still filling the maps on
+        // return, whichever file failed
+        boolean percentageLoaded = percentageTask.join();
+        boolean gradesLoaded = gradesTask.join();
+        boolean gradingScaleLoaded = gradingScaleTask.join();
+        boolean roundingLoaded = roundingTask.join();
+        boolean droppedLoaded = droppedTask.join();
+        initializeClassesAndCategories();
+
+        if (!percentageLoaded) {
             System.out.println("Could not load percentages or percentages do not exist");
             return false;
         }
-        if (!loadGrades()) {
+        if (!gradesLoaded) {
             System.out.println("Could not load grades or grades do not exist");
             return false;
         }
-        initializeClassesAndCategories(); // Move this after loading grades
-        if (!loadGradingScale()) {
+        if (!gradingScaleLoaded) {
             System.out.println("Could not load grading scales or grading scales do not exist");
             return false;
         }
-        if (!loadRounding()) {
+        if (!roundingLoaded) {
             System.out.println("Could not load rounding or rounding does not exist");
             return false;
         }
-        if (!loadDropped()) {
+        if (!droppedLoaded) {
             System.out.println("Could not load dropped or dropped does not exist");
             return false;
         }
+        invalidateAllClasses();
         return true;
     }
     /**
      * Initializes the classes and categories based on the loaded percentages.
-     * Ensures that each class has its categories initialized in the 'classes' map.
+     * Ensures that each class has its categories initialized in the 'classes' map,
+     * then interns every class and category name.
      */
     private void initializeClassesAndCategories() {
         for (String className : percentage.keySet()) {
             HashMap<String, Double> classCategories = percentage.get(className);
             // Ensure 'classes' hashmap has an entry for this class
             classes.computeIfAbsent(className, k -> new HashMap<>());
-            HashMap<String, ArrayList<Double>> classGrades = classes.get(className);
+            HashMap<String, GradeList> classGrades = classes.get(className);
             for (String category : classCategories.keySet()) {
                 // Ensure 'classes' hashmap has an entry for this category
-                classGrades.computeIfAbsent(category, k -> new ArrayList<>());
+                classGrades.computeIfAbsent(category, k -> new GradeList());
+            }
+        }
+        for (String className : classes.keySet()) {
+            classSymbols.intern(className);
+            for (String category : classes.get(className).keySet()) {
+                categorySymbols.intern(category);
             }
         }
     }
+    /**
+     * Loads grades.csv by memory-mapping it and parsing newline-aligned chunks on the common pool.
+     * @return true if the file was read or does not exist; false on an I/O error.
+     */
     private boolean loadGrades() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(GRADES))) {
-            String header = reader.readLine();  // Read header line
-            if (header == null) {
-                // File is empty
-                return true;
-            }
-            String line;
-            int lineNumber = 1; // Start after the header
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                try {
-                    String[] values = line.split(",");
-                    if (values.length < 3) {
-                        // Skip lines with insufficient data
-                        continue;
-                    }
-                    String className = values[0].trim();
-                    String category = values[1].trim();
-                    double grade = Double.parseDouble(values[2].trim());
-
-                    // Ensure the class and category entries exist, then add grade
-                    classes.computeIfAbsent(className, k -> new HashMap<>())
-                            .computeIfAbsent(category, k -> new ArrayList<>())
-                            .add(grade);
-                } catch (NumberFormatException e) {
-                    // Skip invalid number formats
-                    continue;
-                }
-            }
+        try {
+            mergeGrades(new ParallelGradeLoader(ForkJoinPool.commonPool()).load(directory.resolve(GRADES)));
             return true;
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException e) {
             // File not found, treat as empty data
             return true;
         } catch (IOException e) {
@@ -125,8 +272,93 @@ public class GradeBook {
             return false;
         }
     }
+    /**
+     * Adds loaded grades to the grade book, appending to any categories that already have grades.
+     * @param loaded The loaded grades of each class and category.
+     */
+    private void mergeGrades(Map<String, ? extends Map<String, GradeList>> loaded) {
+        for (Map.Entry<String, ? extends Map<String, GradeList>> classEntry : loaded.entrySet()) {
+            // Ensure the class and category entries exist, then add grades
+            HashMap<String, GradeList> classCategories = classes.computeIfAbsent(classEntry.getKey(), k -> new HashMap<>());
+            for (Map.Entry<String, GradeList> categoryEntry : classEntry.getValue().entrySet()) {
+                GradeList existing = classCategories.putIfAbsent(categoryEntry.getKey(), categoryEntry.getValue());
+                if (existing != null) {
+                    existing.addAll(categoryEntry.getValue());
+                }
+            }
+        }
+    }
+    /**
+     * Applies replayed journal entries directly to the maps. Entries only reach the journal after the
+     * change succeeded, so missing classes or categories are created rather than rejected.
+     */
+    private class JournalReplay implements GradeMutations {
+        @Override
+        public void addClass(String className) {
+            classes.putIfAbsent(className, new HashMap<>());
+        }
+
+        @Override
+        public void addCategory(String className, String category) {
+            classes.computeIfAbsent(className, k -> new HashMap<>()).putIfAbsent(category, new GradeList());
+        }
+
+        @Override
+        public void addGrade(String className, String category, double grade) {
+            classes.computeIfAbsent(className, k -> new HashMap<>()).computeIfAbsent(category, k -> new GradeList()).add(grade);
+        }
+
+        @Override
+        public void editGrade(String className, String category, int index, double grade) {
+            GradeList grades = classes.getOrDefault(className, new HashMap<>()).get(category);
+            if (grades != null && index < grades.size()) {
+                grades.set(index, grade);
+            }
+        }
+
+        @Override
+        public void deleteGrade(String className, String category, int index) {
+            GradeList grades = classes.getOrDefault(className, new HashMap<>()).get(category);
+            if (grades != null && index < grades.size()) {
+                grades.remove(index);
+            }
+        }
+
+        @Override
+        public void setPercentage(String className, String category, double percent) {
+            percentage.computeIfAbsent(className, k -> new HashMap<>()).put(category, Double.isNaN(percent) ? null : percent);
+        }
+
+        @Override
+        public void setDropped(String className, String category, double dropped) {
+            drop.computeIfAbsent(className, k -> new HashMap<>()).put(category, dropped);
+        }
+
+        @Override
+        public void setRounding(String className, boolean round) {
+            rounding.put(className, round);
+        }
+
+        @Override
+        public void setGradingScale(String className, double[] cutoffs) {
+            ArrayList<Double> scale = new ArrayList<>(cutoffs.length);
+            for (double cutoff : cutoffs) {
+                scale.add(Double.isNaN(cutoff) ? null : cutoff);
+            }
+            gradingScale.put(className, scale);
+        }
+
+        @Override
+        public void deleteClass(String className) {
+            classes.remove(className);
+            gradingScale.remove(className);
+            drop.remove(className);
+            rounding.remove(className);
+            percentage.remove(className);
+        }
+    }
     private boolean loadGradingScale() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(GRADING_SCALE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(directory.resolve(GRADING_SCALE).toFile()))) {
             String header = reader.readLine();  // Read header line
             if (header == null) {
                 // File is empty
@@ -181,7 +413,7 @@ public class GradeBook {
     }
 
     private boolean loadPercentage() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(PERCENTAGE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(directory.resolve(PERCENTAGE).toFile()))) {
             reader.readLine();  // Skip header line
             String line;
             int lineNumber = 1;
@@ -196,11 +428,8 @@ public class GradeBook {
                     String category = values[1].trim();
                     double percent = Double.parseDouble(values[2].trim());
 
-                    // Ensure class entry exists in percentage map
-                    percentage.computeIfAbsent(className, k -> new HashMap<>());
-
-                    // Add category percentage
-                    addPercentage(className, category, percent);
+                    // Ensure class entry exists in percentage map, then add category percentage
+                    percentage.computeIfAbsent(className, k -> new HashMap<>()).put(category, percent);
                 } catch (NumberFormatException e) {
                     System.out.println("Invalid number format on line " + lineNumber + ": " + e.getMessage());
                 } catch (IllegalArgumentException e) {
@@ -214,7 +443,7 @@ public class GradeBook {
         }
     }
     private boolean loadRounding() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(ROUNDING))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(directory.resolve(ROUNDING).toFile()))) {
             reader.readLine();  // Skip header line
             String line;
             int lineNumber = 1; // Start counting after the header
@@ -240,7 +469,7 @@ public class GradeBook {
         }
     }
     private boolean loadDropped() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(DROP))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(directory.resolve(DROP).toFile()))) {
             reader.readLine();  // Skip header line
             String line;
             int lineNumber = 1; // Start counting after the header
@@ -269,136 +498,350 @@ public class GradeBook {
 
 
     /**
-     * Saves all grade book data to files.
-     * @return true if all files are saved successfully; false if any fail to save.
+     * Saves all changes made since the last save by appending them to the journal and syncing it once.
+     * When the journal segment has grown past COMPACTION_THRESHOLD, or there is no usable snapshot, a copy of
+     * the grade book is written to a new snapshot and the CSV files in the background. Until then the CSV
+     * files, grades.csv included, still show the last compaction; use checkpoint() to refresh them now.
+     * @return true if the changes were saved; false if the journal could not be written.
      */
     public boolean save() {
-        if(!saveGrades()){
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            System.out.println("An error occurred while saving changes: " + e.getMessage());
             return false;
         }
-        if(!saveGradingScale()){
+        if (compaction != null && !compaction.isDone()) {
+            return true;  // The next save compacts instead
+        }
+        try {
+            if (compactionDue(0)) {
+                long segment = journal.rotate();
+                snapshotStale = false;
+                GradeBookData data = new GradeBookData(classes, percentage, drop, rounding, gradingScale).copy();
+                compaction = compactor.submit(() -> compact(data, segment));
+            }
+        } catch (IOException e) {
+            // The changes are already in the journal, so only compaction is delayed
+            System.out.println("An error occurred while starting compaction: " + e.getMessage());
+        }
+        return true;
+    }
+    /**
+     * Changes taken by beginSave() for finishSave().
+     * @param changes The journal entries to write.
+     * @param data A copy of the grade book to compact, or null if no compaction is due.
+     * @param journalSegment The first journal segment not included in data.
+     */
+    record PendingSave(GradeJournal.Pending changes, GradeBookData data, long journalSegment) {
+    }
+    /**
+     * Does the part of save() that must not overlap changes: takes the changes made since the last save
+     * and, when compaction is due, starts a new journal segment and copies the grade book for it.
+     * finishSave() then writes and syncs the changes while further changes are made, and if it fails,
+     * abortSave() puts them back. Only one save may be in progress at a time, and close() must not run
+     * meanwhile.
+     * @return The changes and the copy to compact.
+     */
+    PendingSave beginSave() {
+        GradeJournal.Pending changes = journal.takePending();
+        if (compaction != null && !compaction.isDone()) {
+            return new PendingSave(changes, null, -1);  // The next save compacts instead
+        }
+        try {
+            if (compactionDue(changes.size())) {
+                snapshotStale = false;
+                GradeBookData data = new GradeBookData(classes, percentage, drop, rounding, gradingScale).copy();
+                return new PendingSave(changes, data, journal.advance());
+            }
+        } catch (IOException e) {
+            System.out.println("An error occurred while starting compaction: " + e.getMessage());
+        }
+        return new PendingSave(changes, null, -1);
+    }
+    /**
+     * Writes and syncs the changes taken by beginSave(), then starts their compaction if one is due.
+     * @param save The changes taken by beginSave().
+     * @return true if the changes were saved; false if the journal could not be written.
+     */
+    boolean finishSave(PendingSave save) {
+        try {
+            journal.write(save.changes());
+        } catch (IOException e) {
+            System.out.println("An error occurred while saving changes: " + e.getMessage());
             return false;
         }
-        if(!savePercentage()){
+        if (save.data() != null) {
+            compaction = compactor.submit(() -> compact(save.data(), save.journalSegment()));
+        }
+        return true;
+    }
+    /**
+     * Puts back the changes of a save whose finishSave() failed, so the next save retries them, and leaves
+     * its compaction to the next save. Like beginSave(), this must not overlap changes.
+     * @param save The changes taken by beginSave().
+     */
+    void abortSave(PendingSave save) {
+        journal.restore(save.changes());
+        if (save.data() != null) {
+            snapshotStale = true;
+        }
+    }
+    /**
+     * @param unwritten Journal bytes about to be added to the current segment.
+     * @return true if the next save should compact.
+     * @throws IOException if the segment size cannot be read.
+     */
+    private boolean compactionDue(long unwritten) throws IOException {
+        return snapshotStale || journal.segmentSize() + unwritten >= COMPACTION_THRESHOLD;
+    }
+    /**
+     * Waits for a running compaction to finish and closes the journal.
+     * Unsaved changes are not written; call save() first to keep them.
+     */
+    public void close() {
+        awaitCompaction();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("An error occurred while closing the journal: " + e.getMessage());
+        }
+    }
+    /**
+     * Saves all changes and writes a complete new generation of save files before returning, instead of
+     * leaving that to a background compaction.
+     * @return true if the new generation was written.
+     */
+    public boolean checkpoint() {
+        awaitCompaction();
+        long segment;
+        try {
+            segment = journal.rotate();
+        } catch (IOException e) {
+            System.out.println("An error occurred while saving changes: " + e.getMessage());
             return false;
         }
-        if(!saveRounding()){
+        snapshotStale = false;
+        // Nothing else changes the maps while this thread writes them
+        return compact(new GradeBookData(classes, percentage, drop, rounding, gradingScale), segment);
+    }
+    private void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("An error occurred while compacting: " + e.getCause());
+        }
+        compaction = null;
+    }
+    /**
+     * Writes a new snapshot and the CSV files from a copy of the grade book as the next generation,
+     * then deletes the journal segments the snapshot includes.
+     * @param data A copy of the grade book that no other thread changes.
+     * @param journalSegment The first journal segment not included in the copy.
+     * @return true if compaction finished.
+     */
+    private boolean compact(GradeBookData data, long journalSegment) {
+        if (!writeGeneration(data, journalSegment)) {
+            snapshotStale = true;  // Retry on the next save; the journal still holds every change
             return false;
         }
-        if(!saveDropped()){
+        try {
+            GradeJournal.deleteSegmentsBefore(directory, journalSegment);
+        } catch (IOException e) {
+            System.out.println("An error occurred while deleting old journal segments: " + e.getMessage());
             return false;
         }
         return true;
     }
-    private boolean saveGrades() {
-        try (FileWriter writer = new FileWriter(GRADES)) {
+    /**
+     * Writes every save file to a temporary file in parallel, then commits them together with
+     * GradeBookManifest. If any file fails, all temporary files are deleted and the previous
+     * generation is left untouched.
+     * @param data A copy of the grade book that no other thread changes.
+     * @param journalSegment The first journal segment not included in the copy.
+     * @return true if the new generation was committed.
+     */
+    private boolean writeGeneration(GradeBookData data, long journalSegment) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        List<ForkJoinTask<Boolean>> tasks = List.of(
+                pool.submit(() -> saveSnapshot(data, journalSegment, temporaryPath(SNAPSHOT))),
+                pool.submit(() -> saveGrades(data, temporaryPath(GRADES))),
+                pool.submit(() -> saveGradingScale(data, temporaryPath(GRADING_SCALE))),
+                pool.submit(() -> saveDropped(data, temporaryPath(DROP))),
+                pool.submit(() -> saveRounding(data, temporaryPath(ROUNDING))),
+                pool.submit(() -> savePercentage(data, temporaryPath(PERCENTAGE))));
+        boolean written = true;
+        for (ForkJoinTask<Boolean> task : tasks) {
+            written &= task.join();  // Join every task so none is still writing during cleanup
+        }
+        try {
+            if (!written) {
+                GradeBookManifest.discardTemporaryFiles(directory, SAVE_FILES);
+                return false;
+            }
+            GradeBookManifest.commit(directory, generation + 1, journalSegment, SAVE_FILES);
+            generation++;
+            return true;
+        } catch (IOException e) {
+            System.out.println("An error occurred while committing the save: " + e.getMessage());
+            return false;
+        }
+    }
+    private Path temporaryPath(String fileName) {
+        return GradeBookManifest.temporaryPath(directory, fileName);
+    }
+    private boolean saveSnapshot(GradeBookData data, long journalSegment, Path file) {
+        try {
+            GradeBookSnapshot.write(file, data, journalSegment);
+            return true;
+        } catch (IOException e) {
+            System.out.println("An error occurred while saving the snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+    private boolean saveGrades(GradeBookData data, Path file) {
+        try (CsvWriter writer = new CsvWriter(file)) {
             // Write the header
             writer.write("Class,Category,Grade\n");
 
             // Iterate through classes and categories
-            for (String className : classes.keySet()) {
-                HashMap<String, ArrayList<Double>> categories = classes.get(className);
+            for (String className : data.classes().keySet()) {
+                HashMap<String, GradeList> categories = data.classes().get(className);
 
                 for (String category : categories.keySet()) {
-                    ArrayList<Double> grades = categories.get(category);
+                    GradeList grades = categories.get(category);
+                    // Encode the class and category once for the whole run of grades
+                    byte[] prefix = CsvWriter.encode(className + "," + category + ",");
 
                     // Write each grade in a separate line
-                    for (Double grade : grades) {
-                        writer.write(className + "," + category + "," + grade + "\n");
+                    for (int i = 0; i < grades.size(); i++) {
+                        writer.write(prefix);
+                        writer.writeDouble(grades.get(i));
+                        writer.write('\n');
                     }
                 }
             }
+            writer.sync();
             return true;  // Indicate success
         } catch (IOException e) {
             System.out.println("An error occurred while saving grades: " + e.getMessage());
             return false;  // Indicate failure
         }
     }
-    private boolean saveGradingScale() {
-        try (FileWriter writer = new FileWriter(GRADING_SCALE)) {
+    private boolean saveGradingScale(GradeBookData data, Path file) {
+        try (CsvWriter writer = new CsvWriter(file)) {
             // Write the header
             writer.write("Class," + String.join(",", GRADE_LABELS) + "\n");
 
             // Iterate through each class in gradingScale
-            for (String className : gradingScale.keySet()) {
-                ArrayList<Double> scale = gradingScale.get(className);
-                StringBuilder line = new StringBuilder(className);
+            for (String className : data.gradingScale().keySet()) {
+                ArrayList<Double> scale = data.gradingScale().get(className);
+                writer.write(className);
 
                 // Ensure we have enough cutoffs in `scale` to match `GRADE_LABELS`
                 for (int i = 0; i < GRADE_LABELS.length; i++) {
+                    writer.write(',');
                     if (i < scale.size()) {
+                        Double cutoff = scale.get(i);
                         if (i == GRADE_LABELS.length - 1) {
                             // For "F", ensure the cutoff is 0.0
-                            line.append(",").append(0.0);
+                            writer.writeDouble(0.0);
+                        } else if (cutoff == null) {
+                            writer.write("null");
                         } else {
-                            line.append(",").append(scale.get(i));
+                            writer.writeDouble(cutoff);
                         }
-                    } else {
-                        line.append(",");  // Leave blank if no cutoff for this grade
                     }
+                    // Otherwise leave blank if no cutoff for this grade
                 }
-
-                // Write the class and grading scale to the file
-                writer.write(line.toString() + "\n");
+                writer.write('\n');
             }
+            writer.sync();
             return true;
         } catch (IOException e) {
             System.out.println("An error occurred while saving grading scales: " + e.getMessage());
             return false;
         }
     }
-    private boolean savePercentage() {
-        try (FileWriter writer = new FileWriter(PERCENTAGE)) {
+    private boolean savePercentage(GradeBookData data, Path file) {
+        try (CsvWriter writer = new CsvWriter(file)) {
             // Write the header
             writer.write("Class,Category,Percent\n");
 
             // Iterate through classes and categories
-            for (String className : percentage.keySet()) {
-                HashMap<String, Double> categories = percentage.get(className);
+            for (String className : data.percentage().keySet()) {
+                HashMap<String, Double> categories = data.percentage().get(className);
 
                 for (String category : categories.keySet()) {
                     Double percent = categories.get(category);
-                    // Handle null percent by replacing it with an empty value or "NA"
-                    writer.write(className + "," + category + "," + (percent != null ? percent : "NA") + "\n");
+                    writer.write(className);
+                    writer.write(',');
+                    writer.write(category);
+                    writer.write(',');
+                    // Handle null percent by replacing it with "NA"
+                    if (percent != null) {
+                        writer.writeDouble(percent);
+                    } else {
+                        writer.write("NA");
+                    }
+                    writer.write('\n');
                 }
             }
+            writer.sync();
             return true;  // Indicate success
         } catch (IOException e) {
             System.out.println("An error occurred while saving percentages: " + e.getMessage());
             return false;  // Indicate failure
         }
     }
-    private boolean saveRounding() {
-        try (FileWriter writer = new FileWriter(ROUNDING)) {
+    private boolean saveRounding(GradeBookData data, Path file) {
+        try (CsvWriter writer = new CsvWriter(file)) {
             // Write the header
             writer.write("Class,Round\n");
 
             // Iterate through classes and write rounding values
-            for (String className : rounding.keySet()) {
-                boolean round = rounding.get(className);
-                writer.write(className + "," + round + "\n");
+            for (String className : data.rounding().keySet()) {
+                boolean round = data.rounding().get(className);
+                writer.write(className);
+                writer.write(round ? ",true\n" : ",false\n");
             }
+            writer.sync();
             return true;  // Indicate success
         } catch (IOException e) {
             System.out.println("An error occurred while saving rounding: " + e.getMessage());
             return false;  // Indicate failure
         }
     }
-    private boolean saveDropped() {
-        try (FileWriter writer = new FileWriter(DROP)) {
+    private boolean saveDropped(GradeBookData data, Path file) {
+        try (CsvWriter writer = new CsvWriter(file)) {
             // Write the header
             writer.write("Class,Category,Dropped\n");
 
             // Iterate through classes and categories
-            for (String className : drop.keySet()) {
-                HashMap<String, Double> categories = drop.get(className);
+            for (String className : data.drop().keySet()) {
+                HashMap<String, Double> categories = data.drop().get(className);
 
                 for (String category : categories.keySet()) {
                     Double dropped = categories.get(category);
-                    writer.write(className + "," + category + "," + (dropped != null ? dropped : "0") + "\n");
+                    writer.write(className);
+                    writer.write(',');
+                    writer.write(category);
+                    writer.write(',');
+                    if (dropped != null) {
+                        writer.writeDouble(dropped);
+                    } else {
+                        writer.write('0');
+                    }
+                    writer.write('\n');
                 }
             }
-            return true;  // Indicate success
+            writer.sync();
+            return true;
         } catch (IOException e) {
             System.out.println("An error occurred while saving dropped items: " + e.getMessage());
             return false;
@@ -406,472 +849,388 @@ public class GradeBook {
     }
 
     /**
-     * Adds a new class to the grade book.
+     * Adds a new class to the grade book. The class starts without categories, grading scale or rounding.
      * @param className The name of the class to add.
      * @return true if the class is successfully added; false if the class already exists.
      */
-    private boolean addClass(String className) {
+    public boolean createClass(String className) {
         if (classes.containsKey(className)) {
             return false;  // Class already exists
-        } else {
-            classes.put(className, new HashMap<String, ArrayList<Double>>());
         }
-        addCategory(className);
-        addGradingScale(className);
-        System.out.println("Does this class use rounding? (Y/N)");
-        String yn = scanner.nextLine().toLowerCase();
-        if (yn.equals("y") || yn.equals("yes")) {
-            addRounding(className);
-        }
-
+        classes.put(className, new HashMap<String, GradeList>());
+        classSymbols.intern(className);
+        invalidateClass(className);
+        journal.addClass(className);
         return true;
     }
-    /**
-     * Prompts the user to add a new class by name.
-     * @return The name of the class if it is successfully added; null if the class already exists.
-     */
-    public String addClass() {
-        String className = confirmInput("What class would you like to add?", "Class Name");
-        if (addClass(className)) {
-            return className;
-        } else {
-            System.out.println(className + " is already added");
-        }
-        return null;
-    }
 
     /**
-    * Adds a new category to the specified class.
-    *
-    * @param className The name of the class to add the category to.
-    * @param categoryName The name of the category to add.
-    * @return true if the category is successfully added, false if the category already exists.
-    */
-    private boolean addCategory(String className, String categoryName) {
-        HashMap<String, ArrayList<Double>> classCategories = classes.get(className);
-
+     * Adds a new category to the specified class, with no weight until setWeight() is called.
+     * @param className The name of the class to add the category to.
+     * @param categoryName The name of the category to add.
+     * @return true if the category is successfully added, false if the category already exists.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public boolean createCategory(String className, String categoryName) {
+        HashMap<String, GradeList> classCategories = requireClass(className);
         if (classCategories.containsKey(categoryName)) {
             return false;  // Category already exists
         }
 
-        classCategories.put(categoryName, new ArrayList<Double>());
+        classCategories.put(categoryName, new GradeList());
+        categorySymbols.intern(categoryName);
+        journal.addCategory(className, categoryName);
+        addPercentagePlaceholders(className);
+        invalidateClass(className);
         return true;
     }
-    /**
-     * Prompts the user to add new categories to the specified class.
-     * @param className The name of the class to add categories to.
-     * @return true if categories are successfully added; false otherwise.
-     */
-    public boolean addCategory(String className) {
-        while (true) {
-            String categoryName = confirmInput("What category would you like to add?", "Category Name");
-            if (addCategory(className, categoryName)) {
-                addPercentage(className, categoryName);
-                addDroppedInCategory(className, categoryName);
-                System.out.println("Would you like to enter another category? (Y/N)");
-                String yn = scanner.nextLine().toLowerCase();
-                if (!yn.equals("y") && !yn.equals("yes")) {
-                    return true;
-                }
-            } else {
-                System.out.println("Category already exists or entry canceled.");
-                // Optionally, ask if the user wants to try adding a different category
-                System.out.println("Would you like to try adding a different category? (Y/N)");
-                String yn = scanner.nextLine().toLowerCase();
-                if (!yn.equals("y") && !yn.equals("yes")) {
-                    return false;
-                }
-            }
-        }
-    }
-
 
     /**
      * Adds a grade to a specific category in a specific class.
      * @param className The name of the class.
      * @param categoryName The name of the category within the class.
      * @param grade The grade to add to the category.
-     * @return true if the grade is successfully added.
+     * @return The number of grades in the category afterwards.
+     * @throws IllegalArgumentException if the class or category does not exist or the grade is not valid.
      */
-    private boolean addGrade(String className, String categoryName, double grade) {
-        classes.get(className).get(categoryName).add(grade);
-        return true;
+    public int addGrade(String className, String categoryName, double grade) {
+        return addGrades(className, categoryName, new double[] {grade});
     }
     /**
-     * Prompts the user to add grades to a specified class and category.
-     * @return true if the grades are successfully added; false if the grade entry is canceled.
+     * Adds several grades to a specific category in a specific class. Every grade is checked before any
+     * is added, so an invalid grade leaves the category unchanged.
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @param grades The grades to add, in order.
+     * @return The number of grades in the category afterwards.
+     * @throws IllegalArgumentException if the class or category does not exist or a grade is negative or not a number.
      */
-    public boolean addGrade() {
-        String className = confirmClassExists("What class would you like to add a grade to?");
-        String categoryName = confirmCategoryExists(className, "What category would you like to add a grade to?");
-        double grade = getValidGrade();
-
-        if (confirmGrade(grade)) {
-            addGrade(className, categoryName, grade);
-            System.out.println("Would you like to enter another grade? (Y/N)");
-            String yn = scanner.nextLine().toLowerCase();
-            if (yn.equals("y") || yn.equals("yes")) {
-                addGrade(className, categoryName);
-            } else {
-                return true;
-            }
-        } else {
-            System.out.println("Grade entry canceled.");
+    public int addGrades(String className, String categoryName, double[] grades) {
+        GradeList categoryGrades = requireCategory(className, categoryName);
+        for (double grade : grades) {
+            checkGrade(grade);
         }
-
-        return false;
+        categoryGrades.addAll(grades);
+        for (double grade : grades) {
+            journal.addGrade(className, categoryName, grade);
+        }
+        return categoryGrades.size();
     }
     /**
-     * Prompts the user to add grades to the specified class and category.
+     * Replaces an existing grade.
      * @param className The name of the class.
      * @param categoryName The name of the category within the class.
-     * @return true if the grades are successfully added; false if the grade entry is canceled.
-     */
-    public boolean addGrade(String className, String categoryName) {
-        double grade = getValidGrade();
-        if (confirmGrade(grade)) {
-            addGrade(className, categoryName, grade);
-            System.out.println("Would you like to enter another grade? (Y/N)");
-            String yn = scanner.nextLine().toLowerCase();
-            if (yn.equals("y") || yn.equals("yes")) {
-                addGrade(className, categoryName);
-            } else {
-                return true;
-            }
-        } else {
-            System.out.println("Grade entry canceled.");
-        }
-
-        return false;
-    }
-
-    /**
-     * Prompts the user to enter a valid numerical grade.
-     * Allows grades over 100% but asks for confirmation if so.
-     * @return A valid grade as a double.
+     * @param index The position of the grade within the category, starting at 0.
+     * @param grade The new grade.
+     * @return The grade that was replaced.
+     * @throws IllegalArgumentException if the class or category does not exist or the grade is not valid.
+     * @throws IndexOutOfBoundsException if there is no grade at the index.
      */
-    private double getValidGrade() {
-        while (true) {
-            try {
-                System.out.println("Enter the grade (0 or higher; extra credit allowed):");
-                String input = scanner.nextLine().trim();
-                double grade = Double.parseDouble(input);
-
-                if (grade < 0) {
-                    System.out.println("Grade cannot be negative. Please try again.");
-                } else if (grade > 100) {
-                    // Ask for confirmation if grade is over 100%
-                    System.out.printf("You entered %.2f%%, which is over 100%%. Is this correct? (Y/N)\n", grade);
-                    String confirmation = scanner.nextLine().trim().toLowerCase();
-                    if (confirmation.equals("y") || confirmation.equals("yes")) {
-                        return grade;
-                    } else {
-                        System.out.println("Please re-enter the grade.");
-                    }
-                } else {
-                    return grade;
-                }
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a numerical grade.");
-            }
-        }
+    public double setGrade(String className, String categoryName, int index, double grade) {
+        GradeList categoryGrades = requireCategory(className, categoryName);
+        checkGrade(grade);
+        double previous = categoryGrades.set(index, grade);
+        journal.editGrade(className, categoryName, index, grade);
+        return previous;
     }
     /**
-     * Confirms the grade entered by the user.
-     * @param grade The grade to confirm.
-     * @return true if the user confirms the grade; false otherwise.
+     * Removes an existing grade.
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @param index The position of the grade within the category, starting at 0.
+     * @return The grade that was removed.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     * @throws IndexOutOfBoundsException if there is no grade at the index.
      */
-    private boolean confirmGrade(double grade) {
-        System.out.println("Is " + grade + " correct? (Y/N)");
-        String confirmation = scanner.nextLine().toLowerCase().trim();
-        return confirmation.equals("y") || confirmation.equals("yes");
+    public double removeGrade(String className, String categoryName, int index) {
+        double removed = requireCategory(className, categoryName).remove(index);
+        journal.deleteGrade(className, categoryName, index);
+        return removed;
     }
 
     /**
-     * Adds a grading scale for a specific class.
-     * @param className The name of the class to add the grading scale to.
-     * @param scale The list of cutoff values for each grade level.
-     * @return true if the grading scale is added successfully.
+     * Sets the grading scale of a class. A scale shorter than GRADE_LABELS is padded with missing
+     * cutoffs, and the "F" cutoff is always 0.
+     * @param className The name of the class.
+     * @param scale The cutoff for each letter grade from A+ down, or null where a letter grade is not used.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    private boolean addGradingScale(String className, ArrayList<Double> scale) {
+    public void setGradingScale(String className, List<Double> scale) {
+        requireClass(className);
+        ArrayList<Double> cutoffs = new ArrayList<>(scale);
         // Ensure the last element corresponds to "F" and is set to 0.0
-        if (scale.size() < GRADE_LABELS.length) {
+        if (cutoffs.size() < GRADE_LABELS.length) {
             // Pad with nulls if necessary
-            while (scale.size() < GRADE_LABELS.length - 1) {
-                scale.add(null);
+            while (cutoffs.size() < GRADE_LABELS.length - 1) {
+                cutoffs.add(null);
             }
-            scale.add(0.0); // Set "F" cutoff to 0.0
+            cutoffs.add(0.0); // Set "F" cutoff to 0.0
         } else {
-            scale.set(GRADE_LABELS.length - 1, 0.0);
-        }
-        gradingScale.put(className, scale);
-        return true;
-    }
-    /**
-     * Prompts the user to add a grading scale for the specified class.
-     * @param className The name of the class.
-     * @return true if the grading scale is added successfully.
-     */
-    public boolean addGradingScale(String className) {
-        ArrayList<Double> scale = new ArrayList<>();
-
-        // Prompt for each grade and add cutoff or null, skip "F"
-        for (int i = 0; i < GRADE_LABELS.length - 1; i++) {
-            String grade = GRADE_LABELS[i];
-            addCutoff(grade, scale);
-        }
-
-        // Automatically set "F" cutoff to 0.0
-        scale.add(0.0);
-
-        return addGradingScale(className, scale);
-    }
-    /**
-     * Prompts the user to enter the cutoff for a specific grade and adds it to the grading scale.
-     * @param grade The grade label (e.g., "A+", "B").
-     * @param scale The list to add the cutoff value to.
-     */
-    private void addCutoff(String grade, ArrayList<Double> scale) {
-        if (grade.equals("F")) {
-            // Automatically set "F" cutoff to 0.0 without prompting
-            scale.add(0.0);
-            return;
+            cutoffs.set(GRADE_LABELS.length - 1, 0.0);
         }
-        while (true) {
-            System.out.println("What is the lower end cutoff for " + grade + "? (if it doesn’t exist, enter 'NA')");
-            String input = scanner.nextLine().trim().toLowerCase();
-            if (input.equals("na")) {
-                scale.add(null);  // Add null for missing grade cutoff
-                break;
-            } else {
-                try {
-                    double cutoff = Double.parseDouble(input);
-                    scale.add(cutoff);
-                    break;
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid input. Please enter a numerical value or 'NA'.");
-                }
-            }
+        gradingScale.put(className, cutoffs);
+        invalidateClass(className);  // Rounding and letter grades depend on the scale
+        double[] journalCutoffs = new double[cutoffs.size()];
+        for (int i = 0; i < journalCutoffs.length; i++) {
+            Double cutoff = cutoffs.get(i);
+            journalCutoffs[i] = cutoff != null ? cutoff : Double.NaN;
         }
+        journal.setGradingScale(className, journalCutoffs);
     }
 
-
     /**
-     * Adds the number of items to drop in a specific category of a specific class.
+     * Sets the number of lowest grades dropped in a category.
      * @param className The name of the class.
      * @param categoryName The name of the category within the class.
      * @param numItems The number of items to drop in the category.
-     * @return true if the drop information is successfully added.
+     * @throws IllegalArgumentException if the class or category does not exist.
      */
-    private boolean addDroppedInCategory(String className, String categoryName, double numItems) {
+    public void setDropped(String className, String categoryName, double numItems) {
+        requireCategory(className, categoryName);
         drop.computeIfAbsent(className, k -> new HashMap<>()).put(categoryName, numItems);
-        return true;
+        invalidateClass(className);
+        journal.setDropped(className, categoryName, numItems);
     }
+
     /**
-     * Prompts the user to set the number of dropped items for the specified class and category.
+     * Turns rounding of the final grade on or off for a class.
      * @param className The name of the class.
-     * @param categoryName The name of the category within the class.
-     * @return true if the drop information is successfully added.
+     * @param round Whether final grades just below a cutoff are rounded up to it.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    public boolean addDroppedInCategory(String className, String categoryName) {
-        System.out.println("How many items in " + categoryName + " are dropped?");
-        double dropped = getValidPositiveDouble();
-        addDroppedInCategory(className, categoryName, dropped);
-        return true;
+    public void setRounding(String className, boolean round) {
+        requireClass(className);
+        rounding.put(className, round);
+        invalidateClass(className);
+        journal.setRounding(className, round);
     }
 
-
     /**
-     * Enables rounding for a specific class.
+     * Sets the percentage of the final grade a category is worth.
      * @param className The name of the class.
-     * @return true if rounding is successfully enabled; false if rounding is already enabled.
+     * @param category The name of the category.
+     * @param percent The percentage value for the category.
+     * @throws IllegalArgumentException if the class or category does not exist.
      */
-    private boolean addRounding(String className) {
-        // If the class doesn't exist in rounding, initialize it
-        rounding.putIfAbsent(className, false);
-        if (rounding.get(className)) {
-            System.out.println("Rounding entry canceled as class already uses rounding.");
-            return false;  // Class already has rounding enabled
-        }
-        rounding.put(className, true);
-        return true;
+    public void setWeight(String className, String category, double percent) {
+        requireCategory(className, category);
+        percentage.computeIfAbsent(className, k -> new HashMap<>()).put(category, percent);
+        invalidateClass(className);
+        journal.setPercentage(className, category, percent);
     }
     /**
-     * Prompts the user to enable rounding for a specified class.
-     * @return true if rounding is successfully enabled; false if rounding is already enabled.
+     * Ensures all categories have a percentage placeholder in the specified class.
+     * @param className The name of the class.
      */
-    public boolean addRounding() {
-        String className = confirmClassExists("What class would you like to add rounding to?");
-        return addRounding(className);
+    private void addPercentagePlaceholders(String className) {
+        // Initialize class categories in the percentage map if absent
+        HashMap<String, Double> classCategories = percentage.computeIfAbsent(className, k -> new HashMap<>());
+        for (String categoryName : classes.get(className).keySet()) {
+            if (!classCategories.containsKey(categoryName)) {
+                classCategories.put(categoryName, null);  // Placeholder for future updates
+                journal.setPercentage(className, categoryName, Double.NaN);
+            }
+        }
     }
 
-
     /**
-     * Adds a percentage value for a category within a specific class.
      * @param className The name of the class.
-     * @param category The name of the category.
-     * @param percent The percentage value for the category.
-     * @return true if the percentage is successfully added.
+     * @return The categories and grades of the class.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    private boolean addPercentage(String className, String category, double percent) {
-        HashMap<String, Double> classCategories = percentage.get(className);
-        // Update the percentage for the category
-        classCategories.put(category, percent);
-        return true;
+    private HashMap<String, GradeList> requireClass(String className) {
+        HashMap<String, GradeList> classCategories = classes.get(className);
+        if (classCategories == null) {
+            throw new IllegalArgumentException("Class does not exist: " + className);
+        }
+        return classCategories;
     }
     /**
-     * Prompts the user to add percentages to categories within a specified class.
      * @param className The name of the class.
-     * @param categoryName The name of the category.
-     * @return true if the percentage is successfully added.
-     */
-    public boolean addPercentage(String className, String categoryName) {
-        Set<String> cats = classes.get(className).keySet();
-        ArrayList<String> classCategories = new ArrayList<>(cats);
-        // Ensure each category has a place in percentage map for this class
-        addPercentageCategories(className, classCategories);
-            System.out.println("What is the percentage for " + categoryName + "?");
-            double percent = getValidPositiveDouble();
-            addPercentage(className, categoryName, percent);
-        return true;
-    }
+     * @param categoryName The name of the category within the class.
+     * @return The grades of the category.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    private GradeList requireCategory(String className, String categoryName) {
+        GradeList grades = requireClass(className).get(categoryName);
+        if (grades == null) {
+            throw new IllegalArgumentException("Category does not exist in " + className + ": " + categoryName);
+        }
+        return grades;
+    }
     /**
-     * Ensures all categories have a percentage placeholder in the specified class.
-     * @param className The name of the class.
-     * @param categories The list of category names to initialize in the percentage map.
-     * @return true if the percentage placeholders are successfully added.
+     * @param grade A grade about to be stored.
+     * @throws IllegalArgumentException if the grade is negative or not a finite number.
      */
-    private boolean addPercentageCategories(String className, ArrayList<String> categories) {
-        // Initialize class categories in the percentage map if absent
-        percentage.putIfAbsent(className, new HashMap<>());
-
-        HashMap<String, Double> classCategories = percentage.get(className);
-        for (String categoryName : categories) {
-            classCategories.putIfAbsent(categoryName, null);  // Placeholder for future updates
+    private static void checkGrade(double grade) {
+        if (!(grade >= 0) || Double.isInfinite(grade)) {
+            throw new IllegalArgumentException("Grade must be 0 or higher: " + grade);
         }
-        return true;
     }
 
-
     /**
-     * Prompts the user to enter a valid positive double value.
-     * @return A valid positive double value.
-     */
-    private double getValidPositiveDouble() {
-        while (true) {
-            try {
-                double value = Double.parseDouble(scanner.nextLine().trim());
-                if (value >= 0) {
-                    return value;
-                } else {
-                    System.out.println("Value must be a positive number. Please try again.");
-                }
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a numerical value.");
-            }
-        }
+     * @return The names of every class, in the order the grade book lists them.
+     */
+    public Set<String> classNames() {
+        return Collections.unmodifiableSet(classes.keySet());
     }
     /**
-     * Prompts the user to confirm a text input and allows for reentry until confirmed.
-     * @param message The message to prompt the user.
-     * @param itemName The name of the item being confirmed.
-     * @return The confirmed input string.
+     * @param className The name of a class.
+     * @return true if the class exists.
      */
-    private String confirmInput(String message, String itemName) {
-        System.out.println(message);
-        String item = scanner.nextLine();
-        System.out.println("Is " + item + " correct? (Y/N)");
-        String correct = scanner.nextLine().toLowerCase().trim();
-        while (!correct.equals("y") && !correct.equals("yes")) {
-            System.out.println("What is the correct " + itemName + "?");
-            item = scanner.nextLine();
-            System.out.println("Is " + item + " correct? (Y/N)");
-            correct = scanner.nextLine().toLowerCase().trim();
-        }
-        return item;
+    public boolean hasClass(String className) {
+        return classes.containsKey(className);
     }
     /**
-     * Checks if a class exists in the grade book and prompts the user until a valid class is entered.
-     * @param message The prompt message to display.
-     * @return The confirmed class name.
+     * @param className The name of the class.
+     * @return The names of the categories in the class.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    private String confirmClassExists(String message) {
-        System.out.println(message);
-        String className = scanner.nextLine().trim();
-        while (!classes.containsKey(className)) {
-            System.out.println(className + " does not exist yet in the grade book. Please try entering again.");
-            className = scanner.nextLine().trim();
-        }
-        return className;
+    public Set<String> categoryNames(String className) {
+        return Collections.unmodifiableSet(requireClass(className).keySet());
+    }
+    /**
+     * @param className The name of a class.
+     * @param categoryName The name of a category.
+     * @return true if the class exists and has the category.
+     */
+    public boolean hasCategory(String className, String categoryName) {
+        HashMap<String, GradeList> classCategories = classes.get(className);
+        return classCategories != null && classCategories.containsKey(categoryName);
+    }
+    /**
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return A copy of the grades in the category, in the order they were added.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public double[] grades(String className, String categoryName) {
+        return requireCategory(className, categoryName).toArray();
+    }
+    /**
+     * @param className The name of the class.
+     * @return The percentage each category is worth; a category without a percentage maps to null.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public Map<String, Double> weights(String className) {
+        requireClass(className);
+        HashMap<String, Double> percents = percentage.get(className);
+        return percents != null ? Collections.unmodifiableMap(percents) : Collections.emptyMap();
+    }
+    /**
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return The number of lowest grades dropped in the category.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public double dropped(String className, String categoryName) {
+        requireCategory(className, categoryName);
+        HashMap<String, Double> dropped = drop.get(className);
+        Double dropping = dropped != null ? dropped.get(categoryName) : null;
+        return dropping != null ? dropping : 0.0;
     }
     /**
-     * Checks if a category exists in the specified class and prompts the user until a valid category is entered.
      * @param className The name of the class.
-     * @param message The prompt message to display.
-     * @return The confirmed category name.
+     * @return true if the class rounds final grades up to nearby cutoffs.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    private String confirmCategoryExists(String className, String message) {
-        System.out.println(message);
-        String categoryName = scanner.nextLine().trim();
-        HashMap<String, ArrayList<Double>> classCategories = classes.get(className);
-        while (!classCategories.containsKey(categoryName)) {
-            System.out.println(categoryName + " does not exist in the class. Please enter a valid category name:");
-            categoryName = scanner.nextLine().trim();
+    public boolean rounds(String className) {
+        requireClass(className);
+        return rounding.getOrDefault(className, false);
+    }
+    /**
+     * @param className The name of the class.
+     * @return The cutoff of each letter grade in GRADE_LABELS order, with null for unused letter grades,
+     * or null if the class has no grading scale.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public List<Double> gradingScale(String className) {
+        requireClass(className);
+        ArrayList<Double> scale = gradingScale.get(className);
+        return scale != null ? Collections.unmodifiableList(scale) : null;
+    }
+
+    /**
+     * Returns the compiled lookup table for a class, building it from the maps if it is missing or stale.
+     * @param className The name of the class.
+     * @return The compiled table for the class.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    private ClassTable getClassTable(String className) {
+        int classId = classSymbols.idOf(className);
+        ClassTable table = classId >= 0 && classId < classTables.size() ? classTables.get(classId) : null;
+        if (table != null) {
+            return table;
+        }
+        HashMap<String, GradeList> classCategories = classes.get(className);
+        if (classCategories == null) {
+            throw new IllegalArgumentException("Class does not exist: " + className);
+        }
+        if (classId < 0) {
+            classId = classSymbols.intern(className);
         }
-        return categoryName;
+        table = buildClassTable(classId, className, classCategories);
+        while (classTables.size() <= classId) {
+            classTables.add(null);
+        }
+        classTables.set(classId, table);
+        return table;
     }
+    /**
+     * Compiles the string-keyed configuration of a class into an int-indexed table.
+     * Missing percentages and drop counts are treated as 0.
+     * @param classId The interned id of the class.
+     * @param className The name of the class.
+     * @param classCategories The categories and grades of the class.
+     * @return The compiled table.
+     */
+    private ClassTable buildClassTable(int classId, String className, HashMap<String, GradeList> classCategories) {
+        HashMap<String, Double> percents = percentage.get(className);
+        HashMap<String, Double> dropped = drop.get(className);
+        int size = classCategories.size();
+        int[] categoryIds = new int[size];
+        GradeList[] grades = new GradeList[size];
+        double[] weights = new double[size];
+        int[] dropCounts = new int[size];
 
+        int slot = 0;
+        for (String category : classCategories.keySet()) {
+            categoryIds[slot] = categorySymbols.intern(category);
+            grades[slot] = classCategories.get(category);
+            Double percent = percents != null ? percents.get(category) : null;
+            weights[slot] = percent != null ? percent / 100.0 : 0.0; // Convert to decimal
+            Double dropping = dropped != null ? dropped.get(category) : null;
+            dropCounts[slot] = dropping != null ? dropping.intValue() : 0;
+            slot++;
+        }
+        return new ClassTable(classId, categoryIds, grades, weights, dropCounts, rounding.getOrDefault(className, false),
+                CompiledScale.compile(gradingScale.get(className)));
+    }
+    /**
+     * Marks the compiled table of a class as stale so it is rebuilt on next use.
+     * @param className The name of the class whose configuration changed.
+     */
+    private void invalidateClass(String className) {
+        int classId = classSymbols.idOf(className);
+        if (classId >= 0 && classId < classTables.size()) {
+            classTables.set(classId, null);
+        }
+    }
+    /**
+     * Marks every compiled class table as stale.
+     */
+    void invalidateAllClasses() {
+        classTables.clear();
+    }
     /**
-     * Displays the grades for each class and category, along with the calculated final and letter grades.
-     * Iterates through all classes and their categories, printing each category's grades and the
-     * overall calculated final grade and letter grade for each class.
-     * @return true if the display operation completes successfully.
+     * Compiles the table of every class that does not have one yet. Afterwards, reading grades, stats and
+     * final grades of different classes touches disjoint state, so those reads may run on different threads
+     * as long as nothing modifies the grade book meanwhile.
      */
-    public boolean displayClassesGrades() {
-        // Iterate through classes and categories
+    void compileAllClasses() {
         for (String className : classes.keySet()) {
-            HashMap<String, ArrayList<Double>> categories = classes.get(className);
-            System.out.println(className);
-            System.out.println("---------------");
-            for (String category : categories.keySet()) {
-                ArrayList<Double> grades = categories.get(category);
-
-                // Calculate statistics
-                double average = calculateAverage(grades);
-                double median = calculateMedian(grades);
-                double highest = getHighestGrade(grades);
-                double lowest = getLowestGrade(grades);
-
-                // Start building the output line
-                StringBuilder output = new StringBuilder();
-                output.append(category)
-                        .append(": ")
-                        .append(String.format("%.2f", calculateCatGrade(className, category)))
-                        .append(" | Grades: ");
-
-                // Append grades separated by commas
-                for (int i = 0; i < grades.size(); i++) {
-                    output.append(String.format("%.2f", grades.get(i)));
-                    if (i < grades.size() - 1) {
-                        output.append(", ");
-                    }
-                }
-                System.out.println(output.toString());
-
-                // Display statistics
-                System.out.printf("Statistics for %s:\n", category);
-                System.out.printf(" - Average: %.2f\n", average);
-                System.out.printf(" - Median: %.2f\n", median);
-                System.out.printf(" - Highest: %.2f\n", highest);
-                System.out.printf(" - Lowest: %.2f\n", lowest);
-                System.out.println();
-            }
-            // Display final grade and letter grade
-            String[] finalGrade = calculateFinalGrade(className);
-            System.out.println(String.format("Final Grade: %.2f   %s", Double.parseDouble(finalGrade[0]), finalGrade[1]));
-            System.out.println("---------------\n");
+            getClassTable(className);
         }
-        return true;
     }
 
     /**
@@ -881,28 +1240,36 @@ public class GradeBook {
      * @return The average grade for the category after dropping the specified number of lowest grades.
      */
     public double calculateCatGrade(String className, String category) {
-        double catGrade = 0;
-        int dropping = 0;
-
-        // Retrieve the number of items to drop for this specific category
-        HashMap<String, Double> dropped = drop.get(className);
-        if (dropped != null && dropped.containsKey(category)) {
-            dropping = dropped.get(category).intValue();  // Convert to int for indexing
+        ClassTable table = getClassTable(className);
+        int slot = table.slotOf(categorySymbols.idOf(category));
+        if (slot < 0) {
+            return 0.0;  // Category does not exist in this class
         }
+        return calculateCatGrade(table, slot);
+    }
+    /**
+     * Calculates the grade for the category in the given slot of a compiled class table.
+     * The result is cached in the table until the category's grades change.
+     * @param table The compiled class table.
+     * @param slot The slot of the category within the table.
+     * @return The average grade for the category after dropping the specified number of lowest grades.
+     */
+    private double calculateCatGrade(ClassTable table, int slot) {
+        if (table.hasCatGrade(slot)) {
+            return table.cachedCatGrade(slot);
+        }
+        int dropping = table.dropCounts[slot];
 
         // Retrieve grades for the specified category
-        ArrayList<Double> grades = classes.get(className).get(category);
+        GradeList grades = table.grades[slot];
         if (grades == null || grades.isEmpty()) {
             return 0.0;  // If no grades, return 0
         }
-        // Sort grades in ascending order to drop the lowest ones
-        grades.sort(null);
-        // Sum grades after skipping the lowest `dropping` grades
-        for (int i = dropping; i < grades.size(); i++) {
-            catGrade += grades.get(i);
-        }
+        // Sum grades after skipping the lowest `dropping` grades; the list keeps these up to date
+        double catGrade = grades.sumWithoutLowest(dropping);
         // Calculate the average for remaining grades
         catGrade /= (grades.size() - dropping);  // Adjust denominator based on dropped grades
+        table.cacheCatGrade(slot, catGrade);
         return catGrade;
     }
 
@@ -910,33 +1277,26 @@ public class GradeBook {
      * Calculates the final grade and letter grade for the specified class.
      * If the final numeric grade exceeds the highest cutoff, assigns the highest letter grade.
      * @param className The name of the class.
-     * @return An array containing the final grade as a string and the corresponding letter grade.
+     * @return The final grade (might be over 100%) and the corresponding letter grade.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    public String[] calculateFinalGrade(String className) {
-        String[] grade = new String[2];  // Array to store final grade and letter grade
-        double finalGrade = 0.0;
-        HashMap<String, ArrayList<Double>> classCategories = classes.get(className);
-        HashMap<String, Double> percents = percentage.get(className);
-
-        // Calculate the final grade
-        for (String category : classCategories.keySet()) {
-            double categoryPercentage = percents.get(category) / 100.0; // Convert to decimal
-            double catGrade = calculateCatGrade(className, category);
-            finalGrade += catGrade * categoryPercentage;
-        }
+    public FinalGrade finalGrade(String className) {
+        ClassTable table = getClassTable(className);
+        if (!table.hasFinalGrade()) {
+            double finalGrade = 0.0;
+
+            // Calculate the final grade; unchanged categories come from the table's cache
+            for (int slot = 0; slot < table.size(); slot++) {
+                finalGrade += calculateCatGrade(table, slot) * table.weights[slot];
+            }
 
-        // Apply rounding if enabled for the class
-        if (rounding.getOrDefault(className, false)) {
-            finalGrade = applyRounding(finalGrade, className);
+            // Apply rounding if enabled for the class
+            if (table.round) {
+                finalGrade = applyRounding(finalGrade, className);
+            }
+            table.cacheFinalGrade(finalGrade, getLetterGrade(finalGrade, className));
         }
-
-        // Store the actual final grade (might be over 100%)
-        grade[0] = String.format("%.2f", finalGrade);
-
-        // Determine the letter grade
-        grade[1] = getLetterGrade(finalGrade, className);
-
-        return grade;
+        return new FinalGrade(table.cachedFinalGrade(), table.cachedLetterGrade());
     }
     /**
      * Applies rounding to the final grade if rounding is enabled for the class.
@@ -944,16 +1304,8 @@ public class GradeBook {
      * @param className The name of the class.
      * @return The final grade after applying rounding.
      */
-    private double applyRounding(double finalGrade, String className) {
-        ArrayList<Double> scale = gradingScale.get(className);
-        if (scale != null) {
-            for (Double cutoff : scale) {
-                if (cutoff != null && finalGrade < cutoff && cutoff - finalGrade <= ROUND_SIZE) {
-                    return cutoff;
-                }
-            }
-        }
-        return finalGrade;
+    double applyRounding(double finalGrade, String className) {
+        return getClassTable(className).scale.round(finalGrade);
     }
     /**
      * Determines the letter grade corresponding to the final grade based on the class's grading scale.
@@ -962,398 +1314,277 @@ public class GradeBook {
      * @param className The name of the class.
      * @return The letter grade corresponding to the final grade.
      */
-    private String getLetterGrade(double finalGrade, String className) {
-        ArrayList<Double> scale = gradingScale.get(className);
-        if (scale != null) {
-            String[] letterGrades = GRADE_LABELS; // Use the defined grade labels
-            for (int i = 0; i < scale.size(); i++) {
-                Double cutoff = scale.get(i);
-                if (cutoff != null && finalGrade >= cutoff) {
-                    return letterGrades[i];
-                }
-            }
-            // If the final grade is higher than all cutoffs, return the highest grade
-            for (int i = 0; i < scale.size(); i++) {
-                if (scale.get(i) != null) {
-                    return letterGrades[i];
-                }
-            }
-        }
-        return "No Scale";
+    String getLetterGrade(double finalGrade, String className) {
+        return getClassTable(className).scale.letter(finalGrade);
     }
     /**
-     * Allows the user to add hypothetical grades to see how they would affect the final grade.
-     * Prompts the user to add hypothetical grades to categories and displays the impact on the final grade.
+     * Calculates statistics for the grades of a category.
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return The category grade with dropped grades, and the average, median, highest and lowest of all grades.
+     * @throws IllegalArgumentException if the class or category does not exist.
      */
-    public void addPossibleGrades() {
-        String className = confirmClassExists("For which class would you like to add possible grades?");
-        HashMap<String, ArrayList<Double>> classCategories = classes.get(className);
-
-        // Create a deep copy of the classCategories to work with hypothetical grades
-        HashMap<String, ArrayList<Double>> hypotheticalCategories = new HashMap<>();
-        for (String category : classCategories.keySet()) {
-            ArrayList<Double> gradesCopy = new ArrayList<>(classCategories.get(category));
-            hypotheticalCategories.put(category, gradesCopy);
-        }
-
-        // Prompt the user to add hypothetical grades
-        while (true) {
-            System.out.println("In which category?");
-            String category = scanner.nextLine().trim();
-            if (!hypotheticalCategories.containsKey(category)) {
-                System.out.println("Category does not exist. Please enter a valid category.");
-                continue;
-            }
-            double grade = getValidGrade();
-            hypotheticalCategories.get(category).add(grade);
-
-            System.out.println("Would you like to enter another hypothetical grade? (Y/N)");
-            String yn = scanner.nextLine().toLowerCase();
-            if (!yn.equals("y") && !yn.equals("yes")) {
-                break;
-            }
-        }
-
-        // Calculate the original and new category grades
-        for (String category : hypotheticalCategories.keySet()) {
-            double originalCatGrade = calculateCatGrade(className, category);
-            double newCatGrade = calculateCatGradeWithGrades(className, category, hypotheticalCategories.get(category));
-            System.out.printf("Original %s: %.2f%%\n", category, originalCatGrade);
-            System.out.printf("Hypothetical %s: %.2f%%\n", category, newCatGrade);
-            System.out.println(" ");
-        }
-
-        // Calculate the original and new final grades
-        double originalFinalGrade = calculateFinalGradeValue(className);
-        double newFinalGrade = calculateFinalGradeWithHypothetical(className, hypotheticalCategories);
-        System.out.printf("Original Grade: %.2f%%\n", originalFinalGrade);
-        System.out.printf("New Final Grade: %.2f%%\n", newFinalGrade);
-        System.out.println("\n");
+    public CategoryStats categoryStats(String className, String categoryName) {
+        GradeList grades = requireCategory(className, categoryName);
+        ClassTable table = getClassTable(className);
+        return grades.statistics(table.dropCounts[table.slotOf(categorySymbols.idOf(categoryName))]);
     }
     /**
-     * Calculates the category grade using a provided list of grades, considering dropped grades.
+     * Reports one class from its compiled table. Category grades and the final grade come from the
+     * table's caches, and each category report holds the category's own grade list rather than a copy,
+     * so the report is only valid until the class changes.
      * @param className The name of the class.
-     * @param category The name of the category.
-     * @param grades The list of grades to use in the calculation.
-     * @return The average grade for the category after dropping the specified number of lowest grades.
+     * @return The report of the class.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    private double calculateCatGradeWithGrades(String className, String category, ArrayList<Double> grades) {
-        double catGrade = 0;
-        int dropping = 0;
-
-        // Retrieve the number of items to drop for this specific category
-        HashMap<String, Double> dropped = drop.get(className);
-        if (dropped != null && dropped.containsKey(category)) {
-            dropping = dropped.get(category).intValue();  // Convert to int for indexing
-        }
+    GradeBookReport.ClassReport report(String className) {
+        ClassTable table = getClassTable(className);
+        GradeBookReport.CategoryReport[] categories = new GradeBookReport.CategoryReport[table.size()];
+        for (int slot = 0; slot < categories.length; slot++) {
+            GradeList grades = table.grades[slot];
+            // The cached category grade already accounts for dropped grades, so the statistics need not
+            CategoryStats all = grades.statistics(0);
+            CategoryStats stats = new CategoryStats(all.count(), calculateCatGrade(table, slot), all.average(),
+                    all.median(), all.highest(), all.lowest());
+            categories[slot] = new GradeBookReport.CategoryReport(categorySymbols.nameOf(table.categoryIds[slot]), grades, stats);
+        }
+        return new GradeBookReport.ClassReport(className, List.of(categories), finalGrade(className));
+    }
 
-        if (grades == null || grades.isEmpty()) {
-            return 0.0;  // If no grades, return 0
+    /**
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return The distribution of the category's grades, for approximate quantiles.
+     * @throws IllegalArgumentException if the class or category does not exist.
+     */
+    public GradeHistogram histogram(String className, String categoryName) {
+        return requireCategory(className, categoryName).histogram();
+    }
+    /**
+     * @param className The name of the class.
+     * @return The distribution of every grade in the class, merged from its categories.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public GradeHistogram histogram(String className) {
+        GradeHistogram histogram = new GradeHistogram();
+        for (GradeList grades : requireClass(className).values()) {
+            histogram.merge(grades.histogram());
         }
-        // Sort grades in ascending order to drop the lowest ones
-        grades.sort(null);
-        // Sum grades after skipping the lowest `dropping` grades
-        for (int i = dropping; i < grades.size(); i++) {
-            catGrade += grades.get(i);
+        return histogram;
+    }
+    /**
+     * Merges the distributions of several classes, such as a department, without rescanning their grades.
+     * @param classNames The names of the classes.
+     * @return The distribution of every grade in the classes.
+     * @throws IllegalArgumentException if one of the classes does not exist.
+     */
+    public GradeHistogram histogram(Collection<String> classNames) {
+        GradeHistogram histogram = new GradeHistogram();
+        for (String className : classNames) {
+            histogram.merge(histogram(className));
         }
-        // Calculate the average for remaining grades
-        catGrade /= (grades.size() - dropping);  // Adjust denominator based on dropped grades
-        return catGrade;
+        return histogram;
     }
+
     /**
-     * Calculates the final numeric grade for the specified class.
+     * Creates a what-if engine over the current state of a class, for evaluating many sets of
+     * hypothetical grades without copying the class's grades.
      * @param className The name of the class.
-     * @return The final grade as a double.
+     * @return The engine; it does not see later changes to the class.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    private double calculateFinalGradeValue(String className) {
-        String[] grade = calculateFinalGrade(className);
-        return Double.parseDouble(grade[0]);
+    public WhatIf whatIf(String className) {
+        ClassTable table = getClassTable(className);
+        int size = table.size();
+        String[] categories = new String[size];
+        int[] sizes = new int[size];
+        double[] sums = new double[size];
+        double[][] lowest = new double[size][];
+        double[] grades = new double[size];
+        for (int slot = 0; slot < size; slot++) {
+            GradeList list = table.grades[slot];
+            categories[slot] = categorySymbols.nameOf(table.categoryIds[slot]);
+            sizes[slot] = list.size();
+            sums[slot] = list.sum();
+            lowest[slot] = list.lowestGrades(table.dropCounts[slot]);
+            grades[slot] = calculateCatGrade(table, slot);
+        }
+        return new WhatIf(className, categories, table.weights.clone(), table.dropCounts.clone(), sizes, sums, lowest,
+                grades, table.round, table.scale);
     }
     /**
-     * Calculates the final grade using hypothetical grades for the specified class.
+     * Calculates what a category grade would be with extra grades, without changing the grade book.
      * @param className The name of the class.
-     * @param hypotheticalCategories A map of categories to their hypothetical grades.
-     * @return The final grade after applying the hypothetical grades.
+     * @param categoryName The name of the category within the class.
+     * @param extraGrades The hypothetical grades to add to the category.
+     * @return The category grade with the hypothetical grades.
+     * @throws IllegalArgumentException if the class or category does not exist.
      */
-    private double calculateFinalGradeWithHypothetical(String className, HashMap<String, ArrayList<Double>> hypotheticalCategories) {
-        double finalGrade = 0.0;
-        HashMap<String, Double> percents = percentage.get(className);
-
-        // Calculate weighted sum of category grades
-        for (String category : hypotheticalCategories.keySet()) {
-            double categoryPercentage = percents.get(category) / 100.0; // Convert to decimal
-            double catGrade = calculateCatGradeWithGrades(className, category, hypotheticalCategories.get(category));
-            finalGrade += catGrade * categoryPercentage;
+    public double hypotheticalCategoryGrade(String className, String categoryName, double[] extraGrades) {
+        requireCategory(className, categoryName);
+        WhatIf whatIf = whatIf(className);
+        return whatIf.categoryGrade(whatIf.categoryIndex(categoryName), extraGrades);
+    }
+    /**
+     * Calculates what the final grade would be with extra grades, without changing the grade book.
+     * @param className The name of the class.
+     * @param extraGrades The hypothetical grades to add to each category; categories may be left out.
+     * @return The final grade with the hypothetical grades, after rounding if the class rounds.
+     * @throws IllegalArgumentException if the class or one of the categories does not exist.
+     */
+    public double hypotheticalFinalGrade(String className, Map<String, double[]> extraGrades) {
+        for (String category : extraGrades.keySet()) {
+            requireCategory(className, category);
         }
-        // Apply rounding if enabled
-        if (rounding.getOrDefault(className, false)) {
-            finalGrade = applyRounding(finalGrade, className);
+        WhatIf whatIf = whatIf(className);
+        double[][] byCategory = new double[whatIf.categoryCount()][];
+        for (Map.Entry<String, double[]> entry : extraGrades.entrySet()) {
+            byCategory[whatIf.categoryIndex(entry.getKey())] = entry.getValue();
         }
-        return finalGrade;
+        return whatIf.finalGrade(byCategory);
     }
 
     /**
-     * Calculates the grades needed in remaining assignments to achieve a desired letter grade.
-     * Prompts the user for the desired letter grade and the number of remaining items in each category,
-     * then calculates the required average grades needed per remaining item.
+     * Creates a solver for the grades a class still needs, over its current state.
+     * @param className The name of the class.
+     * @return The solver; it does not see later changes to the class.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public NeededGradeSolver neededGradeSolver(String className) {
+        return new NeededGradeSolver(whatIf(className));
+    }
+    /**
+     * Calculates the average needed on the remaining items of each category to reach a letter grade.
+     * The needed improvement is spread over the categories with remaining items in proportion to their weights,
+     * and each category's average accounts for the grades it drops.
+     * @param className The name of the class.
+     * @param letterGrade The desired letter grade.
+     * @param remainingItems The number of items still to be graded in each category; missing categories have none.
+     * @return The needed averages, or the reason the letter grade is already reached or out of reach.
+     * @throws IllegalArgumentException if the class does not exist or the letter grade is not on its grading scale.
      */
-    public void calculateNeededGradesForLetterGrade() {
-        String className = confirmClassExists("For which class do you want to calculate needed grades?");
-        // Get the desired letter grade
-        String desiredLetterGrade = getDesiredLetterGrade(className);
-
-        double desiredFinalPercentage = getPercentageForLetterGrade(className, desiredLetterGrade);
-        if (desiredFinalPercentage < 0) {
-            System.out.println("Invalid letter grade or grading scale not defined for this class.");
-            return;
-        }
-
+    public NeededGrades neededGrades(String className, String letterGrade, Map<String, Integer> remainingItems) {
+        NeededGrades needed = neededGradeSolver(className).solve(letterGrade, remainingItems);
         HashMap<String, Double> percents = percentage.get(className);
-        HashMap<String, ArrayList<Double>> classCategories = classes.get(className);
-        if (percents == null || classCategories == null) {
-            System.out.println("No categories or percentages defined for this class.");
-            return;
-        }
-
-        // Calculate the current total contribution towards the final grade
-        double currentTotal = 0.0;
-        for (String category : percents.keySet()) {
-            double categoryWeight = percents.get(category) / 100.0;
-            ArrayList<Double> grades = classCategories.get(category);
-            if (grades != null && !grades.isEmpty()) {
-                double catGrade = calculateCatGrade(className, category);
-                currentTotal += catGrade * categoryWeight;
-            }
+        if (needed.averages().isEmpty() || percents == null) {
+            return needed;
         }
-
-        // Always prompt for the number of remaining assignments in each category
-        HashMap<String, Integer> remainingItems = new HashMap<>();
-        for (String category : percents.keySet()) {
-            int itemsLeft = getRemainingItemsForCategory(category);
-            remainingItems.put(category, itemsLeft);
-        }
-
-        // Calculate the total weight of categories that still have assignments left
-        double remainingWeight = 0.0;
+        // List the averages in the order the console lists the categories
+        LinkedHashMap<String, Double> averages = new LinkedHashMap<>();
         for (String category : percents.keySet()) {
-            double categoryWeight = percents.get(category) / 100.0;
-            int itemsLeft = remainingItems.get(category);
-            if (itemsLeft > 0) {
-                remainingWeight += categoryWeight;
+            Double average = needed.averages().get(category);
+            if (average != null) {
+                averages.put(category, average);
             }
         }
-
-        double requiredRemainingTotal = desiredFinalPercentage - currentTotal;
-
-        // If no remaining assignments but desired is higher than current total, it's impossible
-        if (remainingWeight == 0 && requiredRemainingTotal > 0) {
-            System.out.println("No remaining assignments to improve your grade. It's not possible to reach " + desiredLetterGrade + ".");
-            return;
-        }
-
-        if (requiredRemainingTotal <= 0) {
-            // Already surpass desired grade
-            System.out.printf("You have already met or exceeded the requirements for a %s (%.2f%%). No additional points needed.\n",
-                    desiredLetterGrade, desiredFinalPercentage);
-            return;
-        }
-
-        // Check if reaching the desired grade is possible
-        if (requiredRemainingTotal > remainingWeight * 100) {
-            System.out.println("It's not possible to achieve the desired final grade with the current grades and remaining assignments.");
-            return;
-        }
-
-        // Distribute the needed improvement proportionally based on category weights
-        for (String category : remainingItems.keySet()) {
-            int itemsLeft = remainingItems.get(category);
-            if (itemsLeft <= 0) {
-                // No future assignments in this category, skip calculations
-                continue;
-            }
-
-            double categoryWeight = percents.get(category) / 100.0;
-            double weightProportion = categoryWeight / remainingWeight;
-            double categoryNeededTotal = requiredRemainingTotal * weightProportion;
-
-            // Calculate existing category stats after dropping the lowest grades
-            ArrayList<Double> grades = classCategories.get(category);
-            double sumExisting = 0.0;
-            int existingCount = 0;
-            if (grades != null && !grades.isEmpty()) {
-                ArrayList<Double> catGrades = new ArrayList<>(grades);
-                catGrades.sort(null);
-                int dropping = 0;
-                if (drop.containsKey(className) && drop.get(className).containsKey(category)) {
-                    dropping = drop.get(className).get(category).intValue();
-                }
-                for (int i = dropping; i < catGrades.size(); i++) {
-                    sumExisting += catGrades.get(i);
-                    existingCount++;
-                }
-            }
-
-            double currentCatGrade = (existingCount > 0) ? (sumExisting / existingCount) : 0.0;
-            double currentCatContribution = currentCatGrade * categoryWeight;
-
-            // Final category grade needed
-            // (currentCatContribution + categoryNeededTotal) = catGradeFinal * categoryWeight
-            double catGradeFinal = (currentCatContribution + categoryNeededTotal) / categoryWeight;
-
-            // Solve for needed average on the remaining assignments:
-            // catGradeFinal = (sumExisting + neededGrade * itemsLeft) / (existingCount + itemsLeft)
-            // neededGrade * itemsLeft = catGradeFinal * (existingCount + itemsLeft) - sumExisting
-            double neededGrade = (catGradeFinal * (existingCount + itemsLeft) - sumExisting) / itemsLeft;
-
-            // Print results
-            if (neededGrade > 100) {
-                System.out.printf("To achieve %s (%.2f%%), in category '%s' you would need an average of %.2f%% on the remaining %d assignments, which is above 100%% and not possible.\n",
-                        desiredLetterGrade, desiredFinalPercentage, category, neededGrade, itemsLeft);
-            } else if (neededGrade < 0) {
-                // If the needed grade is less than 0, it means the requirement is already surpassed
-                System.out.printf("For category '%s', you have already secured enough points. No additional points needed to reach %s.\n",
-                        category, desiredLetterGrade);
-            } else {
-                System.out.printf("To achieve %s (%.2f%%) in category '%s', you need an average of %.2f%% on the remaining %d assignments.\n",
-                        desiredLetterGrade, desiredFinalPercentage, category, neededGrade, itemsLeft);
-            }
-        }
-
-        System.out.println();
+        return new NeededGrades(needed.letter(), needed.target(), needed.outcome(), needed.uniform(),
+                Collections.unmodifiableMap(averages));
     }
-
     /**
-     * Prompts the user to enter the number of remaining items in a category.
-     * @param category The name of the category.
-     * @return The number of remaining items as an integer.
-     */
-    private int getRemainingItemsForCategory(String category) {
-        while (true) {
-            try {
-                System.out.printf("Enter the number of remaining items in category '%s': ", category);
-                int itemsLeft = Integer.parseInt(scanner.nextLine().trim());
-                if (itemsLeft >= 0) {
-                    return itemsLeft;
-                } else {
-                    System.out.println("Number of items cannot be negative. Please try again.");
-                }
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a whole number.");
-            }
-        }
+     * Calculates the needed grades of every letter grade on a class's grading scale in one pass.
+     * @param className The name of the class.
+     * @param remainingItems The number of items still to be graded in each category; missing categories have none.
+     * @return The needed grades of each letter grade on the scale, from the highest letter grade down.
+     * @throws IllegalArgumentException if the class does not exist.
+     */
+    public List<NeededGrades> neededGrades(String className, Map<String, Integer> remainingItems) {
+        return neededGradeSolver(className).solveAll(remainingItems);
     }
     /**
-     * Prompts the user to enter a desired letter grade and validates it against the grading scale for the specified class.
-     * @param className The name of the class.
-     * @return The desired letter grade as a string.
+     * Calculates the needed grades of every letter grade for several classes at once, such as a whole roster.
+     * @param remainingItems The number of items still to be graded in each category, by class name.
+     * @return The needed grades of each class, in the order given, each from the highest letter grade down.
+     * @throws IllegalArgumentException if one of the classes does not exist.
      */
-    private String getDesiredLetterGrade(String className) {
-        // Get the valid letter grades for the class based on the grading scale
-        ArrayList<Double> scale = gradingScale.get(className);
-        if (scale == null) {
-            System.out.println("Grading scale not defined for this class.");
-            return null;
+    public Map<String, List<NeededGrades>> neededGrades(Map<String, Map<String, Integer>> remainingItems) {
+        LinkedHashMap<String, List<NeededGrades>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> entry : remainingItems.entrySet()) {
+            results.put(entry.getKey(), neededGrades(entry.getKey(), entry.getValue()));
         }
-        String[] letterGrades = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
-
-        // Create a list of valid letter grades based on non-null cutoffs
-        ArrayList<String> validLetterGrades = new ArrayList<>();
-        for (int i = 0; i < scale.size(); i++) {
-            if (scale.get(i) != null) {
-                validLetterGrades.add(letterGrades[i]);
-            }
-        }
-
-        System.out.println("Enter the desired letter grade (e.g., A, B+, C-):");
-        String letterGrade = scanner.nextLine().trim().toUpperCase();
-        while (!validLetterGrades.contains(letterGrade)) {
-            System.out.println("Invalid letter grade. Valid options are: " + validLetterGrades);
-            letterGrade = scanner.nextLine().trim().toUpperCase();
-        }
-        return letterGrade;
+        return results;
     }
     /**
-     * Maps the desired letter grade to its corresponding minimum percentage cutoff.
+     * Maps a letter grade to its minimum percentage cutoff.
      * @param className The name of the class.
-     * @param letterGrade The desired letter grade.
-     * @return The minimum percentage required for the desired letter grade.
+     * @param letterGrade The letter grade.
+     * @return The minimum percentage required for the letter grade, or -1 if the class has no grading
+     * scale or the letter grade is not used on it.
+     * @throws IllegalArgumentException if the class does not exist.
      */
-    private double getPercentageForLetterGrade(String className, String letterGrade) {
+    public double letterCutoff(String className, String letterGrade) {
+        requireClass(className);
         ArrayList<Double> scale = gradingScale.get(className);
         if (scale == null) {
             return -1;
         }
-        String[] letterGrades = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
-        int index = -1;
-        for (int i = 0; i < letterGrades.length; i++) {
-            if (letterGrades[i].equals(letterGrade)) {
-                index = i;
-                break;
-            }
-        }
+        int index = Arrays.asList(GRADE_LABELS).indexOf(letterGrade);
         if (index == -1 || index >= scale.size()) {
             return -1;
         }
         Double cutoff = scale.get(index);
-        if (cutoff == null) {
-            System.out.println("Cutoff not defined for grade " + letterGrade);
-            return -1;
-        }
-        return cutoff;
+        return cutoff != null ? cutoff : -1;
     }
+
     /**
      * Deletes a class and all its associated data.
-     * Prompts the user for the class name and confirmation before deletion.
+     * @param className The name of the class.
+     * @return true if the class was deleted; false if it does not exist.
      */
-    public void deleteClass() {
-        if (classes.isEmpty()) {
-            System.out.println("No classes available to delete.");
-            return;
-        }
-
-        String className = confirmClassExists("Enter the name of the class you want to delete:");
-        System.out.println("Are you sure you want to delete the class '" + className + "' and all its data? (Y/N)");
-        String confirmation = scanner.nextLine().trim().toLowerCase();
-        if (confirmation.equals("y") || confirmation.equals("yes")) {
-            // Remove the class from all data structures
-            classes.remove(className);
-            gradingScale.remove(className);
-            drop.remove(className);
-            rounding.remove(className);
-            percentage.remove(className);
-
-            System.out.println("Class '" + className + "' has been deleted.");
-        } else {
-            System.out.println("Deletion cancelled.");
+    public boolean deleteClass(String className) {
+        if (!classes.containsKey(className)) {
+            return false;
         }
+        // Remove the class from all data structures
+        classes.remove(className);
+        gradingScale.remove(className);
+        drop.remove(className);
+        rounding.remove(className);
+        percentage.remove(className);
+        invalidateClass(className);
+        journal.deleteClass(className);
+        return true;
     }
 
     /**
-     * Deletes all saved data.
-     * Prompts the user for confirmation before deletion.
+     * Deletes every class and all saved data, including the save files and journal.
      */
     public void deleteAllData() {
-        System.out.println("Are you sure you want to delete ALL data? This action cannot be undone. (Y/N)");
-        String confirmation = scanner.nextLine().trim().toLowerCase();
-        if (confirmation.equals("y") || confirmation.equals("yes")) {
-            // Clear all data structures
-            classes.clear();
-            gradingScale.clear();
-            drop.clear();
-            rounding.clear();
-            percentage.clear();
-
-            // Delete all save files
-            deleteFile(GRADES);
-            deleteFile(GRADING_SCALE);
-            deleteFile(DROP);
-            deleteFile(ROUNDING);
-            deleteFile(PERCENTAGE);
+        // Clear all data structures
+        classes.clear();
+        gradingScale.clear();
+        drop.clear();
+        rounding.clear();
+        percentage.clear();
+        classSymbols.clear();
+        categorySymbols.clear();
+        invalidateAllClasses();
+
+        // Delete all save files
+        deleteJournal();
+        deleteFile(GRADES);
+        deleteFile(GRADING_SCALE);
+        deleteFile(DROP);
+        deleteFile(ROUNDING);
+        deleteFile(PERCENTAGE);
+        deleteFile(SNAPSHOT);
+        deleteFile(GradeBookManifest.FILE_NAME);
+        snapshotStale = true;
+    }
 
-            System.out.println("All data has been deleted.");
-        } else {
-            System.out.println("Deletion cancelled.");
+    /**
+     * Waits for any running compaction, then drops unsaved journal entries and deletes every journal
+     * segment, so the next save starts a new journal and snapshot.
+     */
+    private void deleteJournal() {
+        awaitCompaction();
+        journal.discardPending();
+        try {
+            journal.close();
+            GradeJournal.deleteSegmentsBefore(directory, Long.MAX_VALUE);
+        } catch (IOException e) {
+            System.out.println("Failed to delete the journal: " + e.getMessage());
         }
+        journal = new GradeJournal(directory, 0);
     }
 
     /**
@@ -1362,165 +1593,11 @@ public class GradeBook {
      * @param fileName The name of the file to delete.
      */
     private void deleteFile(String fileName) {
-        File file = new File(fileName);
+        File file = directory.resolve(fileName).toFile();
         if (file.exists()) {
             if (!file.delete()) {
                 System.out.println("Failed to delete file: " + fileName);
             }
         }
     }
-
-    /**
-     * Allows the user to edit or delete existing grades.
-     */
-    public void editGrade() {
-        if (classes.isEmpty()) {
-            System.out.println("No classes available. Please add a class first.");
-            return;
-        }
-
-        String className = confirmClassExists("Enter the class name where you want to edit grades:");
-        String categoryName = confirmCategoryExists(className, "Enter the category name where you want to edit grades:");
-        ArrayList<Double> grades = classes.get(className).get(categoryName);
-
-        if (grades.isEmpty()) {
-            System.out.println("No grades available in this category to edit.");
-            return;
-        }
-
-        // Display grades with indices
-        System.out.println("Grades in " + categoryName + ":");
-        for (int i = 0; i < grades.size(); i++) {
-            System.out.printf("%d) %.2f\n", i + 1, grades.get(i));
-        }
-
-        int index = -1;
-        while (true) {
-            System.out.println("Enter the number of the grade you want to edit or delete (or 0 to cancel):");
-            String input = scanner.nextLine().trim();
-            try {
-                index = Integer.parseInt(input);
-                if (index == 0) {
-                    System.out.println("Edit operation cancelled.");
-                    return;
-                }
-                if (index < 1 || index > grades.size()) {
-                    System.out.println("Invalid selection. Please try again.");
-                    continue;
-                }
-                break;
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a number corresponding to the grade.");
-            }
-        }
-
-        // Choose to edit or delete
-        System.out.println("Do you want to edit or delete this grade? (E/D)");
-        String choice = scanner.nextLine().trim().toLowerCase();
-        if (choice.equals("e") || choice.equals("edit")) {
-            // Edit the grade
-            double newGrade = getValidGrade();
-            grades.set(index - 1, newGrade);
-            System.out.println("Grade updated successfully.");
-        } else if (choice.equals("d") || choice.equals("delete")) {
-            // Confirm deletion
-            System.out.println("Are you sure you want to delete this grade? (Y/N)");
-            String confirm = scanner.nextLine().trim().toLowerCase();
-            if (confirm.equals("y") || confirm.equals("yes")) {
-                grades.remove(index - 1);
-                System.out.println("Grade deleted successfully.");
-            } else {
-                System.out.println("Deletion cancelled.");
-            }
-        } else {
-            System.out.println("Invalid choice. Operation cancelled.");
-        }
-    }
-
-    /**
-     * Calculates the average of a list of grades.
-     */
-    private double calculateAverage(ArrayList<Double> grades) {
-        if (grades == null || grades.isEmpty()) {
-            return 0.0;
-        }
-        double sum = 0.0;
-        for (double grade : grades) {
-            sum += grade;
-        }
-        return sum / grades.size();
-    }
-
-    /**
-     * Calculates the median of a list of grades.
-     */
-    private double calculateMedian(ArrayList<Double> grades) {
-        if (grades == null || grades.isEmpty()) {
-            return 0.0;
-        }
-        ArrayList<Double> sortedGrades = new ArrayList<>(grades);
-        sortedGrades.sort(null);
-        int middle = sortedGrades.size() / 2;
-        if (sortedGrades.size() % 2 == 0) {
-            return (sortedGrades.get(middle - 1) + sortedGrades.get(middle)) / 2.0;
-        } else {
-            return sortedGrades.get(middle);
-        }
-    }
-
-    /**
-     * Returns the highest grade from a list.
-     */
-    private double getHighestGrade(ArrayList<Double> grades) {
-        if (grades == null || grades.isEmpty()) {
-            return 0.0;
-        }
-        double highest = grades.get(0);
-        for (double grade : grades) {
-            if (grade > highest) {
-                highest = grade;
-            }
-        }
-        return highest;
-    }
-
-    /**
-     * Returns the lowest grade from a list.
-     */
-    private double getLowestGrade(ArrayList<Double> grades) {
-        if (grades == null || grades.isEmpty()) {
-            return 0.0;
-        }
-        double lowest = grades.get(0);
-        for (double grade : grades) {
-            if (grade < lowest) {
-                lowest = grade;
-            }
-        }
-        return lowest;
-    }
-
-    /**
-     * Displays help information to assist the user.
-     */
-    public void displayHelp() {
-        System.out.println("GradeBook Application Help");
-        System.out.println("==========================");
-        System.out.println("This application allows you to manage grades for multiple classes.");
-        System.out.println("Here are the available options:");
-        System.out.println("1) Add a new class - Create a new class and set up its grading criteria.");
-        System.out.println("2) Add new grade(s) - Enter grades for assignments in a class and category.");
-        System.out.println("3) View Grades and Statistics - Display all grades and detailed statistics for each class.");
-        System.out.println("4) Add possible grades - See how hypothetical grades affect your final grade.");
-        System.out.println("5) How to get wanted grade - Calculate what you need to achieve a desired final grade.");
-        System.out.println("6) Edit or Delete Grades - Modify or remove existing grades.");
-        System.out.println("7) Delete a class - Remove a class and all its data.");
-        System.out.println("8) Delete all data - Remove all data from the application.");
-        System.out.println("9) Help - Display this help information.");
-        System.out.println("10) Exit - Save your data and exit the application.");
-        System.out.println("\nFor more detailed instructions, please refer to the user manual.");
-        System.out.println("If you have any questions, feel free to contact support.");
-        System.out.println();
-    }
-
-}
\ No newline at end of file
+}
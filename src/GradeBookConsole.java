@@ -0,0 +1,705 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * The interactive console flows for a GradeBook. Each flow prompts for its input through the scanner,
+ * validates it, and then calls the GradeBook's non-interactive API.
+ */
+public class GradeBookConsole {
+    private final GradeBook gradeBook;
+    private final Scanner scanner;
+
+    /**
+     * Creates a console for a grade book.
+     * @param gradeBook The grade book to work on.
+     * @param scanner The scanner that user input is read from.
+     */
+    public GradeBookConsole(GradeBook gradeBook, Scanner scanner) {
+        this.gradeBook = gradeBook;
+        this.scanner = scanner;
+    }
+
+    /**
+     * Prompts the user to add a new class by name, then sets up its categories, grading scale and rounding.
+     * @return The name of the class if it is successfully added; null if the class already exists.
+     */
+    public String addClass() {
+        String className = confirmInput("What class would you like to add?", "Class Name");
+        if (gradeBook.createClass(className)) {
+            addCategory(className);
+            addGradingScale(className);
+            System.out.println("Does this class use rounding? (Y/N)");
+            String yn = scanner.nextLine().toLowerCase();
+            if (yn.equals("y") || yn.equals("yes")) {
+                gradeBook.setRounding(className, true);
+            }
+            return className;
+        } else {
+            System.out.println(className + " is already added");
+        }
+        return null;
+    }
+
+    /**
+     * Prompts the user to add new categories to the specified class.
+     * @param className The name of the class to add categories to.
+     * @return true if categories are successfully added; false otherwise.
+     */
+    public boolean addCategory(String className) {
+        while (true) {
+            String categoryName = confirmInput("What category would you like to add?", "Category Name");
+            if (gradeBook.createCategory(className, categoryName)) {
+                addPercentage(className, categoryName);
+                addDroppedInCategory(className, categoryName);
+                System.out.println("Would you like to enter another category? (Y/N)");
+                String yn = scanner.nextLine().toLowerCase();
+                if (!yn.equals("y") && !yn.equals("yes")) {
+                    return true;
+                }
+            } else {
+                System.out.println("Category already exists or entry canceled.");
+                // Optionally, ask if the user wants to try adding a different category
+                System.out.println("Would you like to try adding a different category? (Y/N)");
+                String yn = scanner.nextLine().toLowerCase();
+                if (!yn.equals("y") && !yn.equals("yes")) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Prompts the user to add grades to a specified class and category.
+     * @return true if the grades are successfully added; false if the grade entry is canceled.
+     */
+    public boolean addGrade() {
+        String className = confirmClassExists("What class would you like to add a grade to?");
+        String categoryName = confirmCategoryExists(className, "What category would you like to add a grade to?");
+        return addGrade(className, categoryName);
+    }
+    /**
+     * Prompts the user to add grades to the specified class and category.
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return true if the grades are successfully added; false if the grade entry is canceled.
+     */
+    public boolean addGrade(String className, String categoryName) {
+        double grade = getValidGrade();
+        if (confirmGrade(grade)) {
+            gradeBook.addGrade(className, categoryName, grade);
+            System.out.println("Would you like to enter another grade? (Y/N)");
+            String yn = scanner.nextLine().toLowerCase();
+            if (yn.equals("y") || yn.equals("yes")) {
+                addGrade(className, categoryName);
+            } else {
+                return true;
+            }
+        } else {
+            System.out.println("Grade entry canceled.");
+        }
+
+        return false;
+    }
+
+    /**
+     * Prompts the user to enter a valid numerical grade.
+     * Allows grades over 100% but asks for confirmation if so.
+     * @return A valid grade as a double.
+     */
+    private double getValidGrade() {
+        while (true) {
+            try {
+                System.out.println("Enter the grade (0 or higher; extra credit allowed):");
+                String input = scanner.nextLine().trim();
+                double grade = Double.parseDouble(input);
+
+                if (grade < 0) {
+                    System.out.println("Grade cannot be negative. Please try again.");
+                } else if (grade > 100) {
+                    // Ask for confirmation if grade is over 100%
+                    System.out.printf("You entered %.2f%%, which is over 100%%. Is this correct? (Y/N)\n", grade);
+                    String confirmation = scanner.nextLine().trim().toLowerCase();
+                    if (confirmation.equals("y") || confirmation.equals("yes")) {
+                        return grade;
+                    } else {
+                        System.out.println("Please re-enter the grade.");
+                    }
+                } else {
+                    return grade;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a numerical grade.");
+            }
+        }
+    }
+    /**
+     * Confirms the grade entered by the user.
+     * @param grade The grade to confirm.
+     * @return true if the user confirms the grade; false otherwise.
+     */
+    private boolean confirmGrade(double grade) {
+        System.out.println("Is " + grade + " correct? (Y/N)");
+        String confirmation = scanner.nextLine().toLowerCase().trim();
+        return confirmation.equals("y") || confirmation.equals("yes");
+    }
+
+    /**
+     * Prompts the user to add a grading scale for the specified class.
+     * @param className The name of the class.
+     * @return true if the grading scale is added successfully.
+     */
+    public boolean addGradingScale(String className) {
+        ArrayList<Double> scale = new ArrayList<>();
+
+        // Prompt for each grade and add cutoff or null, skip "F"
+        for (int i = 0; i < GradeBook.GRADE_LABELS.length - 1; i++) {
+            String grade = GradeBook.GRADE_LABELS[i];
+            addCutoff(grade, scale);
+        }
+
+        // Automatically set "F" cutoff to 0.0
+        scale.add(0.0);
+
+        gradeBook.setGradingScale(className, scale);
+        return true;
+    }
+    /**
+     * Prompts the user to enter the cutoff for a specific grade and adds it to the grading scale.
+     * @param grade The grade label (e.g., "A+", "B").
+     * @param scale The list to add the cutoff value to.
+     */
+    private void addCutoff(String grade, ArrayList<Double> scale) {
+        if (grade.equals("F")) {
+            // Automatically set "F" cutoff to 0.0 without prompting
+            scale.add(0.0);
+            return;
+        }
+        while (true) {
+            System.out.println("What is the lower end cutoff for " + grade + "? (if it doesn’t exist, enter 'NA')");
+            String input = scanner.nextLine().trim().toLowerCase();
+            if (input.equals("na")) {
+                scale.add(null);  // Add null for missing grade cutoff
+                break;
+            } else {
+                try {
+                    double cutoff = Double.parseDouble(input);
+                    scale.add(cutoff);
+                    break;
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid input. Please enter a numerical value or 'NA'.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Prompts the user to set the number of dropped items for the specified class and category.
+     * @param className The name of the class.
+     * @param categoryName The name of the category within the class.
+     * @return true if the drop information is successfully added.
+     */
+    public boolean addDroppedInCategory(String className, String categoryName) {
+        System.out.println("How many items in " + categoryName + " are dropped?");
+        double dropped = getValidPositiveDouble();
+        gradeBook.setDropped(className, categoryName, dropped);
+        return true;
+    }
+
+    /**
+     * Prompts the user to enable rounding for a specified class.
+     * @return true if rounding is successfully enabled; false if rounding is already enabled.
+     */
+    public boolean addRounding() {
+        String className = confirmClassExists("What class would you like to add rounding to?");
+        if (gradeBook.rounds(className)) {
+            System.out.println("Rounding entry canceled as class already uses rounding.");
+            return false;  // Class already has rounding enabled
+        }
+        gradeBook.setRounding(className, true);
+        return true;
+    }
+
+    /**
+     * Prompts the user to add percentages to categories within a specified class.
+     * @param className The name of the class.
+     * @param categoryName The name of the category.
+     * @return true if the percentage is successfully added.
+     */
+    public boolean addPercentage(String className, String categoryName) {
+        System.out.println("What is the percentage for " + categoryName + "?");
+        double percent = getValidPositiveDouble();
+        gradeBook.setWeight(className, categoryName, percent);
+        return true;
+    }
+
+    /**
+     * Prompts the user to enter a valid positive double value.
+     * @return A valid positive double value.
+     */
+    private double getValidPositiveDouble() {
+        while (true) {
+            try {
+                double value = Double.parseDouble(scanner.nextLine().trim());
+                if (value >= 0) {
+                    return value;
+                } else {
+                    System.out.println("Value must be a positive number. Please try again.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a numerical value.");
+            }
+        }
+    }
+    /**
+     * Prompts the user to confirm a text input and allows for reentry until confirmed.
+     * @param message The message to prompt the user.
+     * @param itemName The name of the item being confirmed.
+     * @return The confirmed input string.
+     */
+    private String confirmInput(String message, String itemName) {
+        System.out.println(message);
+        String item = scanner.nextLine();
+        System.out.println("Is " + item + " correct? (Y/N)");
+        String correct = scanner.nextLine().toLowerCase().trim();
+        while (!correct.equals("y") && !correct.equals("yes")) {
+            System.out.println("What is the correct " + itemName + "?");
+            item = scanner.nextLine();
+            System.out.println("Is " + item + " correct? (Y/N)");
+            correct = scanner.nextLine().toLowerCase().trim();
+        }
+        return item;
+    }
+    /**
+     * Checks if a class exists in the grade book and prompts the user until a valid class is entered.
+     * @param message The prompt message to display.
+     * @return The confirmed class name.
+     */
+    private String confirmClassExists(String message) {
+        System.out.println(message);
+        String className = scanner.nextLine().trim();
+        while (!gradeBook.hasClass(className)) {
+            System.out.println(className + " does not exist yet in the grade book. Please try entering again.");
+            className = scanner.nextLine().trim();
+        }
+        return className;
+    }
+    /**
+     * Checks if a category exists in the specified class and prompts the user until a valid category is entered.
+     * @param className The name of the class.
+     * @param message The prompt message to display.
+     * @return The confirmed category name.
+     */
+    private String confirmCategoryExists(String className, String message) {
+        System.out.println(message);
+        String categoryName = scanner.nextLine().trim();
+        while (!gradeBook.hasCategory(className, categoryName)) {
+            System.out.println(categoryName + " does not exist in the class. Please enter a valid category name:");
+            categoryName = scanner.nextLine().trim();
+        }
+        return categoryName;
+    }
+
+    /**
+     * Displays the grades for each class and category, along with the calculated final and letter grades.
+     * Iterates through all classes and their categories, printing each category's grades and the
+     * overall calculated final grade and letter grade for each class.
+     * @return true if the display operation completes successfully.
+     */
+    public boolean displayClassesGrades() {
+        // One class at a time, straight from its cached aggregates and grade lists: only the class being
+        // written is held, and the writer flushes its buffer as it fills
+        DisplayWriter out = DisplayWriter.forStandardOutput();
+        try {
+            for (String className : gradeBook.classNames()) {
+                writeClass(gradeBook.report(className), out);
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("An error occurred while displaying grades: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+    /**
+     * Writes the grades, statistics and final grade of each class in a report, then flushes the writer.
+     * Grades are formatted straight into the writer's buffer, so the output costs almost no allocation per grade.
+     * @param reports The report of each class.
+     * @param out The writer to write to.
+     * @throws IOException if the writer cannot be written.
+     */
+    static void writeReport(List<GradeBookReport.ClassReport> reports, DisplayWriter out) throws IOException {
+        for (GradeBookReport.ClassReport report : reports) {
+            writeClass(report, out);
+        }
+        out.flush();
+    }
+    /**
+     * Writes the grades, statistics and final grade of one class, without flushing the writer.
+     * @param report The report of the class.
+     * @param out The writer to write to.
+     * @throws IOException if the writer cannot be written.
+     */
+    static void writeClass(GradeBookReport.ClassReport report, DisplayWriter out) throws IOException {
+        out.writeLine(report.className());
+        out.writeLine("---------------");
+        for (GradeBookReport.CategoryReport categoryReport : report.categories()) {
+            String category = categoryReport.name();
+            GradeList grades = categoryReport.grades();
+            CategoryStats stats = categoryReport.stats();
+
+            // Category grade, then the grades separated by commas
+            out.write(category);
+            out.write(": ");
+            out.writeFixed(stats.grade(), 2);
+            out.write(" | Grades: ");
+            for (int i = 0; i < grades.size(); i++) {
+                out.writeFixed(grades.get(i), 2);
+                if (i < grades.size() - 1) {
+                    out.write(", ");
+                }
+            }
+            out.writeLine("");
+
+            // Display statistics
+            out.write("Statistics for ");
+            out.write(category);
+            out.write(":\n - Average: ");
+            out.writeFixed(stats.average(), 2);
+            out.write("\n - Median: ");
+            out.writeFixed(stats.median(), 2);
+            out.write("\n - Highest: ");
+            out.writeFixed(stats.highest(), 2);
+            out.write("\n - Lowest: ");
+            out.writeFixed(stats.lowest(), 2);
+            out.write('\n');
+            out.writeLine("");
+        }
+        // Display final grade and letter grade
+        FinalGrade finalGrade = report.finalGrade();
+        out.write("Final Grade: ");
+        out.writeFixed(finalGrade.value(), 2);
+        out.write("   ");
+        out.writeLine(finalGrade.letter());
+        out.writeLine("---------------\n");
+    }
+
+    /**
+     * Allows the user to add hypothetical grades to see how they would affect the final grade.
+     * Prompts the user to add hypothetical grades to categories and displays the impact on the final grade.
+     */
+    public void addPossibleGrades() {
+        String className = confirmClassExists("For which class would you like to add possible grades?");
+
+        // Collect the hypothetical grades of each category; the grade book itself is not changed
+        HashMap<String, GradeList> hypotheticalGrades = new HashMap<>();
+        for (String category : gradeBook.categoryNames(className)) {
+            hypotheticalGrades.put(category, new GradeList());
+        }
+
+        // Prompt the user to add hypothetical grades
+        while (true) {
+            System.out.println("In which category?");
+            String category = scanner.nextLine().trim();
+            if (!hypotheticalGrades.containsKey(category)) {
+                System.out.println("Category does not exist. Please enter a valid category.");
+                continue;
+            }
+            double grade = getValidGrade();
+            hypotheticalGrades.get(category).add(grade);
+
+            System.out.println("Would you like to enter another hypothetical grade? (Y/N)");
+            String yn = scanner.nextLine().toLowerCase();
+            if (!yn.equals("y") && !yn.equals("yes")) {
+                break;
+            }
+        }
+        // Evaluate the hypothetical grades as an overlay on the class's current aggregates
+        WhatIf whatIf = gradeBook.whatIf(className);
+        double[][] additions = new double[whatIf.categoryCount()][];
+        hypotheticalGrades.forEach((category, grades) -> additions[whatIf.categoryIndex(category)] = grades.toArray());
+
+        // Calculate the original and new category grades
+        for (String category : hypotheticalGrades.keySet()) {
+            int index = whatIf.categoryIndex(category);
+            double originalCatGrade = whatIf.categoryGrade(index, null);
+            double newCatGrade = whatIf.categoryGrade(index, additions[index]);
+            System.out.printf("Original %s: %.2f%%\n", category, originalCatGrade);
+            System.out.printf("Hypothetical %s: %.2f%%\n", category, newCatGrade);
+            System.out.println(" ");
+        }
+
+        // Calculate the original and new final grades
+        double originalFinalGrade = gradeBook.finalGrade(className).value();
+        double newFinalGrade = whatIf.finalGrade(additions);
+        System.out.printf("Original Grade: %.2f%%\n", originalFinalGrade);
+        System.out.printf("New Final Grade: %.2f%%\n", newFinalGrade);
+        System.out.println("\n");
+    }
+
+    /**
+     * Calculates the grades needed in remaining assignments to achieve a desired letter grade.
+     * Prompts the user for the desired letter grade and the number of remaining items in each category,
+     * then prints the required average grades needed per remaining item.
+     */
+    public void calculateNeededGradesForLetterGrade() {
+        String className = confirmClassExists("For which class do you want to calculate needed grades?");
+        // Get the desired letter grade
+        String desiredLetterGrade = getDesiredLetterGrade(className);
+
+        double desiredFinalPercentage = gradeBook.letterCutoff(className, desiredLetterGrade);
+        if (desiredFinalPercentage < 0) {
+            System.out.println("Invalid letter grade or grading scale not defined for this class.");
+            return;
+        }
+
+        Map<String, Double> weights = gradeBook.weights(className);
+        if (weights.isEmpty()) {
+            System.out.println("No categories or percentages defined for this class.");
+            return;
+        }
+
+        // Always prompt for the number of remaining assignments in each category
+        Map<String, Integer> remainingItems = new LinkedHashMap<>();
+        for (String category : weights.keySet()) {
+            remainingItems.put(category, getRemainingItemsForCategory(category));
+        }
+
+        NeededGrades needed = gradeBook.neededGrades(className, desiredLetterGrade, remainingItems);
+        switch (needed.outcome()) {
+            case NO_CATEGORIES:
+                System.out.println("No categories or percentages defined for this class.");
+                return;
+            case NO_REMAINING_ITEMS:
+                System.out.println("No remaining assignments to improve your grade. It's not possible to reach " + desiredLetterGrade + ".");
+                return;
+            case ALREADY_MET:
+                System.out.printf("You have already met or exceeded the requirements for a %s (%.2f%%). No additional points needed.\n",
+                        desiredLetterGrade, desiredFinalPercentage);
+                return;
+            case NOT_POSSIBLE:
+                System.out.println("It's not possible to achieve the desired final grade with the current grades and remaining assignments.");
+                return;
+            default:
+                break;
+        }
+
+        for (Map.Entry<String, Double> entry : needed.averages().entrySet()) {
+            String category = entry.getKey();
+            double neededGrade = entry.getValue();
+            int itemsLeft = remainingItems.get(category);
+            if (neededGrade > 100) {
+                System.out.printf("To achieve %s (%.2f%%), in category '%s' you would need an average of %.2f%% on the remaining %d assignments, which is above 100%% and not possible.\n",
+                        desiredLetterGrade, desiredFinalPercentage, category, neededGrade, itemsLeft);
+            } else if (neededGrade < 0) {
+                // If the needed grade is less than 0, it means the requirement is already surpassed
+                System.out.printf("For category '%s', you have already secured enough points. No additional points needed to reach %s.\n",
+                        category, desiredLetterGrade);
+            } else {
+                System.out.printf("To achieve %s (%.2f%%) in category '%s', you need an average of %.2f%% on the remaining %d assignments.\n",
+                        desiredLetterGrade, desiredFinalPercentage, category, neededGrade, itemsLeft);
+            }
+        }
+
+        System.out.println();
+    }
+
+    /**
+     * Prompts the user to enter the number of remaining items in a category.
+     * @param category The name of the category.
+     * @return The number of remaining items as an integer.
+     */
+    private int getRemainingItemsForCategory(String category) {
+        while (true) {
+            try {
+                System.out.printf("Enter the number of remaining items in category '%s': ", category);
+                int itemsLeft = Integer.parseInt(scanner.nextLine().trim());
+                if (itemsLeft >= 0) {
+                    return itemsLeft;
+                } else {
+                    System.out.println("Number of items cannot be negative. Please try again.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a whole number.");
+            }
+        }
+    }
+    /**
+     * Prompts the user to enter a desired letter grade and validates it against the grading scale for the specified class.
+     * @param className The name of the class.
+     * @return The desired letter grade as a string.
+     */
+    private String getDesiredLetterGrade(String className) {
+        // Get the valid letter grades for the class based on the grading scale
+        List<Double> scale = gradeBook.gradingScale(className);
+        if (scale == null) {
+            System.out.println("Grading scale not defined for this class.");
+            return null;
+        }
+
+        // Create a list of valid letter grades based on non-null cutoffs
+        ArrayList<String> validLetterGrades = new ArrayList<>();
+        for (int i = 0; i < scale.size(); i++) {
+            if (scale.get(i) != null) {
+                validLetterGrades.add(GradeBook.GRADE_LABELS[i]);
+            }
+        }
+
+        System.out.println("Enter the desired letter grade (e.g., A, B+, C-):");
+        String letterGrade = scanner.nextLine().trim().toUpperCase();
+        while (!validLetterGrades.contains(letterGrade)) {
+            System.out.println("Invalid letter grade. Valid options are: " + validLetterGrades);
+            letterGrade = scanner.nextLine().trim().toUpperCase();
+        }
+        return letterGrade;
+    }
+
+    /**
+     * Prompts the user for a CSV file of Class,Category,Grade rows and imports all of them at once.
+     * Rejected rows are listed with their line numbers; the other rows are still imported.
+     */
+    public void importGrades() {
+        System.out.println("Enter the path of the CSV file to import (rows of Class,Category,Grade):");
+        Path file = Path.of(scanner.nextLine().trim());
+        try (InputStream in = Files.newInputStream(file)) {
+            GradeImporter.printResult(gradeBook, new GradeImporter(gradeBook).importGrades(in));
+        } catch (IOException e) {
+            System.out.println("An error occurred while importing grades: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
+    /**
+     * Deletes a class and all its associated data.
+     * Prompts the user for the class name and confirmation before deletion.
+     */
+    public void deleteClass() {
+        if (gradeBook.classNames().isEmpty()) {
+            System.out.println("No classes available to delete.");
+            return;
+        }
+
+        String className = confirmClassExists("Enter the name of the class you want to delete:");
+        System.out.println("Are you sure you want to delete the class '" + className + "' and all its data? (Y/N)");
+        String confirmation = scanner.nextLine().trim().toLowerCase();
+        if (confirmation.equals("y") || confirmation.equals("yes")) {
+            gradeBook.deleteClass(className);
+            System.out.println("Class '" + className + "' has been deleted.");
+        } else {
+            System.out.println("Deletion cancelled.");
+        }
+    }
+
+    /**
+     * Deletes all saved data.
+     * Prompts the user for confirmation before deletion.
+     */
+    public void deleteAllData() {
+        System.out.println("Are you sure you want to delete ALL data? This action cannot be undone. (Y/N)");
+        String confirmation = scanner.nextLine().trim().toLowerCase();
+        if (confirmation.equals("y") || confirmation.equals("yes")) {
+            gradeBook.deleteAllData();
+            System.out.println("All data has been deleted.");
+        } else {
+            System.out.println("Deletion cancelled.");
+        }
+    }
+
+    /**
+     * Allows the user to edit or delete existing grades.
+     */
+    public void editGrade() {
+        if (gradeBook.classNames().isEmpty()) {
+            System.out.println("No classes available. Please add a class first.");
+            return;
+        }
+
+        String className = confirmClassExists("Enter the class name where you want to edit grades:");
+        String categoryName = confirmCategoryExists(className, "Enter the category name where you want to edit grades:");
+        double[] grades = gradeBook.grades(className, categoryName);
+
+        if (grades.length == 0) {
+            System.out.println("No grades available in this category to edit.");
+            return;
+        }
+
+        // Display grades with indices
+        System.out.println("Grades in " + categoryName + ":");
+        for (int i = 0; i < grades.length; i++) {
+            System.out.printf("%d) %.2f\n", i + 1, grades[i]);
+        }
+
+        int index = -1;
+        while (true) {
+            System.out.println("Enter the number of the grade you want to edit or delete (or 0 to cancel):");
+            String input = scanner.nextLine().trim();
+            try {
+                index = Integer.parseInt(input);
+                if (index == 0) {
+                    System.out.println("Edit operation cancelled.");
+                    return;
+                }
+                if (index < 1 || index > grades.length) {
+                    System.out.println("Invalid selection. Please try again.");
+                    continue;
+                }
+                break;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number corresponding to the grade.");
+            }
+        }
+
+        // Choose to edit or delete
+        System.out.println("Do you want to edit or delete this grade? (E/D)");
+        String choice = scanner.nextLine().trim().toLowerCase();
+        if (choice.equals("e") || choice.equals("edit")) {
+            // Edit the grade
+            double newGrade = getValidGrade();
+            gradeBook.setGrade(className, categoryName, index - 1, newGrade);
+            System.out.println("Grade updated successfully.");
+        } else if (choice.equals("d") || choice.equals("delete")) {
+            // Confirm deletion
+            System.out.println("Are you sure you want to delete this grade? (Y/N)");
+            String confirm = scanner.nextLine().trim().toLowerCase();
+            if (confirm.equals("y") || confirm.equals("yes")) {
+                gradeBook.removeGrade(className, categoryName, index - 1);
+                System.out.println("Grade deleted successfully.");
+            } else {
+                System.out.println("Deletion cancelled.");
+            }
+        } else {
+            System.out.println("Invalid choice. Operation cancelled.");
+        }
+    }
+
+    /**
+     * Displays help information to assist the user.
+     */
+    public void displayHelp() {
+        System.out.println("GradeBook Application Help");
+        System.out.println("==========================");
+        System.out.println("This application allows you to manage grades for multiple classes.");
+        System.out.println("Here are the available options:");
+        System.out.println("1) Add a new class - Create a new class and set up its grading criteria.");
+        System.out.println("2) Add new grade(s) - Enter grades for assignments in a class and category.");
+        System.out.println("3) View Grades and Statistics - Display all grades and detailed statistics for each class.");
+        System.out.println("4) Add possible grades - See how hypothetical grades affect your final grade.");
+        System.out.println("5) How to get wanted grade - Calculate what you need to achieve a desired final grade.");
+        System.out.println("6) Edit or Delete Grades - Modify or remove existing grades.");
+        System.out.println("7) Delete a class - Remove a class and all its data.");
+        System.out.println("8) Delete all data - Remove all data from the application.");
+        System.out.println("9) Help - Display this help information.");
+        System.out.println("10) Import grades - Add many grades at once from a CSV file of Class,Category,Grade rows.");
+        System.out.println("11) Exit - Save your data, including grades.csv and the other CSV files, and exit the application.");
+        System.out.println("\nFor more detailed instructions, please refer to the user manual.");
+        System.out.println("If you have any questions, feel free to contact support.");
+        System.out.println();
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The five maps that make up a grade book's saved state, grouped so they can be written,
+ * read and copied as a unit.
+ * @param classes The grades of each category in each class.
+ * @param percentage The weight of each category in each class.
+ * @param drop The number of dropped items in each category of each class.
+ * @param rounding Whether each class rounds its final grade.
+ * @param gradingScale The letter-grade cutoffs of each class.
+ */
+public record GradeBookData(HashMap<String, HashMap<String, GradeList>> classes,
+                            HashMap<String, HashMap<String, Double>> percentage,
+                            HashMap<String, HashMap<String, Double>> drop,
+                            HashMap<String, Boolean> rounding,
+                            HashMap<String, ArrayList<Double>> gradingScale) {
+
+    /**
+     * @return Empty grade book data.
+     */
+    public static GradeBookData empty() {
+        return new GradeBookData(new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Copies every map and grade list, so the copy can be written out while the original keeps changing.
+     * @return A deep copy of this data.
+     */
+    public GradeBookData copy() {
+        HashMap<String, HashMap<String, GradeList>> classesCopy = new HashMap<>();
+        for (Map.Entry<String, HashMap<String, GradeList>> classEntry : classes.entrySet()) {
+            HashMap<String, GradeList> categories = new HashMap<>();
+            for (Map.Entry<String, GradeList> categoryEntry : classEntry.getValue().entrySet()) {
+                categories.put(categoryEntry.getKey(), new GradeList(categoryEntry.getValue()));
+            }
+            classesCopy.put(classEntry.getKey(), categories);
+        }
+        HashMap<String, ArrayList<Double>> scalesCopy = new HashMap<>();
+        for (Map.Entry<String, ArrayList<Double>> entry : gradingScale.entrySet()) {
+            scalesCopy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return new GradeBookData(classesCopy, copyCategoryValues(percentage), copyCategoryValues(drop),
+                new HashMap<>(rounding), scalesCopy);
+    }
+
+    private static HashMap<String, HashMap<String, Double>> copyCategoryValues(HashMap<String, HashMap<String, Double>> map) {
+        HashMap<String, HashMap<String, Double>> copy = new HashMap<>();
+        for (Map.Entry<String, HashMap<String, Double>> entry : map.entrySet()) {
+            copy.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        return copy;
+    }
+}
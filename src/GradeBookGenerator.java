@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic grade books for load and scale testing.
+ * <p>
+ * Writes all five files in the formats GradeBook.load() reads: N classes of M categories each, with
+ * K grades per category on average. Every class gets category weights that add up to 100, a few
+ * dropped items in larger categories, a rounding flag and a grading scale drawn from common variants
+ * (with or without A+, with or without plus/minus grades, shifted cutoffs). Grades follow a normal
+ * distribution around a per-class and per-category mean.
+ * <p>
+ * With a skew above 0, class sizes follow a power law: class i gets a share proportional to
+ * 1 / (i + 1)^skew of the N * M * K grades, so the first few classes are giants and the rest are small.
+ * <p>
+ * Output is deterministic for a given seed: each class draws from its own SplittableRandom split off
+ * the seed. Grades are streamed straight to disk, so memory use does not depend on the output size.
+ * <p>
+ * Run with {@code java GradeBookGenerator [--classes N] [--categories M] [--grades K] [--skew S]
+ * [--seed X] [--out directory]}.
+ */
+public class GradeBookGenerator {
+    private static final String[] CATEGORY_NAMES = {"homework", "quiz", "lab", "project", "midterm", "final", "participation"};
+    /// The usual cutoffs from A+ to F
+    private static final double[] STANDARD_SCALE = {97, 93, 90, 87, 83, 80, 77, 73, 70, 67, 63, 60, 0};
+    /// Indexes of A, B, C and D in STANDARD_SCALE, the only grades of a scale without plus and minus
+    private static final int[] WHOLE_LETTERS = {1, 4, 7, 10};
+
+    private final long seed;
+    private final int classCount;
+    private final int categoryCount;
+    private final long gradesPerCategory;
+    private final double skew;
+
+    /**
+     * Creates a generator.
+     * @param seed The seed every generated value derives from.
+     * @param classCount The number of classes (N).
+     * @param categoryCount The number of categories per class (M).
+     * @param gradesPerCategory The average number of grades per category (K).
+     * @param skew The power-law exponent of the class sizes; 0 gives every class K grades per category.
+     */
+    public GradeBookGenerator(long seed, int classCount, int categoryCount, long gradesPerCategory, double skew) {
+        if (classCount <= 0 || categoryCount <= 0 || gradesPerCategory < 0 || skew < 0) {
+            throw new IllegalArgumentException("Class and category counts must be positive and grades and skew not negative");
+        }
+        this.seed = seed;
+        this.classCount = classCount;
+        this.categoryCount = categoryCount;
+        this.gradesPerCategory = gradesPerCategory;
+        this.skew = skew;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int classes = 100;
+        int categories = 5;
+        long grades = 20;
+        double skew = 0;
+        long seed = 42;
+        Path out = Path.of(".");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--classes":
+                    classes = Integer.parseInt(args[++i]);
+                    break;
+                case "--categories":
+                    categories = Integer.parseInt(args[++i]);
+                    break;
+                case "--grades":
+                    grades = Long.parseLong(args[++i]);
+                    break;
+                case "--skew":
+                    skew = Double.parseDouble(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--out":
+                    out = Path.of(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+        Files.createDirectories(out);
+        long start = System.nanoTime();
+        long written = new GradeBookGenerator(seed, classes, categories, grades, skew).write(out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %,d grades for %,d classes to %s (%,d bytes of grades) in %.1f s%n",
+                written, classes, out.toAbsolutePath(), Files.size(out.resolve("grades.csv")), seconds);
+    }
+
+    /**
+     * @param index The index of a class.
+     * @return The name of the generated class.
+     */
+    public static String className(int index) {
+        return "class" + index;
+    }
+
+    /**
+     * @param index The index of a category within its class.
+     * @return The name of the generated category.
+     */
+    public static String categoryName(int index) {
+        String name = CATEGORY_NAMES[index % CATEGORY_NAMES.length];
+        return index < CATEGORY_NAMES.length ? name : name + (index / CATEGORY_NAMES.length + 1);
+    }
+
+    /**
+     * Writes grades.csv, percentage.csv, drop.csv, rounding.csv and gradingScale.csv to a directory,
+     * replacing any existing files.
+     * @param directory The directory to write to.
+     * @return The number of grades written.
+     * @throws IOException if a file cannot be written.
+     */
+    public long write(Path directory) throws IOException {
+        double[] shares = classShares();
+        SplittableRandom root = new SplittableRandom(seed);
+        long written = 0;
+        try (CsvWriter grades = new CsvWriter(directory.resolve("grades.csv"));
+             CsvWriter percentage = new CsvWriter(directory.resolve("percentage.csv"));
+             CsvWriter drop = new CsvWriter(directory.resolve("drop.csv"));
+             CsvWriter rounding = new CsvWriter(directory.resolve("rounding.csv"));
+             CsvWriter scales = new CsvWriter(directory.resolve("gradingScale.csv"))) {
+            grades.write("Class,Category,Grade\n");
+            percentage.write("Class,Category,Percent\n");
+            drop.write("Class,Category,Dropped\n");
+            rounding.write("Class,Round\n");
+            scales.write("Class,A+,A,A-,B+,B,B-,C+,C,C-,D+,D,D-,F\n");
+
+            for (int c = 0; c < classCount; c++) {
+                // Each class has its own stream, so its data does not depend on the classes before it
+                SplittableRandom random = root.split();
+                String className = className(c);
+                long classGrades = Math.round(shares[c] * gradesPerCategory);
+                double classMean = 72 + random.nextDouble() * 18;
+                double[] weights = categoryWeights(random);
+
+                for (int k = 0; k < categoryCount; k++) {
+                    String category = categoryName(k);
+                    percentage.write(className);
+                    percentage.write(',');
+                    percentage.write(category);
+                    percentage.write(',');
+                    percentage.writeDouble(weights[k]);
+                    percentage.write('\n');
+
+                    int dropped = classGrades >= 5 && random.nextInt(10) < 4 ? 1 + random.nextInt(2) : 0;
+                    drop.write(className);
+                    drop.write(',');
+                    drop.write(category);
+                    drop.write(',');
+                    drop.writeDouble(dropped);
+                    drop.write('\n');
+
+                    double categoryMean = classMean + random.nextDouble() * 10 - 5;
+                    double spread = 5 + random.nextDouble() * 10;
+                    byte[] prefix = CsvWriter.encode(className + "," + category + ",");
+                    for (long i = 0; i < classGrades; i++) {
+                        double grade = categoryMean + spread * random.nextGaussian();
+                        grades.write(prefix);
+                        grades.writeDouble(Math.round(Math.max(0, Math.min(110, grade)) * 100) / 100.0);
+                        grades.write('\n');
+                    }
+                    written += classGrades;
+                }
+
+                rounding.write(className);
+                rounding.write(random.nextBoolean() ? ",true\n" : ",false\n");
+                writeScale(scales, className, random);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @return The number of grades per category of each class, as a multiple of gradesPerCategory.
+     * The shares add up to classCount.
+     */
+    private double[] classShares() {
+        double[] shares = new double[classCount];
+        double total = 0;
+        for (int c = 0; c < classCount; c++) {
+            shares[c] = Math.pow(c + 1, -skew);
+            total += shares[c];
+        }
+        for (int c = 0; c < classCount; c++) {
+            shares[c] *= classCount / total;
+        }
+        return shares;
+    }
+
+    /**
+     * Draws category weights with two decimals that add up to exactly 100.
+     */
+    private double[] categoryWeights(SplittableRandom random) {
+        double[] raw = new double[categoryCount];
+        double total = 0;
+        for (int k = 0; k < categoryCount; k++) {
+            raw[k] = 1 + random.nextDouble() * 2;
+            total += raw[k];
+        }
+        // Work in hundredths so rounding leaves an exact remainder to give the largest category
+        long[] hundredths = new long[categoryCount];
+        long assigned = 0;
+        int largest = 0;
+        for (int k = 0; k < categoryCount; k++) {
+            hundredths[k] = Math.round(raw[k] / total * 10_000);
+            assigned += hundredths[k];
+            if (hundredths[k] > hundredths[largest]) {
+                largest = k;
+            }
+        }
+        hundredths[largest] += 10_000 - assigned;
+        double[] weights = new double[categoryCount];
+        for (int k = 0; k < categoryCount; k++) {
+            weights[k] = hundredths[k] / 100.0;
+        }
+        return weights;
+    }
+
+    /**
+     * Writes one grading scale row: the standard scale, shifted down by up to three points, with a
+     * 50% chance of no A+ and a 20% chance of whole letters only.
+     */
+    private static void writeScale(CsvWriter scales, String className, SplittableRandom random) throws IOException {
+        int shift = random.nextInt(4);
+        boolean aPlus = random.nextBoolean();
+        boolean wholeLettersOnly = random.nextInt(5) == 0;
+        scales.write(className);
+        for (int i = 0; i < STANDARD_SCALE.length; i++) {
+            scales.write(',');
+            boolean used = i == STANDARD_SCALE.length - 1
+                    || (wholeLettersOnly ? isWholeLetter(i) : i > 0 || aPlus);
+            if (!used) {
+                scales.write("null");
+            } else if (i == STANDARD_SCALE.length - 1) {
+                scales.writeDouble(0.0);
+            } else {
+                scales.writeDouble(STANDARD_SCALE[i] - shift);
+            }
+        }
+        scales.write('\n');
+    }
+
+    private static boolean isWholeLetter(int index) {
+        for (int letter : WHOLE_LETTERS) {
+            if (letter == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
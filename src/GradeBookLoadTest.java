@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Load-tests a GradeBookServer and reports requests per second and latency percentiles.
+ * <p>
+ * A fixed number of virtual threads each send one request at a time, cycling through the query paths,
+ * until the requested total has been sent. Latency is measured from sending a request to reading its
+ * whole response. A warmup run is made first and not counted.
+ * <p>
+ * Without --url, a server is started in this process on a free port, over a synthetic grade book
+ * generated into a temporary directory, and stopped afterwards.
+ * <p>
+ * Run with {@code java GradeBookLoadTest [--url http://host:port] [--concurrency 64] [--requests 50000]
+ * [--warmup 5000] [--paths /classes,/classes/class0,...]}.
+ */
+public class GradeBookLoadTest {
+    private static final int DEFAULT_CONCURRENCY = 64;
+    private static final int DEFAULT_REQUESTS = 50_000;
+    private static final int DEFAULT_WARMUP = 5_000;
+    private static final int SYNTHETIC_CLASSES = 20;
+    private static final int SYNTHETIC_CATEGORIES = 5;
+    private static final long SYNTHETIC_GRADES = 200;
+
+    /**
+     * The measurements of one run.
+     * @param latencies The latency of each request in nanoseconds, sorted.
+     * @param failures The number of requests that failed or did not return 200.
+     * @param nanos The wall-clock time of the run.
+     */
+    private record Run(long[] latencies, long failures, long nanos) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String url = null;
+        int concurrency = DEFAULT_CONCURRENCY;
+        int requests = DEFAULT_REQUESTS;
+        int warmup = DEFAULT_WARMUP;
+        List<String> paths = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--concurrency":
+                    concurrency = Integer.parseInt(args[++i]);
+                    break;
+                case "--requests":
+                    requests = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--paths":
+                    paths = Arrays.asList(args[++i].split(","));
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+        if (paths == null) {
+            String className = GradeBookGenerator.className(0);
+            String category = GradeBookGenerator.categoryName(0);
+            paths = List.of("/classes", "/classes/" + className, "/classes/" + className + "/categories/" + category,
+                    "/classes/" + className + "/needed?letter=C&remaining=" + category + ":2");
+        }
+
+        Path directory = null;
+        GradeBookServer server = null;
+        ConcurrentGradeBook gradeBook = null;
+        if (url == null) {
+            directory = Files.createTempDirectory("gradebook-loadtest");
+            new GradeBookGenerator(42, SYNTHETIC_CLASSES, SYNTHETIC_CATEGORIES, SYNTHETIC_GRADES, 0).write(directory);
+            GradeBook backing = new GradeBook(directory);
+            backing.load();
+            gradeBook = new ConcurrentGradeBook(backing);
+            server = new GradeBookServer(gradeBook, 0);
+            server.start();
+            url = "http://localhost:" + server.port();
+            System.out.println("Started a server over " + SYNTHETIC_CLASSES + " synthetic classes at " + url);
+        }
+
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            List<URI> uris = new ArrayList<>();
+            for (String path : paths) {
+                uris.add(URI.create(url + path));
+            }
+            run(client, uris, concurrency, warmup);
+            Run run = run(client, uris, concurrency, requests);
+            report(run, concurrency, paths);
+        } finally {
+            if (server != null) {
+                server.stop();
+                gradeBook.close();
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    /**
+     * Sends the given number of requests from `concurrency` virtual threads.
+     */
+    private static Run run(HttpClient client, List<URI> uris, int concurrency, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size())).GET().build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                });
+            }
+        }  // close() waits for every worker
+        long nanos = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Run(latencies, failures.get(), nanos);
+    }
+
+    private static void report(Run run, int concurrency, List<String> paths) {
+        long[] latencies = run.latencies();
+        System.out.printf(Locale.ROOT, "%,d requests over %d connections across %d paths in %.2f s%n",
+                latencies.length, concurrency, paths.size(), run.nanos() / 1e9);
+        System.out.printf(Locale.ROOT, " - %,.0f requests/s%n", latencies.length / (run.nanos() / 1e9));
+        System.out.printf(Locale.ROOT, " - latency p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                latencies.length > 0 ? latencies[latencies.length - 1] / 1e6 : 0);
+        System.out.printf(Locale.ROOT, " - %,d failed requests%n", run.failures());
+    }
+
+    /**
+     * @return The nearest-rank percentile of sorted nanosecond latencies, in milliseconds.
+     */
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
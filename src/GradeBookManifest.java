@@ -0,0 +1,234 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Commits a generation of save files atomically.
+ * <p>
+ * Every file of a generation is first written and fsynced under a temporary name ({@code name.tmp}).
+ * The manifest, which lists the generation number and the size and CRC32 of each file, is then written
+ * the same way and renamed into place; that rename is the commit point. Only then are the temporary
+ * files renamed over the old ones. After a crash, recover() finishes the renames of a committed
+ * generation and deletes the temporary files of an uncommitted one, so the files on disk always
+ * match one complete generation.
+ * <p>
+ * Manifest layout: a {@code generation,N} line, a {@code journal,N} line naming the first journal segment
+ * the generation does not include, then one {@code fileName,size,crc32} line per file.
+ */
+public class GradeBookManifest {
+    public static final String FILE_NAME = "gradebook.manifest";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int CHECKSUM_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The size and checksum a file had when its generation was committed.
+     */
+    private record Entry(long size, long crc) {
+    }
+
+    private final long generation;
+    private final long journalSegment;
+    private final Map<String, Entry> files;
+
+    private GradeBookManifest(long generation, long journalSegment, Map<String, Entry> files) {
+        this.generation = generation;
+        this.journalSegment = journalSegment;
+        this.files = files;
+    }
+
+    /**
+     * @return The number of the committed generation.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * @return The first journal segment whose changes are not in the committed generation; 0 for a
+     * manifest written before segments were recorded.
+     */
+    public long journalSegment() {
+        return journalSegment;
+    }
+
+    /**
+     * @param directory The directory holding the save files.
+     * @param fileName The name of a save file.
+     * @return The path a save file is written to before its generation is committed.
+     */
+    public static Path temporaryPath(Path directory, String fileName) {
+        return directory.resolve(fileName + TEMPORARY_SUFFIX);
+    }
+
+    /**
+     * Commits a generation whose files have all been written and fsynced to their temporary paths.
+     * If the manifest cannot be committed, the temporary files are deleted and the previous generation
+     * stays in place. Once the manifest is committed, a failed rename is finished by the next recover().
+     * @param directory The directory holding the save files.
+     * @param generation The number of the new generation.
+     * @param journalSegment The first journal segment whose changes are not in the new generation.
+     * @param fileNames The names of the files in the generation.
+     * @throws IOException if the generation could not be committed or its files could not be renamed.
+     */
+    public static void commit(Path directory, long generation, long journalSegment, List<String> fileNames)
+            throws IOException {
+        Path manifest = directory.resolve(FILE_NAME);
+        Path temporaryManifest = temporaryPath(directory, FILE_NAME);
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryManifest, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+                writer.write("generation," + generation + "\n");
+                writer.write("journal," + journalSegment + "\n");
+                for (String fileName : fileNames) {
+                    Entry entry = checksum(temporaryPath(directory, fileName));
+                    writer.write(fileName + "," + entry.size() + "," + entry.crc() + "\n");
+                }
+                writer.flush();
+                channel.force(true);
+            }
+            Files.move(temporaryManifest, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(directory);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaryManifest);
+            discardTemporaryFiles(directory, fileNames);
+            throw e;
+        }
+        // Committed: from here on a crash is rolled forward by recover()
+        for (String fileName : fileNames) {
+            Files.move(temporaryPath(directory, fileName), directory.resolve(fileName),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        syncDirectory(directory);
+    }
+
+    /**
+     * Brings the save files back to the last committed generation: temporary files that match the
+     * manifest are renamed into place, and any other temporary files are deleted.
+     * @param directory The directory holding the save files.
+     * @param fileNames The names of every save file, used to clean up when there is no manifest.
+     * @return The manifest of the last committed generation, or null if no generation was ever committed.
+     * @throws IOException if the manifest cannot be read or a file cannot be renamed or deleted.
+     */
+    public static GradeBookManifest recover(Path directory, List<String> fileNames) throws IOException {
+        Files.deleteIfExists(temporaryPath(directory, FILE_NAME));
+        GradeBookManifest manifest = read(directory.resolve(FILE_NAME));
+        boolean renamed = false;
+        for (String fileName : fileNames) {
+            Path temporary = temporaryPath(directory, fileName);
+            if (!Files.exists(temporary)) {
+                continue;
+            }
+            Entry expected = manifest != null ? manifest.files.get(fileName) : null;
+            if (expected != null && expected.equals(checksum(temporary))) {
+                Files.move(temporary, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                renamed = true;
+            } else {
+                // Left over from a generation that was never committed
+                Files.delete(temporary);
+            }
+        }
+        if (renamed) {
+            System.out.println("Finished saving generation " + manifest.generation + " after an interrupted save");
+            syncDirectory(directory);
+        }
+        return manifest;
+    }
+
+    /**
+     * Checks a save file against the size and checksum recorded when its generation was committed.
+     * @param directory The directory holding the save files.
+     * @param fileName The name of the save file.
+     * @return true if the file matches or is not part of the manifest; false if it differs or is missing.
+     * @throws IOException if the file cannot be read.
+     */
+    public boolean matches(Path directory, String fileName) throws IOException {
+        Entry expected = files.get(fileName);
+        if (expected == null) {
+            return true;
+        }
+        try {
+            return expected.equals(checksum(directory.resolve(fileName)));
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the temporary files of a generation that will not be committed.
+     * @param directory The directory holding the save files.
+     * @param fileNames The names of the files in the generation.
+     * @throws IOException if a file cannot be deleted.
+     */
+    public static void discardTemporaryFiles(Path directory, List<String> fileNames) throws IOException {
+        for (String fileName : fileNames) {
+            Files.deleteIfExists(temporaryPath(directory, fileName));
+        }
+    }
+
+    private static GradeBookManifest read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        long generation = 0;
+        long journalSegment = 0;
+        Map<String, Entry> files = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                if (values.length == 2 && values[0].equals("generation")) {
+                    generation = Long.parseLong(values[1]);
+                } else if (values.length == 2 && values[0].equals("journal")) {
+                    journalSegment = Long.parseLong(values[1]);
+                } else if (values.length == 3) {
+                    files.put(values[0], new Entry(Long.parseLong(values[1]), Long.parseLong(values[2])));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt save manifest " + file + ": " + e.getMessage(), e);
+        }
+        return new GradeBookManifest(generation, journalSegment, files);
+    }
+
+    private static Entry checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_BUFFER_SIZE);
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+                size += read;
+            }
+        }
+        return new Entry(size, crc.getValue());
+    }
+
+    /**
+     * Forces directory entries (the renames) to disk. Not every platform can open a directory, so a
+     * failure here is ignored.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory sync is not supported on this platform
+        }
+    }
+}
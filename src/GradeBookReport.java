@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Builds whole-grade-book reports: every category's grades and statistics and the final grade of
+ * each class. Classes are independent of one another, so they are split into ranges and computed in
+ * parallel on a fork-join pool; the ranges are merged back in the order the classes were given, so a
+ * report is the same no matter how many threads computed it.
+ * <p>
+ * Each class is reported from its compiled class table: category and final grades are read from the
+ * table's caches, and the grades are the category's own GradeList, not a copy. The grade book must not
+ * be modified while a report is being generated or used.
+ */
+public class GradeBookReport {
+    /// Each worker thread gets about this many ranges, so uneven classes still balance out
+    private static final int RANGES_PER_THREAD = 4;
+
+    /**
+     * The report for one category.
+     * @param name The name of the category.
+     * @param grades The grades of the category, in the order they were added; the grade book's own list,
+     *               which must not be modified through the report.
+     * @param stats The statistics of the grades.
+     */
+    public record CategoryReport(String name, GradeList grades, CategoryStats stats) {
+    }
+
+    /**
+     * The report for one class.
+     * @param className The name of the class.
+     * @param categories The report of each category.
+     * @param finalGrade The final grade of the class.
+     */
+    public record ClassReport(String className, List<CategoryReport> categories, FinalGrade finalGrade) {
+    }
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a report engine that runs on the common fork-join pool.
+     */
+    public GradeBookReport() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a report engine that runs on the given pool.
+     * @param pool The pool that computes classes.
+     */
+    public GradeBookReport(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Reports every class of a grade book, in the order of classNames().
+     * @param gradeBook The grade book.
+     * @return The report of each class.
+     */
+    public List<ClassReport> generate(GradeBook gradeBook) {
+        return generate(gradeBook, new ArrayList<>(gradeBook.classNames()));
+    }
+
+    /**
+     * Reports the given classes of a grade book.
+     * @param gradeBook The grade book.
+     * @param classNames The classes to report.
+     * @return The report of each class, in the order of classNames.
+     * @throws IllegalArgumentException if one of the classes does not exist.
+     */
+    public List<ClassReport> generate(GradeBook gradeBook, List<String> classNames) {
+        // Compile every class table up front; the workers then only touch their own classes' state
+        gradeBook.compileAllClasses();
+        ClassReport[] reports = new ClassReport[classNames.size()];
+        int ranges = Math.min(reports.length, pool.getParallelism() * RANGES_PER_THREAD);
+        if (ranges <= 1) {
+            reportRange(gradeBook, classNames, reports, 0, reports.length);
+            return Arrays.asList(reports);
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges; i++) {
+            int start = (int) ((long) reports.length * i / ranges);
+            int end = (int) ((long) reports.length * (i + 1) / ranges);
+            tasks.add(pool.submit(() -> reportRange(gradeBook, classNames, reports, start, end)));
+        }
+        // Each range fills its own part of the array, so joining is all the merging there is
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return Arrays.asList(reports);
+    }
+
+    private static void reportRange(GradeBook gradeBook, List<String> classNames, ClassReport[] reports, int start, int end) {
+        for (int i = start; i < end; i++) {
+            reports[i] = gradeBook.report(classNames.get(i));
+        }
+    }
+}
@@ -0,0 +1,332 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves read-only grade book queries over HTTP, using the JDK's built-in HttpServer with one virtual
+ * thread per request. Every endpoint answers from the class snapshots a ConcurrentGradeBook publishes,
+ * so requests never block one another or wait for a write.
+ * <p>
+ * Endpoints (GET only, JSON responses):
+ * <ul>
+ * <li>{@code /classes} lists the classes.</li>
+ * <li>{@code /classes/{class}} gives the final grade and each category's grade and weight.</li>
+ * <li>{@code /classes/{class}/categories/{category}} gives the category's statistics.</li>
+ * <li>{@code /classes/{class}/needed?letter=B&remaining=exam:1,homework:3} gives the average needed
+ * on the remaining items of each category, and on all of them alike, to reach a letter grade. Without
+ * {@code letter} it gives an array with every letter grade on the class's scale.</li>
+ * </ul>
+ * An unknown class or category gives 404, a malformed query 400 and any method but GET 405.
+ * <p>
+ * Run with {@code java GradeBookServer [--port 8080] [--dir directory]}.
+ */
+public class GradeBookServer {
+    private static final int DEFAULT_PORT = 8080;
+    /// Connections the operating system may queue while every handler is busy
+    private static final int BACKLOG = 1024;
+
+    private final ConcurrentGradeBook gradeBook;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a server for a grade book. Nothing is served until start() is called.
+     * @param gradeBook The grade book to query.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public GradeBookServer(ConcurrentGradeBook gradeBook, int port) throws IOException {
+        this.gradeBook = gradeBook;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.createContext("/classes", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Path directory = Path.of(".");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--dir":
+                    directory = Path.of(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+        GradeBook backing = new GradeBook(directory);
+        if (!backing.load()) {
+            System.out.println("Some data files were not found or could not be loaded. Starting with empty data.");
+        }
+        ConcurrentGradeBook gradeBook = new ConcurrentGradeBook(backing);
+        GradeBookServer server = new GradeBookServer(gradeBook, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            gradeBook.close();
+        }));
+        server.start();
+        System.out.println("Serving " + gradeBook.classNames().size() + " classes on port " + server.port());
+    }
+
+    /**
+     * Starts serving requests in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for running ones to finish and shuts down the executor.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                respond(exchange, 405, error("Only GET is supported"));
+                return;
+            }
+            try {
+                respond(exchange, 200, route(exchange.getRequestURI().getRawPath(), exchange.getRequestURI().getRawQuery()));
+            } catch (NotFoundException e) {
+                respond(exchange, 404, error(e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+            } catch (RuntimeException e) {
+                System.out.println("An error occurred while handling " + exchange.getRequestURI() + ": " + e);
+                respond(exchange, 500, error("Internal server error"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Thrown for a path that does not name an endpoint.
+     */
+    private static final class NotFoundException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @return The JSON body for a request path.
+     */
+    private String route(String rawPath, String rawQuery) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        if (segments.isEmpty() || !segments.get(0).equals("classes")) {
+            throw new NotFoundException("No such endpoint: " + rawPath);
+        }
+        if (segments.size() == 1) {
+            return classList();
+        }
+        String className = segments.get(1);
+        ConcurrentGradeBook.ClassSnapshot snapshot = gradeBook.snapshot(className);
+        if (snapshot == null) {
+            throw new NotFoundException("Class does not exist: " + className);
+        }
+        if (segments.size() == 2) {
+            return classSummary(snapshot);
+        }
+        if (segments.size() == 3 && segments.get(2).equals("needed")) {
+            return neededGrades(className, parseQuery(rawQuery));
+        }
+        if (segments.size() == 4 && segments.get(2).equals("categories")) {
+            if (!snapshot.categories().containsKey(segments.get(3))) {
+                throw new NotFoundException("Category does not exist in " + className + ": " + segments.get(3));
+            }
+            return categoryStats(className, segments.get(3));
+        }
+        throw new NotFoundException("No such endpoint: " + rawPath);
+    }
+
+    private String classList() {
+        StringBuilder json = new StringBuilder("{\"classes\":[");
+        boolean first = true;
+        for (String className : gradeBook.classNames()) {
+            json.append(first ? "" : ",").append(quote(className));
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    private String classSummary(ConcurrentGradeBook.ClassSnapshot snapshot) {
+        StringBuilder json = new StringBuilder("{\"class\":").append(quote(snapshot.className()))
+                .append(",\"finalGrade\":").append(number(snapshot.finalGrade().value()))
+                .append(",\"letter\":").append(quote(snapshot.finalGrade().letter()))
+                .append(",\"categories\":[");
+        boolean first = true;
+        for (Map.Entry<String, ConcurrentGradeBook.CategorySnapshot> entry : snapshot.categories().entrySet()) {
+            ConcurrentGradeBook.CategorySnapshot category = entry.getValue();
+            json.append(first ? "" : ",")
+                    .append("{\"name\":").append(quote(entry.getKey()))
+                    .append(",\"grade\":").append(number(category.grade()))
+                    .append(",\"weight\":").append(number(category.weight() * 100))
+                    .append(",\"count\":").append(category.size())
+                    .append('}');
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    private String categoryStats(String className, String categoryName) {
+        CategoryStats stats = gradeBook.categoryStats(className, categoryName);
+        return "{\"class\":" + quote(className) + ",\"category\":" + quote(categoryName)
+                + ",\"count\":" + stats.count()
+                + ",\"grade\":" + number(stats.grade())
+                + ",\"average\":" + number(stats.average())
+                + ",\"median\":" + number(stats.median())
+                + ",\"highest\":" + number(stats.highest())
+                + ",\"lowest\":" + number(stats.lowest()) + "}";
+    }
+
+    private String neededGrades(String className, Map<String, String> query) {
+        Map<String, Integer> remaining = new LinkedHashMap<>();
+        String remainingParameter = query.getOrDefault("remaining", "");
+        for (String pair : remainingParameter.split(",")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int colon = pair.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Expected category:count in remaining, got " + pair);
+            }
+            try {
+                remaining.put(pair.substring(0, colon), Integer.parseInt(pair.substring(colon + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected a whole number of remaining items, got " + pair);
+            }
+        }
+        String letter = query.get("letter");
+        if (letter != null) {
+            return neededGradesJson(className, gradeBook.neededGrades(className, letter.toUpperCase(Locale.ROOT), remaining));
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (NeededGrades needed : gradeBook.neededGrades(className, remaining)) {
+            json.append(json.length() > 1 ? "," : "").append(neededGradesJson(className, needed));
+        }
+        return json.append(']').toString();
+    }
+
+    private static String neededGradesJson(String className, NeededGrades needed) {
+        StringBuilder json = new StringBuilder("{\"class\":").append(quote(className))
+                .append(",\"letter\":").append(quote(needed.letter()))
+                .append(",\"target\":").append(number(needed.target()))
+                .append(",\"outcome\":").append(quote(needed.outcome().name()))
+                .append(",\"uniform\":").append(number(needed.uniform()))
+                .append(",\"averages\":{");
+        boolean first = true;
+        for (Map.Entry<String, Double> entry : needed.averages().entrySet()) {
+            json.append(first ? "" : ",").append(quote(entry.getKey())).append(':').append(number(entry.getValue()));
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            query.put(key, value);
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    /**
+     * @return A JSON number, or null for NaN and infinities, which JSON cannot represent.
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    /**
+     * @return A JSON string literal.
+     */
+    private static String quote(String text) {
+        if (text == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
@@ -0,0 +1,269 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the binary snapshot of a grade book.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header      int magic "GRBK", int version, long journalSegment
+ * dictionary  int count, then per name: int byteLength, UTF-8 bytes
+ * grades      int classCount, per class: int nameId, int categoryCount,
+ *             per category: int nameId, int gradeCount, gradeCount doubles
+ * percentage  int classCount, per class: int nameId, int categoryCount,
+ *             per category: int nameId, double percent (NaN for a placeholder)
+ * drop        same layout as percentage
+ * rounding    int classCount, per class: int nameId, byte round
+ * scales      int classCount, per class: int nameId, int cutoffCount, cutoffCount doubles (NaN for none)
+ * </pre>
+ * All class and category names are stored once in the dictionary and referenced by index, and each
+ * category's grades are one contiguous column that is copied into a GradeList in bulk.
+ * The journal segment is the first GradeJournal segment whose entries are not yet part of the snapshot.
+ */
+public class GradeBookSnapshot {
+    private static final int MAGIC = 0x4752424B;  // "GRBK"
+    private static final int VERSION = 2;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Writes every grade book map to a snapshot file, replacing any existing file.
+     * @param file The snapshot file.
+     * @param data The grade book data to write.
+     * @param journalSegment The first journal segment not included in the data.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path file, GradeBookData data, long journalSegment) throws IOException {
+        HashMap<String, HashMap<String, GradeList>> classes = data.classes();
+        HashMap<String, Boolean> rounding = data.rounding();
+        HashMap<String, ArrayList<Double>> gradingScale = data.gradingScale();
+        SymbolTable names = new SymbolTable();
+        collectNames(names, classes);
+        collectNames(names, data.percentage());
+        collectNames(names, data.drop());
+        for (String className : rounding.keySet()) {
+            names.intern(className);
+        }
+        for (String className : gradingScale.keySet()) {
+            names.intern(className);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(journalSegment);
+
+            out.putInt(names.size());
+            for (int id = 0; id < names.size(); id++) {
+                byte[] bytes = names.nameOf(id).getBytes(StandardCharsets.UTF_8);
+                out.putInt(bytes.length);
+                out.put(bytes);
+            }
+
+            out.putInt(classes.size());
+            for (Map.Entry<String, HashMap<String, GradeList>> classEntry : classes.entrySet()) {
+                out.putInt(names.idOf(classEntry.getKey()));
+                out.putInt(classEntry.getValue().size());
+                for (Map.Entry<String, GradeList> categoryEntry : classEntry.getValue().entrySet()) {
+                    GradeList grades = categoryEntry.getValue();
+                    out.putInt(names.idOf(categoryEntry.getKey()));
+                    out.putInt(grades.size());
+                    for (int i = 0; i < grades.size(); i++) {
+                        out.putDouble(grades.get(i));
+                    }
+                }
+            }
+
+            writeCategoryValues(out, names, data.percentage());
+            writeCategoryValues(out, names, data.drop());
+
+            out.putInt(rounding.size());
+            for (Map.Entry<String, Boolean> entry : rounding.entrySet()) {
+                out.putInt(names.idOf(entry.getKey()));
+                out.put((byte) (Boolean.TRUE.equals(entry.getValue()) ? 1 : 0));
+            }
+
+            out.putInt(gradingScale.size());
+            for (Map.Entry<String, ArrayList<Double>> entry : gradingScale.entrySet()) {
+                out.putInt(names.idOf(entry.getKey()));
+                out.putInt(entry.getValue().size());
+                for (Double cutoff : entry.getValue()) {
+                    out.putDouble(cutoff != null ? cutoff : Double.NaN);
+                }
+            }
+            out.flush();
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Reads a snapshot file through a memory-mapped buffer and adds its contents to the given data.
+     * @param file The snapshot file.
+     * @param data The grade book data to fill.
+     * @return The first journal segment not included in the snapshot.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     */
+    public static long read(Path file, GradeBookData data) throws IOException {
+        HashMap<String, HashMap<String, GradeList>> classes = data.classes();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a grade book snapshot: " + file);
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+            long journalSegment = in.getLong();
+
+            String[] names = new String[in.getInt()];
+            for (int id = 0; id < names.length; id++) {
+                byte[] bytes = new byte[in.getInt()];
+                in.get(bytes);
+                names[id] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int classCount = in.getInt();
+            for (int c = 0; c < classCount; c++) {
+                HashMap<String, GradeList> categories = classes.computeIfAbsent(names[in.getInt()], k -> new HashMap<>());
+                int categoryCount = in.getInt();
+                for (int k = 0; k < categoryCount; k++) {
+                    String category = names[in.getInt()];
+                    double[] column = new double[in.getInt()];
+                    // Bulk-copy the whole column out of the mapped file
+                    in.asDoubleBuffer().get(column);
+                    in.position(in.position() + column.length * Double.BYTES);
+                    GradeList grades = GradeList.wrap(column);
+                    GradeList existing = categories.putIfAbsent(category, grades);
+                    if (existing != null) {
+                        existing.addAll(grades);
+                    }
+                }
+            }
+
+            readCategoryValues(in, names, data.percentage());
+            readCategoryValues(in, names, data.drop());
+
+            classCount = in.getInt();
+            for (int c = 0; c < classCount; c++) {
+                data.rounding().put(names[in.getInt()], in.get() != 0);
+            }
+
+            classCount = in.getInt();
+            for (int c = 0; c < classCount; c++) {
+                String className = names[in.getInt()];
+                int cutoffCount = in.getInt();
+                ArrayList<Double> scale = new ArrayList<>(cutoffCount);
+                for (int i = 0; i < cutoffCount; i++) {
+                    double cutoff = in.getDouble();
+                    scale.add(Double.isNaN(cutoff) ? null : cutoff);
+                }
+                data.gradingScale().put(className, scale);
+            }
+            return journalSegment;
+        } catch (RuntimeException e) {
+            // Truncated or corrupt files surface as buffer underflows or bad indexes
+            throw new IOException("Corrupt grade book snapshot " + file + ": " + e, e);
+        }
+    }
+
+    private static void collectNames(SymbolTable names, Map<String, ? extends Map<String, ?>> map) {
+        for (Map.Entry<String, ? extends Map<String, ?>> entry : map.entrySet()) {
+            names.intern(entry.getKey());
+            for (String category : entry.getValue().keySet()) {
+                names.intern(category);
+            }
+        }
+    }
+
+    private static void writeCategoryValues(Output out, SymbolTable names, Map<String, HashMap<String, Double>> map) throws IOException {
+        out.putInt(map.size());
+        for (Map.Entry<String, HashMap<String, Double>> classEntry : map.entrySet()) {
+            out.putInt(names.idOf(classEntry.getKey()));
+            out.putInt(classEntry.getValue().size());
+            for (Map.Entry<String, Double> categoryEntry : classEntry.getValue().entrySet()) {
+                out.putInt(names.idOf(categoryEntry.getKey()));
+                Double value = categoryEntry.getValue();
+                out.putDouble(value != null ? value : Double.NaN);
+            }
+        }
+    }
+
+    private static void readCategoryValues(ByteBuffer in, String[] names, Map<String, HashMap<String, Double>> map) {
+        int classCount = in.getInt();
+        for (int c = 0; c < classCount; c++) {
+            HashMap<String, Double> categories = map.computeIfAbsent(names[in.getInt()], k -> new HashMap<>());
+            int categoryCount = in.getInt();
+            for (int k = 0; k < categoryCount; k++) {
+                String category = names[in.getInt()];
+                double value = in.getDouble();
+                categories.put(category, Double.isNaN(value) ? null : value);
+            }
+        }
+    }
+
+    /**
+     * Buffers primitive writes and flushes them to a channel in large blocks.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void put(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
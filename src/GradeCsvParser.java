@@ -0,0 +1,343 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for grades.csv rows of the form {@code Class,Category,Grade}.
+ * Works directly on bytes: fields are trimmed and compared in place, grades are parsed without
+ * creating a String, and class/category names are interned so each distinct name is decoded once.
+ * Rows are skipped under the same rules GradeBook has always used: fewer than three fields or a
+ * grade that is not a number. Callers that need to report skipped rows can pass a RejectSink.
+ */
+public class GradeCsvParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    /// Largest mantissa that converts to a double exactly
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    /**
+     * Receives each successfully parsed row.
+     */
+    public interface GradeSink {
+        /**
+         * @param className The interned class name.
+         * @param category The interned category name.
+         * @param grade The parsed grade.
+         */
+        void accept(String className, String category, double grade);
+    }
+
+    /**
+     * Receives each row that was skipped.
+     */
+    public interface RejectSink {
+        /**
+         * @param line The line number of the row, starting at 1 for the first line of the stream.
+         * @param reason Why the row was skipped.
+         */
+        void reject(long line, String reason);
+    }
+
+    static final String TOO_FEW_FIELDS = "expected Class,Category,Grade";
+    static final String NOT_A_NUMBER = "grade is not a number";
+
+    /// Interned class and category names, keyed by their raw bytes
+    private final Interner names = new Interner();
+    /// Field bounds of the row being parsed: start/end offsets of class, category and grade
+    private final int[] fields = new int[6];
+    /// Value produced by the last successful parseGrade call
+    private double grade;
+    /// Line number of the row being parsed by parse(InputStream, ...)
+    private long line;
+
+    /**
+     * Parses a grades file from a stream, skipping the header line.
+     * @param in The stream to read; it is not closed.
+     * @param sink Receives each valid row.
+     * @return The number of rows passed to the sink.
+     * @throws IOException if reading the stream fails.
+     */
+    public long parse(InputStream in, GradeSink sink) throws IOException {
+        return parse(in, true, sink, null);
+    }
+    /**
+     * Parses grade rows from a stream.
+     * @param in The stream to read; it is not closed.
+     * @param skipHeader Whether the first line is a header rather than a row.
+     * @param sink Receives each valid row.
+     * @param rejects Receives each skipped row, or null to skip rows silently.
+     * @return The number of rows passed to the sink.
+     * @throws IOException if reading the stream fails.
+     */
+    public long parse(InputStream in, boolean skipHeader, GradeSink sink, RejectSink rejects) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        int filled = 0;
+        int lineStart = 0;
+        boolean header = skipHeader;
+        long rows = 0;
+        line = 0;
+
+        while (true) {
+            int read = in.read(buffer, filled, buffer.length - filled);
+            boolean eof = read < 0;
+            if (!eof) {
+                filled += read;
+            }
+            // Consume every complete line in the buffer
+            int pos = lineStart;
+            while (pos < filled) {
+                if (buffer[pos] == '\n') {
+                    line++;
+                    if (header) {
+                        header = false;
+                    } else if (parseLine(view, lineStart, pos, sink, line, rejects)) {
+                        rows++;
+                    }
+                    lineStart = pos + 1;
+                }
+                pos++;
+            }
+            if (eof) {
+                // The last line may not end with a newline
+                if (lineStart < filled && !header && parseLine(view, lineStart, filled, sink, ++line, rejects)) {
+                    rows++;
+                }
+                return rows;
+            }
+            // Move the partial line to the front, growing the buffer if one line fills it
+            int partial = filled - lineStart;
+            if (lineStart == 0 && partial == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                view = ByteBuffer.wrap(buffer);
+            } else if (lineStart > 0) {
+                System.arraycopy(buffer, lineStart, buffer, 0, partial);
+            }
+            filled = partial;
+            lineStart = 0;
+        }
+    }
+
+    /**
+     * @return The line number of the row most recently passed to a sink by parse(InputStream, ...),
+     * starting at 1 for the first line of the stream.
+     */
+    public long line() {
+        return line;
+    }
+
+    /**
+     * Parses every complete line in a buffer region.
+     * @param buffer The buffer holding CSV bytes; its position and limit are not changed.
+     * @param start The offset of the first byte of the region; must be at the start of a line.
+     * @param end The offset just past the region.
+     * @param skipHeader Whether the first line of the region is the header.
+     * @param sink Receives each valid row.
+     * @return The number of rows passed to the sink.
+     */
+    public long parse(ByteBuffer buffer, int start, int end, boolean skipHeader, GradeSink sink) {
+        long rows = 0;
+        int lineStart = start;
+        boolean header = skipHeader;
+        for (int pos = start; pos < end; pos++) {
+            if (buffer.get(pos) == '\n') {
+                if (header) {
+                    header = false;
+                } else if (parseLine(buffer, lineStart, pos, sink, 0, null)) {
+                    rows++;
+                }
+                lineStart = pos + 1;
+            }
+        }
+        if (lineStart < end && !header && parseLine(buffer, lineStart, end, sink, 0, null)) {
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Splits one line into its first three fields and hands the row to the sink if it is valid.
+     * @return true if the row was accepted.
+     */
+    private boolean parseLine(ByteBuffer buffer, int start, int end, GradeSink sink, long line, RejectSink rejects) {
+        int field = 0;
+        int fieldStart = start;
+        for (int pos = start; pos <= end && field < 3; pos++) {
+            if (pos == end || buffer.get(pos) == ',') {
+                fields[field * 2] = fieldStart;
+                fields[field * 2 + 1] = pos;
+                field++;
+                fieldStart = pos + 1;
+            }
+        }
+        if (field < 3) {
+            if (rejects != null && !isBlank(buffer, start, end)) {
+                rejects.reject(line, TOO_FEW_FIELDS);
+            }
+            return false;  // Skip lines with insufficient data
+        }
+        if (!parseGrade(buffer, fields[4], fields[5])) {
+            if (rejects != null) {
+                rejects.reject(line, NOT_A_NUMBER);
+            }
+            return false;  // Skip invalid number formats
+        }
+        String className = names.intern(buffer, fields[0], fields[1]);
+        String category = names.intern(buffer, fields[2], fields[3]);
+        sink.accept(className, category, grade);
+        return true;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int pos = start; pos < end; pos++) {
+            if ((buffer.get(pos) & 0xff) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a decimal field in place into {@code grade}. Plain decimals with up to 15-16 significant
+     * digits are converted exactly without allocating; anything else (exponents, very long mantissas)
+     * falls back to Double.parseDouble.
+     * @return true if the field is a number.
+     */
+    private boolean parseGrade(ByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+            negative = buffer.get(pos) == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; pos < end; pos++) {
+            byte b = buffer.get(pos);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+                if (mantissa > MAX_EXACT_MANTISSA) {
+                    return parseSlow(buffer, start, end);
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return parseSlow(buffer, start, end);
+            }
+        }
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseSlow(buffer, start, end);
+        }
+        // Both operands are exact doubles, so the division is correctly rounded like parseDouble
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        grade = negative ? -value : value;
+        return true;
+    }
+
+    private boolean parseSlow(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        try {
+            grade = Double.parseDouble(new String(bytes, StandardCharsets.UTF_8));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Open-addressing table from raw name bytes to the decoded, trimmed String.
+     */
+    private static final class Interner {
+        private byte[][] keys = new byte[64][];
+        private String[] values = new String[64];
+        private int count;
+
+        String intern(ByteBuffer buffer, int start, int end) {
+            // Trim the same characters String.trim() removes
+            while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+                start++;
+            }
+            while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+                end--;
+            }
+            int hash = 0x811c9dc5;
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ buffer.get(i)) * 0x01000193;
+            }
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (matches(keys[slot], buffer, start, end)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            byte[] key = new byte[end - start];
+            buffer.get(start, key);
+            String value = new String(key, StandardCharsets.UTF_8);
+            keys[slot] = key;
+            values[slot] = value;
+            if (++count * 2 > keys.length) {
+                resize();
+            }
+            return value;
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void resize() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                byte[] key = oldKeys[i];
+                if (key == null) {
+                    continue;
+                }
+                int hash = 0x811c9dc5;
+                for (byte b : key) {
+                    hash = (hash ^ b) * 0x01000193;
+                }
+                int slot = hash & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
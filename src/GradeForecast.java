@@ -0,0 +1,232 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Forecasts the distribution of a class's final grade by Monte Carlo simulation.
+ * <p>
+ * Each trial fills the remaining items of every category with grades drawn at random, with replacement,
+ * from that category's own grades, and scores them with a WhatIf engine, so dropped grades, weights,
+ * rounding and the grading scale apply exactly as they do for the class's final grade. A category with
+ * remaining items but no grades of its own draws from every grade in the class.
+ * <p>
+ * Trials are split into chunks of CHUNK_TRIALS that run in parallel on a fork-join pool. Each chunk gets its
+ * own SplittableRandom, split from the seed in chunk order before any of them starts, and its own engine and
+ * primitive scratch arrays, so a trial allocates nothing and the same seed gives the same forecast on
+ * any number of threads. Chunks count letter grades and build a GradeHistogram of final grades, and
+ * these are merged once at the end.
+ */
+public class GradeForecast {
+    /// Trials per chunk; fixed, so the chunks and their random streams do not depend on the pool
+    static final long CHUNK_TRIALS = 1 << 16;
+    /// The two-sided 95% point of the normal distribution
+    private static final double Z_95 = 1.959963984540054;
+
+    /**
+     * The forecast odds of one letter grade.
+     * @param probability The share of trials that ended with the letter grade.
+     * @param low The lower end of the 95% Wilson score interval of the probability.
+     * @param high The upper end of the 95% Wilson score interval of the probability.
+     */
+    public record LetterOdds(double probability, double low, double high) {
+    }
+
+    /**
+     * The forecast of one class.
+     * @param className The name of the class.
+     * @param trials The number of trials simulated.
+     * @param letters The odds of each letter grade on the class's scale, from the highest letter grade down,
+     *                or of NO_SCALE alone if the class has no grading scale.
+     * @param mean The mean simulated final grade.
+     * @param standardDeviation The standard deviation of the simulated final grades.
+     * @param low The 2.5th percentile of the simulated final grades, to within GradeHistogram.BIN_WIDTH.
+     * @param high The 97.5th percentile of the simulated final grades, to within GradeHistogram.BIN_WIDTH.
+     */
+    public record Forecast(String className, long trials, Map<String, LetterOdds> letters, double mean,
+                           double standardDeviation, double low, double high) {
+    }
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a forecaster that runs on the common fork-join pool.
+     */
+    public GradeForecast() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a forecaster that runs on the given pool.
+     * @param pool The pool that runs trials.
+     */
+    public GradeForecast(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Forecasts a class's final grade. The grade book is only read before the trials start.
+     * @param gradeBook The grade book.
+     * @param className The name of the class.
+     * @param remainingItems The number of items still to be graded in each category; missing categories have none.
+     * @param trials The number of trials to simulate.
+     * @param seed The seed of the random grades; the same seed gives the same forecast.
+     * @return The forecast.
+     * @throws IllegalArgumentException if the class or one of the categories does not exist, a count is
+     * negative, the number of trials is not positive, or a category has remaining items but the class has
+     * no grades to draw from.
+     */
+    public Forecast forecast(GradeBook gradeBook, String className, Map<String, Integer> remainingItems,
+                             long trials, long seed) {
+        if (trials <= 0) {
+            throw new IllegalArgumentException("Number of trials must be positive: " + trials);
+        }
+        WhatIf whatIf = gradeBook.whatIf(className);
+        int categoryCount = whatIf.categoryCount();
+        int[] counts = new int[categoryCount];
+        for (Map.Entry<String, Integer> entry : remainingItems.entrySet()) {
+            int count = entry.getValue();
+            if (count < 0) {
+                throw new IllegalArgumentException("Remaining items cannot be negative: " + entry.getKey() + "," + count);
+            }
+            counts[whatIf.categoryIndex(entry.getKey())] = count;
+        }
+
+        // The grades each category draws from
+        double[][] pools = new double[categoryCount][];
+        double[] classGrades = null;
+        for (int k = 0; k < categoryCount; k++) {
+            if (counts[k] == 0) {
+                continue;
+            }
+            pools[k] = gradeBook.grades(className, whatIf.categoryName(k));
+            if (pools[k].length == 0) {
+                if (classGrades == null) {
+                    classGrades = allGrades(gradeBook, className);
+                }
+                if (classGrades.length == 0) {
+                    throw new IllegalArgumentException("No grades to forecast " + whatIf.categoryName(k) + " in " + className);
+                }
+                pools[k] = classGrades;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ForkJoinTask<Tally>> tasks = new ArrayList<>();
+        for (long start = 0; start < trials; start += CHUNK_TRIALS) {
+            long chunkTrials = Math.min(CHUNK_TRIALS, trials - start);
+            SplittableRandom chunkRandom = random.split();
+            WhatIf engine = whatIf.copy();
+            tasks.add(pool.submit(() -> simulate(engine, pools, counts, chunkTrials, chunkRandom)));
+        }
+        Tally total = new Tally();
+        for (ForkJoinTask<Tally> task : tasks) {
+            total.merge(task.join());
+        }
+        return total.toForecast(className, whatIf);
+    }
+
+    /**
+     * Runs trials on one thread.
+     */
+    private static Tally simulate(WhatIf whatIf, double[][] pools, int[] counts, long trials, SplittableRandom random) {
+        double[][] extra = new double[counts.length][];
+        for (int k = 0; k < counts.length; k++) {
+            extra[k] = counts[k] > 0 ? new double[counts[k]] : null;
+        }
+        Tally tally = new Tally();
+        for (long trial = 0; trial < trials; trial++) {
+            for (int k = 0; k < extra.length; k++) {
+                double[] items = extra[k];
+                if (items != null) {
+                    double[] from = pools[k];
+                    for (int i = 0; i < items.length; i++) {
+                        items[i] = from[random.nextInt(from.length)];
+                    }
+                }
+            }
+            double finalGrade = whatIf.finalGrade(extra);
+            tally.add(finalGrade, whatIf.label(finalGrade));
+        }
+        return tally;
+    }
+
+    private static double[] allGrades(GradeBook gradeBook, String className) {
+        List<double[]> categories = new ArrayList<>();
+        int size = 0;
+        for (String category : gradeBook.categoryNames(className)) {
+            double[] grades = gradeBook.grades(className, category);
+            categories.add(grades);
+            size += grades.length;
+        }
+        double[] all = new double[size];
+        int next = 0;
+        for (double[] grades : categories) {
+            System.arraycopy(grades, 0, all, next, grades.length);
+            next += grades.length;
+        }
+        return all;
+    }
+
+    /**
+     * The counts and sums of a run of trials, mergeable with those of other runs.
+     */
+    private static final class Tally {
+        /// Trials per GRADE_LABELS index, with trials under no grading scale last
+        final long[] letters = new long[GradeBook.GRADE_LABELS.length + 1];
+        final GradeHistogram histogram = new GradeHistogram();
+        long trials;
+        double sum;
+        double sumOfSquares;
+
+        void add(double finalGrade, int label) {
+            letters[label < 0 ? GradeBook.GRADE_LABELS.length : label]++;
+            histogram.add(finalGrade);
+            trials++;
+            sum += finalGrade;
+            sumOfSquares += finalGrade * finalGrade;
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < letters.length; i++) {
+                letters[i] += other.letters[i];
+            }
+            histogram.merge(other.histogram);
+            trials += other.trials;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+        }
+
+        Forecast toForecast(String className, WhatIf whatIf) {
+            LinkedHashMap<String, LetterOdds> odds = new LinkedHashMap<>();
+            if (letters[GradeBook.GRADE_LABELS.length] > 0) {
+                odds.put(CompiledScale.NO_SCALE, odds(letters[GradeBook.GRADE_LABELS.length]));
+            } else {
+                for (int label = 0; label < GradeBook.GRADE_LABELS.length; label++) {
+                    if (whatIf.scale.cutoff(label) >= 0) {
+                        odds.put(GradeBook.GRADE_LABELS[label], odds(letters[label]));
+                    }
+                }
+            }
+            double mean = sum / trials;
+            double variance = Math.max(0.0, sumOfSquares / trials - mean * mean);
+            return new Forecast(className, trials, Collections.unmodifiableMap(odds), mean, Math.sqrt(variance),
+                    histogram.quantile(0.025), histogram.quantile(0.975));
+        }
+
+        /**
+         * @return The probability of a count of trials with its Wilson score interval.
+         */
+        private LetterOdds odds(long count) {
+            double p = (double) count / trials;
+            double z2 = Z_95 * Z_95;
+            double center = (p + z2 / (2 * trials)) / (1 + z2 / trials);
+            double margin = Z_95 / (1 + z2 / trials) * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials));
+            return new LetterOdds(p, Math.max(0.0, center - margin), Math.min(1.0, center + margin));
+        }
+    }
+}
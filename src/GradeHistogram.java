@@ -0,0 +1,151 @@
+import java.util.Arrays;
+
+/**
+ * A fixed-bin histogram of grades that answers approximate quantiles in constant memory.
+ * Grades from 0 up to OVERFLOW_START fall into bins BIN_WIDTH wide; higher grades share one overflow
+ * bin that stretches up to the highest grade seen. A quantile is found by walking the cumulative
+ * counts and interpolating linearly inside the bin that holds it, so it is off by at most one bin
+ * width for grades below OVERFLOW_START.
+ * <p>
+ * Histograms with the same bins merge by adding counts, so class- and department-wide distributions
+ * come from merging category histograms without rescanning any grades.
+ */
+public class GradeHistogram {
+    /// Width of each bin, in grade points
+    public static final double BIN_WIDTH = 0.5;
+    /// Grades at or above this share the overflow bin
+    public static final double OVERFLOW_START = 128.0;
+    /// Regular bins plus the overflow bin
+    private static final int BINS = (int) (OVERFLOW_START / BIN_WIDTH) + 1;
+
+    /// Number of grades in each bin; the last bin is the overflow bin
+    private final int[] counts = new int[BINS];
+    private long count;
+    /// Highest grade ever added to the overflow bin; the upper edge of that bin. Not lowered on removal.
+    private double overflowMax = OVERFLOW_START;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public GradeHistogram() {
+    }
+
+    /**
+     * Creates a histogram of some grades.
+     * @param grades The grades.
+     * @param size The number of grades to use from the start of the array.
+     * @return The histogram.
+     */
+    public static GradeHistogram of(double[] grades, int size) {
+        GradeHistogram histogram = new GradeHistogram();
+        for (int i = 0; i < size; i++) {
+            histogram.add(grades[i]);
+        }
+        return histogram;
+    }
+
+    /**
+     * @return An independent copy of this histogram.
+     */
+    public GradeHistogram copy() {
+        GradeHistogram copy = new GradeHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Counts a grade.
+     * @param grade The grade; negative grades are counted in the first bin.
+     */
+    public void add(double grade) {
+        counts[binOf(grade)]++;
+        count++;
+        if (grade > overflowMax) {
+            overflowMax = grade;
+        }
+    }
+
+    /**
+     * Uncounts a grade that was added before.
+     * @param grade The grade.
+     */
+    public void remove(double grade) {
+        counts[binOf(grade)]--;
+        count--;
+    }
+
+    /**
+     * Adds every count of another histogram to this one.
+     * @param other The histogram to merge in; it is not changed.
+     */
+    public void merge(GradeHistogram other) {
+        for (int bin = 0; bin < BINS; bin++) {
+            counts[bin] += other.counts[bin];
+        }
+        count += other.count;
+        overflowMax = Math.max(overflowMax, other.overflowMax);
+    }
+
+    /**
+     * @return The number of grades counted.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Estimates a quantile of the counted grades.
+     * @param q The quantile, from 0 (lowest) to 1 (highest); 0.5 is the median.
+     * @return The estimated grade at the quantile, or 0 if the histogram is empty.
+     * @throws IllegalArgumentException if q is not between 0 and 1.
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+        double rank = q * count;
+        long before = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            int inBin = counts[bin];
+            if (inBin > 0 && before + inBin >= rank) {
+                double lower = bin * BIN_WIDTH;
+                double upper = bin == BINS - 1 ? overflowMax : lower + BIN_WIDTH;
+                return lower + (upper - lower) * Math.max(0, rank - before) / inBin;
+            }
+            before += inBin;
+        }
+        return overflowMax;  // Only reached through rounding in rank
+    }
+
+    /**
+     * @return The estimated median.
+     */
+    public double median() {
+        return quantile(0.5);
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100.
+     * @return The estimated grade at the percentile.
+     */
+    public double percentile(double percentile) {
+        return quantile(percentile / 100.0);
+    }
+
+    /**
+     * @return The number of grades in each bin; the last entry is the overflow bin.
+     */
+    public int[] counts() {
+        return Arrays.copyOf(counts, BINS);
+    }
+
+    private static int binOf(double grade) {
+        if (grade >= OVERFLOW_START) {
+            return BINS - 1;
+        }
+        return grade > 0 ? (int) (grade / BIN_WIDTH) : 0;
+    }
+}
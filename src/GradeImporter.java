@@ -0,0 +1,258 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports grades in bulk from a stream of {@code Class,Category,Grade} rows, such as a grades.csv
+ * export or rows piped to stdin.
+ * <p>
+ * Rows are parsed by GradeCsvParser and validated BATCH_SIZE at a time against the grade book: the
+ * class and category must already exist and the grade must be a finite number, 0 or higher. Valid grades are staged
+ * per category and only applied once the whole stream has been read, with one addGrades call per
+ * category, so each category's running totals and each class's cached grades are rebuilt once
+ * rather than once per row. Rejected rows are reported with their line number and reason and do not
+ * stop the import. A first line whose grade is not a number is taken to be a header.
+ * <p>
+ * Run with {@code java GradeImporter [--dir directory] [file]}; without a file, rows are read from
+ * stdin. The grade book in the directory is loaded, the rows are imported and the result is saved.
+ */
+public class GradeImporter {
+    static final int BATCH_SIZE = 4096;
+    /// Rejects beyond this many are counted but not kept, so a bad file cannot exhaust memory
+    static final int MAX_KEPT_REJECTS = 1000;
+    static final String UNKNOWN_CLASS = "class does not exist";
+    static final String UNKNOWN_CATEGORY = "category does not exist in the class";
+    static final String NEGATIVE_GRADE = "grade must be 0 or higher";
+    static final String NOT_FINITE_GRADE = "grade must be a finite number";
+
+    /**
+     * A row that was not imported.
+     * @param line The line number of the row, starting at 1.
+     * @param reason Why the row was rejected.
+     */
+    public record Reject(long line, String reason) {
+    }
+
+    /**
+     * The outcome of an import.
+     * @param imported The number of grades added.
+     * @param rejected The number of rows rejected.
+     * @param rejects Up to MAX_KEPT_REJECTS of the rejected rows, in line order.
+     * @param classes The classes that received grades, in the order they first appeared.
+     * @param nanos The time the import took, from the first read to the last grade applied.
+     */
+    public record Result(long imported, long rejected, List<Reject> rejects, List<String> classes, long nanos) {
+        /**
+         * @return The number of rows read per second, accepted or not.
+         */
+        public double rowsPerSecond() {
+            return nanos > 0 ? (imported + rejected) * 1e9 / nanos : 0;
+        }
+    }
+
+    private final GradeBook gradeBook;
+
+    /// The current batch of rows, validated together once BATCH_SIZE rows have arrived. Rows the parser
+    /// rejected keep their place in the batch with their reason, so rejects are recorded in line order.
+    private final String[] batchClasses = new String[BATCH_SIZE];
+    private final String[] batchCategories = new String[BATCH_SIZE];
+    private final double[] batchGrades = new double[BATCH_SIZE];
+    private final long[] batchLines = new long[BATCH_SIZE];
+    private final String[] batchReasons = new String[BATCH_SIZE];
+    private int batchSize;
+    private final GradeCsvParser parser = new GradeCsvParser();
+    /// Why stageFor last returned null
+    private String stageReject;
+
+    /// Valid grades waiting to be applied, per class and category
+    private final Map<String, Map<String, GradeList>> staged = new LinkedHashMap<>();
+    private final List<Reject> rejects = new ArrayList<>();
+    private long rejected;
+    private long accepted;
+
+    /**
+     * Creates an importer that adds grades to a grade book.
+     * @param gradeBook The grade book to import into; its classes and categories must already exist.
+     */
+    public GradeImporter(GradeBook gradeBook) {
+        this.gradeBook = gradeBook;
+    }
+
+    public static void main(String[] args) {
+        Path directory = Path.of(".");
+        Path file = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--dir")) {
+                directory = Path.of(args[++i]);
+            } else if (file == null && !args[i].startsWith("--")) {
+                file = Path.of(args[i]);
+            } else {
+                System.out.println("Unknown option " + args[i]);
+                return;
+            }
+        }
+
+        GradeBook gradeBook = new GradeBook(directory);
+        if (!gradeBook.load()) {
+            System.out.println("Some data files were not found or could not be loaded. Starting with empty data.");
+        }
+        try (InputStream in = file != null ? Files.newInputStream(file) : System.in) {
+            Result result = new GradeImporter(gradeBook).importGrades(in);
+            printResult(gradeBook, result);
+            if (result.imported() > 0) {
+                System.out.println(gradeBook.save() ? "Data saved successfully." : "Data not saved.");
+            }
+        } catch (IOException e) {
+            System.out.println("An error occurred while importing grades: " + e.getMessage());
+        } finally {
+            gradeBook.close();
+        }
+    }
+
+    /**
+     * Imports every row of a stream. An importer can only be used once.
+     * @param in The stream of rows; it is not closed.
+     * @return The number of grades imported and the rows rejected.
+     * @throws IOException if reading the stream fails. Grades read before the failure are not applied.
+     */
+    public Result importGrades(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        parser.parse(new BufferedInputStream(in), false, this::acceptRow, this::rejectRow);
+        validateBatch();
+
+        // Apply each category's grades in one call, so its aggregates are rebuilt once
+        List<String> classes = new ArrayList<>(staged.keySet());
+        for (Map.Entry<String, Map<String, GradeList>> classEntry : staged.entrySet()) {
+            for (Map.Entry<String, GradeList> categoryEntry : classEntry.getValue().entrySet()) {
+                gradeBook.addGrades(classEntry.getKey(), categoryEntry.getKey(), categoryEntry.getValue().toArray());
+            }
+        }
+        for (String className : classes) {
+            gradeBook.finalGrade(className);
+        }
+        staged.clear();
+        return new Result(accepted, rejected, List.copyOf(rejects), classes, System.nanoTime() - start);
+    }
+
+    /**
+     * Prints the summary of an import, its rejected rows and the new final grade of each class it changed.
+     * @param gradeBook The grade book the rows were imported into.
+     * @param result The result of the import.
+     */
+    public static void printResult(GradeBook gradeBook, Result result) {
+        for (Reject reject : result.rejects()) {
+            System.out.println("Line " + reject.line() + " rejected: " + reject.reason());
+        }
+        if (result.rejected() > result.rejects().size()) {
+            System.out.println("... and " + (result.rejected() - result.rejects().size()) + " more rejected rows");
+        }
+        System.out.printf("Imported %,d grades, rejected %,d rows (%,.0f rows/s)\n",
+                result.imported(), result.rejected(), result.rowsPerSecond());
+        for (String className : result.classes()) {
+            FinalGrade finalGrade = gradeBook.finalGrade(className);
+            System.out.println(String.format("%s Final Grade: %.2f   %s", className, finalGrade.value(), finalGrade.letter()));
+        }
+    }
+
+    private void acceptRow(String className, String category, double grade) {
+        addToBatch(className, category, grade, parser.line(), null);
+    }
+
+    private void rejectRow(long rejectedLine, String reason) {
+        if (rejectedLine == 1 && reason.equals(GradeCsvParser.NOT_A_NUMBER)) {
+            return;  // A header line
+        }
+        addToBatch(null, null, 0, rejectedLine, reason);
+    }
+
+    private void addToBatch(String className, String category, double grade, long line, String reason) {
+        batchClasses[batchSize] = className;
+        batchCategories[batchSize] = category;
+        batchGrades[batchSize] = grade;
+        batchLines[batchSize] = line;
+        batchReasons[batchSize] = reason;
+        if (++batchSize == BATCH_SIZE) {
+            validateBatch();
+        }
+    }
+
+    /**
+     * Checks the current batch against the grade book and stages its valid grades.
+     * The parser interns names, so consecutive rows for the same category usually share the previous lookup.
+     */
+    private void validateBatch() {
+        String lastClass = null;
+        String lastCategory = null;
+        GradeList lastStage = null;
+        for (int i = 0; i < batchSize; i++) {
+            String className = batchClasses[i];
+            String category = batchCategories[i];
+            double grade = batchGrades[i];
+            if (batchReasons[i] != null) {
+                reject(batchLines[i], batchReasons[i]);
+                continue;
+            }
+            if (!Double.isFinite(grade)) {
+                reject(batchLines[i], NOT_FINITE_GRADE);
+                continue;
+            }
+            if (grade < 0) {
+                reject(batchLines[i], NEGATIVE_GRADE);
+                continue;
+            }
+            if (className != lastClass || category != lastCategory) {
+                lastStage = stageFor(className, category);
+                lastClass = className;
+                lastCategory = category;
+            }
+            if (lastStage == null) {
+                reject(batchLines[i], stageReject);
+                continue;
+            }
+            lastStage.add(grade);
+            accepted++;
+        }
+        batchSize = 0;
+    }
+
+    /**
+     * @return The staged grades of a category, or null with stageReject set if the class or category does not exist.
+     */
+    private GradeList stageFor(String className, String category) {
+        Map<String, GradeList> categories = staged.get(className);
+        GradeList stage = categories != null ? categories.get(category) : null;
+        if (stage != null) {
+            return stage;
+        }
+        if (categories == null && !gradeBook.hasClass(className)) {
+            stageReject = UNKNOWN_CLASS + ": " + className;
+            return null;
+        }
+        if (!gradeBook.hasCategory(className, category)) {
+            stageReject = UNKNOWN_CATEGORY + ": " + className + "," + category;
+            return null;
+        }
+        // Only a class with an accepted grade is staged, so Result.classes lists only classes that changed
+        if (categories == null) {
+            categories = new HashMap<>();
+            staged.put(className, categories);
+        }
+        stage = new GradeList();
+        categories.put(category, stage);
+        return stage;
+    }
+
+    private void reject(long rejectedLine, String reason) {
+        rejected++;
+        if (rejects.size() < MAX_KEPT_REJECTS) {
+            rejects.add(new Reject(rejectedLine, reason));
+        }
+    }
+}
@@ -0,0 +1,498 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of grade book mutations.
+ * <p>
+ * Mutations are encoded into an in-memory batch as they happen and only reach disk when sync() is
+ * called, which writes the whole batch and fsyncs it once. Until then they can be discarded, so
+ * "exit without saving" still drops unsaved changes. The journal is split into numbered segment files
+ * ({@code gradebook.journal.N}); a snapshot records the first segment it does not include, so segments
+ * before it can be deleted once the snapshot is safely written.
+ * <p>
+ * Each record is {@code int length, payload, int crc32(payload)}; the payload starts with an op code.
+ * A torn or corrupt record ends replay of its segment, and the segment is truncated there.
+ * <p>
+ * sync() can also be split in two: takePending() hands over the batch and starts an empty one, and
+ * write() writes and fsyncs the handed-over batch, while new entries keep being recorded.
+ */
+public class GradeJournal implements GradeMutations {
+    private static final String SEGMENT_PREFIX = "gradebook.journal.";
+    private static final int INITIAL_BATCH_SIZE = 4096;
+
+    private static final byte ADD_CLASS = 1;
+    private static final byte ADD_CATEGORY = 2;
+    private static final byte ADD_GRADE = 3;
+    private static final byte EDIT_GRADE = 4;
+    private static final byte DELETE_GRADE = 5;
+    private static final byte SET_PERCENTAGE = 6;
+    private static final byte SET_DROPPED = 7;
+    private static final byte SET_ROUNDING = 8;
+    private static final byte SET_GRADING_SCALE = 9;
+    private static final byte DELETE_CLASS = 10;
+
+    /**
+     * Entries taken from the journal to be written to disk.
+     * @param batch The encoded records, ready to be read.
+     * @param segment The segment the records belong to.
+     */
+    public record Pending(ByteBuffer batch, long segment) {
+        /**
+         * @return The number of bytes to write.
+         */
+        public int size() {
+            return batch.remaining();
+        }
+    }
+
+    private final Path directory;
+    /// Segment that new entries belong to
+    private long segment;
+    /// The open file of channelSegment, or null
+    private FileChannel channel;
+    private long channelSegment;
+    /// Encoded records not yet written to disk
+    private ByteBuffer batch = ByteBuffer.allocate(INITIAL_BATCH_SIZE);
+    /// A written batch kept for reuse by takePending(), or null
+    private ByteBuffer spare;
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Creates a journal that appends to the given segment.
+     * @param directory The directory holding the segment files.
+     * @param segment The segment to append to.
+     */
+    public GradeJournal(Path directory, long segment) {
+        this.directory = directory;
+        this.segment = segment;
+    }
+
+    /**
+     * @return The segment that new entries are written to.
+     */
+    public long segment() {
+        return segment;
+    }
+
+    /**
+     * @return true if there are recorded entries that have not been synced.
+     */
+    public boolean hasPending() {
+        return batch.position() > 0;
+    }
+
+    /**
+     * Writes all pending entries to the current segment and forces them to disk.
+     * @return The number of bytes written.
+     * @throws IOException if the segment cannot be written.
+     */
+    public int sync() throws IOException {
+        if (!hasPending()) {
+            return 0;
+        }
+        batch.flip();
+        int written = writeBatch(batch, segment);
+        batch.clear();
+        return written;
+    }
+
+    /**
+     * Takes every pending entry for write(), leaving an empty batch for new entries.
+     * Must not run at the same time as write(), sync(), rotate() or close().
+     * @return The entries, with the segment they belong to.
+     */
+    public Pending takePending() {
+        ByteBuffer taken = batch;
+        batch = spare != null ? spare : ByteBuffer.allocate(INITIAL_BATCH_SIZE);
+        spare = null;
+        taken.flip();
+        return new Pending(taken, segment);
+    }
+
+    /**
+     * Writes entries taken by takePending() to their segment and forces them to disk. New entries can
+     * be recorded meanwhile, but no other write, sync, rotation or close may run.
+     * @param pending The entries.
+     * @return The number of bytes written.
+     * @throws IOException if the segment cannot be written; pass the entries to restore() to keep them.
+     */
+    public int write(Pending pending) throws IOException {
+        int written = writeBatch(pending.batch(), pending.segment());
+        pending.batch().clear();
+        spare = pending.batch();
+        return written;
+    }
+
+    /**
+     * Puts back entries whose write() failed, ahead of any recorded since, so the next sync writes them
+     * to the current segment. Must not run at the same time as recording entries.
+     * @param pending The entries.
+     */
+    public void restore(Pending pending) {
+        ByteBuffer records = pending.batch();
+        records.rewind();
+        ByteBuffer merged = ByteBuffer.allocate(Math.max(INITIAL_BATCH_SIZE, records.remaining() + batch.position()));
+        merged.put(records);
+        batch.flip();
+        merged.put(batch);
+        batch = merged;
+    }
+
+    /**
+     * Writes a batch to a segment, opening it if needed, and forces it to disk.
+     */
+    private int writeBatch(ByteBuffer records, long recordSegment) throws IOException {
+        int written = records.remaining();
+        if (written == 0) {
+            return 0;
+        }
+        if (channel != null && channelSegment != recordSegment) {
+            close();
+        }
+        if (channel == null) {
+            channel = FileChannel.open(segmentPath(directory, recordSegment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            channelSegment = recordSegment;
+        }
+        while (records.hasRemaining()) {
+            channel.write(records);
+        }
+        channel.force(false);
+        return written;
+    }
+
+    /**
+     * @return The number of bytes already synced to the current segment.
+     * @throws IOException if the segment size cannot be read.
+     */
+    public long segmentSize() throws IOException {
+        if (channel != null && channelSegment == segment) {
+            return channel.size();
+        }
+        Path path = segmentPath(directory, segment);
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Syncs pending entries and starts a new segment for later entries.
+     * @return The number of the new segment.
+     * @throws IOException if the pending entries cannot be written.
+     */
+    public long rotate() throws IOException {
+        sync();
+        close();
+        return ++segment;
+    }
+
+    /**
+     * Starts a new segment for later entries without writing anything. Take the pending entries first:
+     * entries still pending afterwards go to the new segment.
+     * @return The number of the new segment.
+     */
+    public long advance() {
+        return ++segment;
+    }
+
+    /**
+     * Drops every entry recorded since the last sync.
+     */
+    public void discardPending() {
+        batch.clear();
+    }
+
+    /**
+     * Closes the current segment file; pending entries are kept and written by the next sync.
+     * @throws IOException if the file cannot be closed.
+     */
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public void addClass(String className) {
+        begin(ADD_CLASS);
+        putString(className);
+        end();
+    }
+
+    @Override
+    public void addCategory(String className, String category) {
+        begin(ADD_CATEGORY);
+        putString(className);
+        putString(category);
+        end();
+    }
+
+    @Override
+    public void addGrade(String className, String category, double grade) {
+        begin(ADD_GRADE);
+        putString(className);
+        putString(category);
+        ensure(Double.BYTES);
+        batch.putDouble(grade);
+        end();
+    }
+
+    @Override
+    public void editGrade(String className, String category, int index, double grade) {
+        begin(EDIT_GRADE);
+        putString(className);
+        putString(category);
+        ensure(Integer.BYTES + Double.BYTES);
+        batch.putInt(index);
+        batch.putDouble(grade);
+        end();
+    }
+
+    @Override
+    public void deleteGrade(String className, String category, int index) {
+        begin(DELETE_GRADE);
+        putString(className);
+        putString(category);
+        ensure(Integer.BYTES);
+        batch.putInt(index);
+        end();
+    }
+
+    @Override
+    public void setPercentage(String className, String category, double percent) {
+        begin(SET_PERCENTAGE);
+        putString(className);
+        putString(category);
+        ensure(Double.BYTES);
+        batch.putDouble(percent);
+        end();
+    }
+
+    @Override
+    public void setDropped(String className, String category, double dropped) {
+        begin(SET_DROPPED);
+        putString(className);
+        putString(category);
+        ensure(Double.BYTES);
+        batch.putDouble(dropped);
+        end();
+    }
+
+    @Override
+    public void setRounding(String className, boolean round) {
+        begin(SET_ROUNDING);
+        putString(className);
+        ensure(1);
+        batch.put((byte) (round ? 1 : 0));
+        end();
+    }
+
+    @Override
+    public void setGradingScale(String className, double[] cutoffs) {
+        begin(SET_GRADING_SCALE);
+        putString(className);
+        ensure(Integer.BYTES + cutoffs.length * Double.BYTES);
+        batch.putInt(cutoffs.length);
+        for (double cutoff : cutoffs) {
+            batch.putDouble(cutoff);
+        }
+        end();
+    }
+
+    @Override
+    public void deleteClass(String className) {
+        begin(DELETE_CLASS);
+        putString(className);
+        end();
+    }
+
+    /// Position of the length field of the record being encoded
+    private int recordStart;
+
+    private void begin(byte op) {
+        ensure(Integer.BYTES + 1);
+        recordStart = batch.position();
+        batch.putInt(0);  // Length, filled in by end()
+        batch.put(op);
+    }
+
+    private void end() {
+        int payloadStart = recordStart + Integer.BYTES;
+        int length = batch.position() - payloadStart;
+        batch.putInt(recordStart, length);
+        crc.reset();
+        crc.update(batch.array(), payloadStart, length);
+        ensure(Integer.BYTES);
+        batch.putInt((int) crc.getValue());
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(Integer.BYTES + bytes.length);
+        batch.putInt(bytes.length);
+        batch.put(bytes);
+    }
+
+    private void ensure(int bytes) {
+        if (batch.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + bytes));
+            batch.flip();
+            larger.put(batch);
+            batch = larger;
+        }
+    }
+
+    /**
+     * Replays every segment numbered fromSegment or higher, in order.
+     * @param directory The directory holding the segment files.
+     * @param fromSegment The first segment to replay.
+     * @param target Receives each journaled mutation.
+     * @return The highest segment number found, or fromSegment if there are none.
+     * @throws IOException if a segment cannot be read.
+     */
+    public static long replay(Path directory, long fromSegment, GradeMutations target) throws IOException {
+        long last = fromSegment;
+        for (long number : listSegments(directory)) {
+            if (number < fromSegment) {
+                continue;
+            }
+            replaySegment(segmentPath(directory, number), target);
+            last = number;
+        }
+        return last;
+    }
+
+    private static void replaySegment(Path path, GradeMutations target) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32 check = new CRC32();
+        while (in.remaining() >= Integer.BYTES) {
+            int recordStart = in.position();
+            int length = in.getInt();
+            if (length <= 0 || in.remaining() < length + Integer.BYTES) {
+                truncate(path, recordStart);
+                return;
+            }
+            check.reset();
+            check.update(in.array(), in.position(), length);
+            int expected = in.getInt(in.position() + length);
+            if ((int) check.getValue() != expected) {
+                truncate(path, recordStart);
+                return;
+            }
+            int payloadEnd = in.position() + length;
+            apply(in, target);
+            in.position(payloadEnd + Integer.BYTES);
+        }
+        if (in.hasRemaining()) {
+            truncate(path, in.position());
+        }
+    }
+
+    private static void apply(ByteBuffer in, GradeMutations target) {
+        byte op = in.get();
+        switch (op) {
+            case ADD_CLASS:
+                target.addClass(getString(in));
+                break;
+            case ADD_CATEGORY:
+                target.addCategory(getString(in), getString(in));
+                break;
+            case ADD_GRADE:
+                target.addGrade(getString(in), getString(in), in.getDouble());
+                break;
+            case EDIT_GRADE:
+                target.editGrade(getString(in), getString(in), in.getInt(), in.getDouble());
+                break;
+            case DELETE_GRADE:
+                target.deleteGrade(getString(in), getString(in), in.getInt());
+                break;
+            case SET_PERCENTAGE:
+                target.setPercentage(getString(in), getString(in), in.getDouble());
+                break;
+            case SET_DROPPED:
+                target.setDropped(getString(in), getString(in), in.getDouble());
+                break;
+            case SET_ROUNDING:
+                target.setRounding(getString(in), in.get() != 0);
+                break;
+            case SET_GRADING_SCALE: {
+                String className = getString(in);
+                double[] cutoffs = new double[in.getInt()];
+                for (int i = 0; i < cutoffs.length; i++) {
+                    cutoffs[i] = in.getDouble();
+                }
+                target.setGradingScale(className, cutoffs);
+                break;
+            }
+            case DELETE_CLASS:
+                target.deleteClass(getString(in));
+                break;
+            default:
+                System.out.println("Skipping unknown journal entry type " + op);
+                break;
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cuts a segment back to its last complete record, so later appends follow valid data.
+     */
+    private static void truncate(Path path, long size) throws IOException {
+        System.out.println("Discarding incomplete journal entries at the end of " + path.getFileName());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    /**
+     * @param directory The directory holding the segment files.
+     * @return The numbers of all segment files, in ascending order.
+     * @throws IOException if the directory cannot be listed.
+     */
+    public static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path path : stream) {
+                try {
+                    numbers.add(Long.parseLong(path.getFileName().toString().substring(SEGMENT_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not a segment file
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * Deletes every segment numbered below the given segment.
+     * @param directory The directory holding the segment files.
+     * @param segment The first segment to keep.
+     * @throws IOException if a segment cannot be deleted.
+     */
+    public static void deleteSegmentsBefore(Path directory, long segment) throws IOException {
+        for (long number : listSegments(directory)) {
+            if (number < segment) {
+                Files.deleteIfExists(segmentPath(directory, number));
+            }
+        }
+    }
+
+    private static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(SEGMENT_PREFIX + segment);
+    }
+}
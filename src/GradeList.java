@@ -0,0 +1,478 @@
+import java.util.Arrays;
+
+/**
+ * A growable list of grades backed by a primitive double array.
+ * Used in place of ArrayList&lt;Double&gt; so each grade costs 8 bytes instead of a boxed object
+ * plus a reference, and so category math can run over the raw array without unboxing.
+ * The list keeps a running sum and the k lowest grades up to date as grades are added, edited
+ * and removed, so a drop-lowest average never has to sort (or reorder) the stored grades.
+ * Once asked for, its histogram is kept up to date the same way.
+ */
+public class GradeList {
+    private static final double[] EMPTY = new double[0];
+    private static final int DEFAULT_CAPACITY = 8;
+    /// Above this drop count the lowest grades are found by sorting a copy rather than insertion
+    private static final int INSERTION_SELECT_LIMIT = 32;
+    /// Largest statistics scratch array kept per thread between calls; bigger lists get a one-off array
+    private static final int MAX_KEPT_SCRATCH = 1 << 16;
+    private static final ThreadLocal<double[]> SCRATCH = ThreadLocal.withInitial(() -> EMPTY);
+
+    /// Backing array; only the first `size` slots hold grades
+    private double[] grades;
+    /// Number of grades currently stored
+    private int size;
+    /// Running sum of all stored grades
+    private double sum;
+    /// The lowestK lowest grades in ascending order; only the first lowestCount slots are used
+    private double[] lowest = EMPTY;
+    private int lowestCount;
+    /// How many lowest grades are being tracked, or -1 if the tracked set is stale
+    private int lowestK = -1;
+    /// Sum of the tracked lowest grades
+    private double lowestSum;
+    /// Incremented on every change so cached results derived from this list can detect staleness
+    private long version;
+    /// Distribution of the grades, built on first use of histogram() and kept up to date after that
+    private GradeHistogram histogram;
+
+    /**
+     * Creates an empty grade list.
+     */
+    public GradeList() {
+        this.grades = EMPTY;
+    }
+
+    /**
+     * Creates an empty grade list with room for the given number of grades.
+     * @param capacity The initial capacity.
+     */
+    public GradeList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        }
+        this.grades = capacity == 0 ? EMPTY : new double[capacity];
+    }
+
+    /**
+     * Creates a copy of another grade list.
+     * @param other The list to copy.
+     */
+    public GradeList(GradeList other) {
+        this.grades = other.size == 0 ? EMPTY : Arrays.copyOf(other.grades, other.size);
+        this.size = other.size;
+        this.sum = other.sum;
+    }
+
+    /**
+     * Creates a grade list that takes ownership of an existing array.
+     * @param grades The grades; the array must not be modified by the caller afterwards.
+     * @return A list holding exactly the given grades.
+     */
+    public static GradeList wrap(double[] grades) {
+        GradeList list = new GradeList();
+        list.grades = grades.length == 0 ? EMPTY : grades;
+        list.size = grades.length;
+        for (double grade : grades) {
+            list.sum += grade;
+        }
+        return list;
+    }
+
+    /**
+     * Appends a grade to the end of the list.
+     * @param grade The grade to add.
+     */
+    public void add(double grade) {
+        if (size == grades.length) {
+            grow(size + 1);
+        }
+        grades[size++] = grade;
+        sum += grade;
+        version++;
+        if (lowestK > 0) {
+            offerLowest(grade);
+        }
+        if (histogram != null) {
+            histogram.add(grade);
+        }
+    }
+
+    /**
+     * Appends every grade of another list, in order.
+     * @param other The list whose grades are appended.
+     */
+    public void addAll(GradeList other) {
+        if (other.size == 0) {
+            return;
+        }
+        if (size + other.size > grades.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.grades, 0, grades, size, other.size);
+        if (histogram != null) {
+            for (int i = 0; i < other.size; i++) {
+                histogram.add(other.grades[i]);
+            }
+        }
+        size += other.size;
+        sum += other.sum;
+        version++;
+        lowestK = -1;  // Rebuild the lowest grades on next use
+    }
+
+    /**
+     * Appends grades in order. The running sum is updated grade by grade, exactly as repeated add()
+     * calls would, but the version changes once and the lowest grades are rebuilt once on next use.
+     * @param more The grades to append.
+     */
+    public void addAll(double[] more) {
+        if (more.length <= 1) {
+            if (more.length == 1) {
+                add(more[0]);  // Cheaper to offer one grade to the lowest set than to rebuild it
+            }
+            return;
+        }
+        if (size + more.length > grades.length) {
+            grow(size + more.length);
+        }
+        for (double grade : more) {
+            grades[size++] = grade;
+            sum += grade;
+            if (histogram != null) {
+                histogram.add(grade);
+            }
+        }
+        version++;
+        lowestK = -1;  // Rebuild the lowest grades on next use
+    }
+
+    /**
+     * Returns the grade at the given position.
+     * @param index The position of the grade.
+     * @return The grade at that position.
+     */
+    public double get(int index) {
+        checkIndex(index);
+        return grades[index];
+    }
+
+    /**
+     * Replaces the grade at the given position.
+     * @param index The position of the grade.
+     * @param grade The new grade.
+     * @return The grade that was replaced.
+     */
+    public double set(int index, double grade) {
+        checkIndex(index);
+        double old = grades[index];
+        grades[index] = grade;
+        sum += grade - old;
+        version++;
+        if (histogram != null) {
+            histogram.remove(old);
+            histogram.add(grade);
+        }
+        if (lowestK > 0) {
+            if (lowestCount < lowestK || old <= lowest[lowestCount - 1]) {
+                lowestK = -1;  // The old grade may have been one of the lowest
+            } else {
+                offerLowest(grade);
+            }
+        }
+        return old;
+    }
+
+    /**
+     * Removes the grade at the given position, shifting later grades down.
+     * @param index The position of the grade.
+     * @return The grade that was removed.
+     */
+    public double remove(int index) {
+        checkIndex(index);
+        double old = grades[index];
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(grades, index + 1, grades, index, moved);
+        }
+        size--;
+        sum -= old;
+        version++;
+        if (histogram != null) {
+            histogram.remove(old);
+        }
+        if (lowestK > 0 && (lowestCount < lowestK || old <= lowest[lowestCount - 1])) {
+            lowestK = -1;  // The removed grade may have been one of the lowest
+        }
+        return old;
+    }
+
+    /**
+     * @return A counter that changes whenever a grade is added, edited or removed.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return The sum of all grades in the list.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the sum of the grades left after dropping the lowest ones, without reordering the list.
+     * Repeated calls with the same drop count cost O(1); edits only force a rescan when they
+     * touch one of the dropped grades.
+     * @param dropCount The number of lowest grades to drop.
+     * @return The sum of the remaining grades, or 0 if every grade is dropped.
+     */
+    public double sumWithoutLowest(int dropCount) {
+        if (dropCount <= 0) {
+            return sum;
+        }
+        if (dropCount >= size) {
+            return 0.0;
+        }
+        if (lowestK != dropCount) {
+            rebuildLowest(dropCount);
+        }
+        return sum - lowestSum;
+    }
+
+    /**
+     * Returns the lowest grades in ascending order, using the same cached set as sumWithoutLowest.
+     * @param count How many of the lowest grades to return.
+     * @return The count lowest grades, or every grade if there are fewer.
+     */
+    double[] lowestGrades(int count) {
+        if (count <= 0) {
+            return EMPTY;
+        }
+        if (count >= size) {
+            double[] all = toArray();
+            Arrays.sort(all);
+            return all;
+        }
+        if (lowestK != count) {
+            rebuildLowest(count);
+        }
+        return Arrays.copyOf(lowest, lowestCount);
+    }
+
+    /**
+     * Recomputes the k lowest grades with a single pass (or a sorted copy for large k).
+     */
+    private void rebuildLowest(int k) {
+        if (lowest.length < k) {
+            lowest = new double[k];
+        }
+        lowestK = k;
+        lowestCount = 0;
+        lowestSum = 0.0;
+        if (k > INSERTION_SELECT_LIMIT) {
+            double[] sorted = toArray();
+            Arrays.sort(sorted);
+            lowestCount = Math.min(k, size);
+            System.arraycopy(sorted, 0, lowest, 0, lowestCount);
+            for (int i = 0; i < lowestCount; i++) {
+                lowestSum += lowest[i];
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            offerLowest(grades[i]);
+        }
+    }
+
+    /**
+     * Inserts a grade into the tracked lowest set if it belongs there, evicting the largest if full.
+     */
+    private void offerLowest(double grade) {
+        int count = lowestCount;
+        if (count == lowestK) {
+            if (grade >= lowest[count - 1]) {
+                return;
+            }
+            lowestSum -= lowest[count - 1];
+            count--;
+        }
+        int pos = count;
+        while (pos > 0 && lowest[pos - 1] > grade) {
+            lowest[pos] = lowest[pos - 1];
+            pos--;
+        }
+        lowest[pos] = grade;
+        lowestSum += grade;
+        lowestCount = count + 1;
+    }
+
+    /**
+     * Returns the distribution of the grades. The first call scans the list once; after that the list
+     * keeps its histogram up to date as grades are added, edited and removed, so later calls cost only a copy.
+     * @return A copy of the histogram, which the caller may merge into or change.
+     */
+    public GradeHistogram histogram() {
+        if (histogram == null) {
+            histogram = GradeHistogram.of(grades, size);
+        }
+        return histogram.copy();
+    }
+
+    /**
+     * Calculates every statistic of the list in one pass plus one selection. See statistics(double[], int, int).
+     * @param dropCount The number of lowest grades left out of the category grade.
+     * @return The statistics of the grades.
+     */
+    public CategoryStats statistics(int dropCount) {
+        return statistics(grades, size, dropCount);
+    }
+
+    /**
+     * Calculates the statistics of the first `size` grades of an array without modifying it.
+     * A single pass sums the grades, finds the highest and lowest and copies them into a per-thread
+     * scratch array. Quickselect then partitions the scratch array around the median, and a second,
+     * narrower selection on the side of the median that holds the drop boundary brings the lowest
+     * dropCount grades to the front, so neither the median nor the dropped grades need a sort.
+     * @param grades The grades.
+     * @param size The number of grades to use from the start of the array.
+     * @param dropCount The number of lowest grades left out of the category grade.
+     * @return The statistics; every value is 0 if there are no grades.
+     */
+    static CategoryStats statistics(double[] grades, int size, int dropCount) {
+        if (size == 0) {
+            return new CategoryStats(0, 0.0, 0.0, 0.0, 0.0, 0.0);
+        }
+        double[] work = SCRATCH.get();
+        if (work.length < size) {
+            work = new double[size];
+            if (size <= MAX_KEPT_SCRATCH) {
+                SCRATCH.set(work);
+            }
+        }
+        double sum = 0.0;
+        double highest = grades[0];
+        double lowest = grades[0];
+        for (int i = 0; i < size; i++) {
+            double grade = grades[i];
+            sum += grade;
+            if (grade > highest) {
+                highest = grade;
+            }
+            if (grade < lowest) {
+                lowest = grade;
+            }
+            work[i] = grade;
+        }
+
+        // After selecting the middle, everything before it is no larger, so the lower middle is their maximum
+        int middle = size / 2;
+        select(work, 0, size - 1, middle);
+        double median = work[middle];
+        if (size % 2 == 0) {
+            double lowerMiddle = work[0];
+            for (int i = 1; i < middle; i++) {
+                lowerMiddle = Math.max(lowerMiddle, work[i]);
+            }
+            median = (lowerMiddle + median) / 2.0;
+        }
+
+        double grade;
+        if (dropCount <= 0) {
+            grade = sum / size;
+        } else if (dropCount >= size) {
+            grade = 0.0 / (size - dropCount);  // Same as calculateCatGrade when every grade is dropped
+        } else {
+            // Selecting position dropCount - 1 leaves the dropCount lowest grades in work[0, dropCount)
+            if (dropCount < middle) {
+                select(work, 0, middle - 1, dropCount - 1);
+            } else if (dropCount > middle + 1) {
+                select(work, middle + 1, size - 1, dropCount - 1);
+            }
+            double droppedSum = 0.0;
+            for (int i = 0; i < dropCount; i++) {
+                droppedSum += work[i];
+            }
+            grade = (sum - droppedSum) / (size - dropCount);
+        }
+        return new CategoryStats(size, grade, sum / size, median, highest, lowest);
+    }
+
+    /**
+     * Partially orders a[left..right] so that a[k] holds the value it would have if the range were sorted,
+     * with no larger value before it and no smaller value after it (Hoare's quickselect, median-of-three pivot).
+     */
+    private static void select(double[] a, int left, int right, int k) {
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            double pivot = medianOfThree(a[left], a[mid], a[right]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (a[i] < pivot) {
+                    i++;
+                }
+                while (a[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    double swap = a[i];
+                    a[i] = a[j];
+                    a[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            // a[left..j] <= pivot, a[j+1..i-1] == pivot, a[i..right] >= pivot
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * @return The number of grades in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the list holds no grades.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return A copy of the grades, trimmed to the list size.
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(grades, size);
+    }
+
+    /**
+     * Grows the backing array by half its size (or to minCapacity if larger).
+     */
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, grades.length + (grades.length >> 1));
+        if (newCapacity < DEFAULT_CAPACITY) {
+            newCapacity = DEFAULT_CAPACITY;
+        }
+        grades = Arrays.copyOf(grades, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
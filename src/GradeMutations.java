@@ -0,0 +1,30 @@
+/**
+ * The changes that can be made to a grade book, as recorded in and replayed from the GradeJournal.
+ */
+public interface GradeMutations {
+    void addClass(String className);
+
+    void addCategory(String className, String category);
+
+    void addGrade(String className, String category, double grade);
+
+    void editGrade(String className, String category, int index, double grade);
+
+    void deleteGrade(String className, String category, int index);
+
+    /**
+     * @param percent The category weight, or NaN for a placeholder with no weight yet.
+     */
+    void setPercentage(String className, String category, double percent);
+
+    void setDropped(String className, String category, double dropped);
+
+    void setRounding(String className, boolean round);
+
+    /**
+     * @param cutoffs The cutoff of each letter grade, NaN where the grade is not used.
+     */
+    void setGradingScale(String className, double[] cutoffs);
+
+    void deleteClass(String className);
+}
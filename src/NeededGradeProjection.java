@@ -0,0 +1,263 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Projects the needed grades of every class and every letter grade on its scale, without prompting,
+ * from a file of {@code Class,Category,Remaining} rows giving the items still to be graded.
+ * <p>
+ * Rows are parsed by GradeCsvParser; a row whose class or category does not exist, or whose count is not
+ * a whole number of 0 or more, is rejected with its line number like GradeImporter does, and a later row
+ * for the same category replaces an earlier one. Classes the file leaves out have no remaining items.
+ * <p>
+ * Classes are independent, so they are solved in batches of BATCH_CLASSES on a fork-join pool. At most a
+ * few batches per thread are in flight at once, and the finished ones are written in class order as soon
+ * as every batch before them is written, so the output streams out at a steady pace and memory stays
+ * bounded however large the roster. The output has one row per category average of each letter grade
+ * that can still be reached, and one row with empty Category and Average for any other letter grade:
+ * {@code Class,Letter,Target,Outcome,Uniform,Category,Average}. Averages are rounded to hundredths.
+ * <p>
+ * Run with {@code java NeededGradeProjection [--dir directory] [--out file] [remaining file]}; without a
+ * remaining file, rows are read from stdin, and the output goes to projections.csv in the directory.
+ * The grade book must not be modified while a projection runs.
+ */
+public class NeededGradeProjection {
+    /// Classes solved by one task; large enough to outweigh scheduling, small enough to stream
+    static final int BATCH_CLASSES = 256;
+    /// Each worker thread has about this many batches in flight
+    private static final int BATCHES_PER_THREAD = 4;
+    static final String NOT_A_COUNT = "remaining items must be a whole number of 0 or more";
+    static final String TOO_FEW_FIELDS = "expected Class,Category,Remaining";
+    private static final String OUTPUT = "projections.csv";
+    private static final byte[] HEADER = CsvWriter.encode("Class,Letter,Target,Outcome,Uniform,Category,Average\n");
+
+    /**
+     * The outcome of a projection.
+     * @param classes The number of classes projected.
+     * @param rows The number of rows written, not counting the header.
+     * @param rejected The number of remaining-item rows rejected.
+     * @param rejects Up to GradeImporter.MAX_KEPT_REJECTS of the rejected rows, in line order.
+     * @param nanos The time the projection took, from the first read to the last row written.
+     */
+    public record Result(int classes, long rows, long rejected, List<GradeImporter.Reject> rejects, long nanos) {
+    }
+
+    private final GradeBook gradeBook;
+    private final ForkJoinPool pool;
+    private final List<GradeImporter.Reject> rejects = new ArrayList<>();
+    private long rejected;
+
+    /**
+     * Creates a projection that runs on the common fork-join pool.
+     * @param gradeBook The grade book to project.
+     */
+    public NeededGradeProjection(GradeBook gradeBook) {
+        this(gradeBook, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a projection that runs on the given pool.
+     * @param gradeBook The grade book to project.
+     * @param pool The pool that solves classes.
+     */
+    public NeededGradeProjection(GradeBook gradeBook, ForkJoinPool pool) {
+        this.gradeBook = gradeBook;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) {
+        Path directory = Path.of(".");
+        Path file = null;
+        Path output = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--dir")) {
+                directory = Path.of(args[++i]);
+            } else if (args[i].equals("--out")) {
+                output = Path.of(args[++i]);
+            } else if (file == null && !args[i].startsWith("--")) {
+                file = Path.of(args[i]);
+            } else {
+                System.out.println("Unknown option " + args[i]);
+                return;
+            }
+        }
+        if (output == null) {
+            output = directory.resolve(OUTPUT);
+        }
+
+        GradeBook gradeBook = new GradeBook(directory);
+        if (!gradeBook.load()) {
+            System.out.println("Some data files were not found or could not be loaded. Starting with empty data.");
+        }
+        try (InputStream in = file != null ? Files.newInputStream(file) : System.in) {
+            Result result = new NeededGradeProjection(gradeBook).run(in, output);
+            for (GradeImporter.Reject reject : result.rejects()) {
+                System.out.println("Line " + reject.line() + " rejected: " + reject.reason());
+            }
+            if (result.rejected() > result.rejects().size()) {
+                System.out.println("... and " + (result.rejected() - result.rejects().size()) + " more rejected rows");
+            }
+            System.out.printf("Projected %,d classes into %,d rows of %s in %.3f s\n",
+                    result.classes(), result.rows(), output, result.nanos() / 1e9);
+        } catch (IOException e) {
+            System.out.println("An error occurred while projecting needed grades: " + e.getMessage());
+        } finally {
+            gradeBook.close();
+        }
+    }
+
+    /**
+     * Reads the remaining items and projects every class. A projection can only be run once.
+     * @param remainingItems The stream of Class,Category,Remaining rows; it is not closed.
+     * @param output The CSV file to create or replace.
+     * @return The number of classes and rows and the remaining-item rows rejected.
+     * @throws IOException if reading the stream or writing the file fails.
+     */
+    public Result run(InputStream remainingItems, Path output) throws IOException {
+        long start = System.nanoTime();
+        Map<String, Map<String, Integer>> remaining = readRemaining(remainingItems);
+        List<String> classNames = new ArrayList<>(gradeBook.classNames());
+        long rows;
+        try (CsvWriter out = new CsvWriter(output)) {
+            rows = project(classNames, remaining, out);
+        }
+        return new Result(classNames.size(), rows, rejected, List.copyOf(rejects), System.nanoTime() - start);
+    }
+
+    /**
+     * Reads remaining-item rows, rejecting those for unknown classes or categories or with a bad count.
+     * @param in The stream of Class,Category,Remaining rows, optionally starting with a header; it is not closed.
+     * @return The remaining items of each category, by class.
+     * @throws IOException if reading the stream fails.
+     */
+    public Map<String, Map<String, Integer>> readRemaining(InputStream in) throws IOException {
+        Map<String, Map<String, Integer>> remaining = new HashMap<>();
+        GradeCsvParser parser = new GradeCsvParser();
+        parser.parse(new BufferedInputStream(in), false, (className, category, count) -> {
+            if (!gradeBook.hasClass(className)) {
+                reject(parser.line(), GradeImporter.UNKNOWN_CLASS + ": " + className);
+            } else if (!gradeBook.hasCategory(className, category)) {
+                reject(parser.line(), GradeImporter.UNKNOWN_CATEGORY + ": " + className + "," + category);
+            } else if (!(count >= 0) || count != Math.rint(count) || count > Integer.MAX_VALUE) {
+                reject(parser.line(), NOT_A_COUNT);
+            } else {
+                remaining.computeIfAbsent(className, k -> new HashMap<>()).put(category, (int) count);
+            }
+        }, (line, reason) -> {
+            if (line == 1 && reason.equals(GradeCsvParser.NOT_A_NUMBER)) {
+                return;  // A header line
+            }
+            reject(line, reason.equals(GradeCsvParser.NOT_A_NUMBER) ? NOT_A_COUNT : TOO_FEW_FIELDS);
+        });
+        return remaining;
+    }
+
+    /**
+     * Solves the given classes on the pool and writes their rows in class order, header first.
+     * @param classNames The classes to project.
+     * @param remaining The remaining items of each category, by class; classes left out have none.
+     * @param out The writer for the rows; it is flushed after each batch and not closed.
+     * @return The number of rows written, not counting the header.
+     * @throws IOException if writing fails.
+     * @throws IllegalArgumentException if one of the classes does not exist.
+     */
+    public long project(List<String> classNames, Map<String, Map<String, Integer>> remaining, CsvWriter out)
+            throws IOException {
+        // Compile every class table up front; the workers then only touch their own classes' state
+        gradeBook.compileAllClasses();
+        out.write(HEADER);
+        int batches = (classNames.size() + BATCH_CLASSES - 1) / BATCH_CLASSES;
+        int window = Math.max(1, pool.getParallelism() * BATCHES_PER_THREAD);
+        ArrayDeque<ForkJoinTask<List<List<NeededGrades>>>> inFlight = new ArrayDeque<>();
+        int submitted = 0;
+        long rows = 0;
+        for (int written = 0; written < batches; written++) {
+            while (submitted < batches && inFlight.size() < window) {
+                int startClass = submitted * BATCH_CLASSES;
+                int endClass = Math.min(classNames.size(), startClass + BATCH_CLASSES);
+                inFlight.add(pool.submit(() -> solveRange(classNames, remaining, startClass, endClass)));
+                submitted++;
+            }
+            List<List<NeededGrades>> solved = inFlight.poll().join();
+            int offset = written * BATCH_CLASSES;
+            for (int i = 0; i < solved.size(); i++) {
+                rows += writeClass(out, classNames.get(offset + i), solved.get(i));
+            }
+            out.flush();
+        }
+        return rows;
+    }
+
+    private List<List<NeededGrades>> solveRange(List<String> classNames, Map<String, Map<String, Integer>> remaining,
+                                                int start, int end) {
+        List<List<NeededGrades>> solved = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            String className = classNames.get(i);
+            solved.add(gradeBook.neededGrades(className, remaining.getOrDefault(className, Map.of())));
+        }
+        return solved;
+    }
+
+    /**
+     * Writes the rows of one class.
+     * @return The number of rows written.
+     */
+    private static long writeClass(CsvWriter out, String className, List<NeededGrades> solved) throws IOException {
+        byte[] prefix = CsvWriter.encode(className + ",");
+        long rows = 0;
+        for (NeededGrades needed : solved) {
+            if (needed.averages().isEmpty()) {
+                writeLetter(out, prefix, needed);
+                out.write(",,\n");
+                rows++;
+                continue;
+            }
+            for (Map.Entry<String, Double> entry : needed.averages().entrySet()) {
+                writeLetter(out, prefix, needed);
+                out.write(',');
+                out.write(entry.getKey());
+                out.write(',');
+                out.writeDouble(hundredths(entry.getValue()));
+                out.write('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the Class,Letter,Target,Outcome,Uniform fields of a row.
+     */
+    private static void writeLetter(CsvWriter out, byte[] prefix, NeededGrades needed) throws IOException {
+        out.write(prefix);
+        out.write(needed.letter());
+        out.write(',');
+        out.writeDouble(needed.target());
+        out.write(',');
+        out.write(needed.outcome().name());
+        out.write(',');
+        if (!Double.isNaN(needed.uniform())) {
+            out.writeDouble(hundredths(needed.uniform()));
+        }
+    }
+
+    private static double hundredths(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private void reject(long line, String reason) {
+        rejected++;
+        if (rejects.size() < GradeImporter.MAX_KEPT_REJECTS) {
+            rejects.add(new GradeImporter.Reject(line, reason));
+        }
+    }
+}
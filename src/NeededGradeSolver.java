@@ -0,0 +1,288 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solves for the grades needed on a class's remaining items to reach each letter grade on its scale.
+ * <p>
+ * The solver works from the aggregates a WhatIf engine captures: each category's size, sum, current
+ * grade and lowest grades. When a category's remaining items all score x, the grades it drops are the
+ * cheapest mix of its lowest old grades and copies of x, so its grade is a continuous, non-decreasing,
+ * piecewise linear function of x whose corners sit at its lowest old grades. The final grade is a
+ * weighted sum of such functions. Each letter grade is then found by walking the corners once, without
+ * touching the grades themselves, and every letter on the scale shares that walk.
+ * <p>
+ * Two answers are given for each letter grade. The uniform average is the single score that reaches it
+ * when every remaining item of every category gets it. The per-category averages spread the needed
+ * points in proportion to the categories' weights, as the grade book always has, but solve each
+ * category exactly, dropped grades included. When the class rounds, a final grade within ROUND_SIZE
+ * below a cutoff already counts as reaching it.
+ * <p>
+ * The solver reflects the grade book at the time it was created and is not thread-safe.
+ */
+public class NeededGradeSolver {
+    private final WhatIf whatIf;
+    /// The sum of the lowest i grades of each category, for i from 0 to lowest[k].length
+    private final double[][] prefixSums;
+
+    NeededGradeSolver(WhatIf whatIf) {
+        this.whatIf = whatIf;
+        this.prefixSums = new double[whatIf.categoryCount()][];
+        for (int k = 0; k < prefixSums.length; k++) {
+            double[] lowest = whatIf.lowest[k];
+            double[] prefix = new double[lowest.length + 1];
+            for (int i = 0; i < lowest.length; i++) {
+                prefix[i + 1] = prefix[i] + lowest[i];
+            }
+            prefixSums[k] = prefix;
+        }
+    }
+
+    /**
+     * @return The name of the class.
+     */
+    public String className() {
+        return whatIf.className();
+    }
+
+    /**
+     * Solves for one letter grade.
+     * @param letterGrade The desired letter grade.
+     * @param remainingItems The number of items still to be graded in each category; missing categories
+     *                       have none and unknown ones are ignored.
+     * @return The needed averages, or the reason the letter grade is already reached or out of reach.
+     * @throws IllegalArgumentException if the letter grade is not on the class's grading scale.
+     */
+    public NeededGrades solve(String letterGrade, Map<String, Integer> remainingItems) {
+        int label = Arrays.asList(GradeBook.GRADE_LABELS).indexOf(letterGrade);
+        double cutoff = label < 0 ? -1 : whatIf.scale.cutoff(label);
+        if (cutoff < 0) {
+            throw new IllegalArgumentException("Letter grade is not on the grading scale of " + className() + ": " + letterGrade);
+        }
+        return solve(new Remaining(remainingItems), letterGrade, cutoff);
+    }
+
+    /**
+     * Solves for every letter grade on the class's grading scale at once.
+     * @param remainingItems The number of items still to be graded in each category; missing categories
+     *                       have none and unknown ones are ignored.
+     * @return The needed grades of each letter grade on the scale, from the highest letter grade down.
+     */
+    public List<NeededGrades> solveAll(Map<String, Integer> remainingItems) {
+        Remaining remaining = new Remaining(remainingItems);
+        List<NeededGrades> results = new ArrayList<>();
+        for (int label = 0; label < GradeBook.GRADE_LABELS.length; label++) {
+            double cutoff = whatIf.scale.cutoff(label);
+            if (cutoff >= 0) {
+                results.add(solve(remaining, GradeBook.GRADE_LABELS[label], cutoff));
+            }
+        }
+        return results;
+    }
+
+    private NeededGrades solve(Remaining remaining, String letterGrade, double cutoff) {
+        if (whatIf.categoryCount() == 0) {
+            return new NeededGrades(letterGrade, cutoff, NeededGrades.Outcome.NO_CATEGORIES, Double.NaN, Map.of());
+        }
+        double target = rawTarget(cutoff);
+        double required = target - remaining.current;
+
+        if (remaining.weight == 0 && required > 0) {
+            return new NeededGrades(letterGrade, cutoff, NeededGrades.Outcome.NO_REMAINING_ITEMS, Double.NaN, Map.of());
+        }
+        if (required <= 0) {
+            return new NeededGrades(letterGrade, cutoff, NeededGrades.Outcome.ALREADY_MET, Double.NaN, Map.of());
+        }
+        // Every final grade within reach is at most the one with perfect scores everywhere
+        if (remaining.finalGrade(100) < target) {
+            return new NeededGrades(letterGrade, cutoff, NeededGrades.Outcome.NOT_POSSIBLE, Double.NaN, Map.of());
+        }
+
+        // Raising every category with remaining items by the same amount spreads the needed points
+        // in proportion to their weights
+        double raise = required / remaining.weight;
+        LinkedHashMap<String, Double> averages = new LinkedHashMap<>();
+        for (int k = 0; k < whatIf.categoryCount(); k++) {
+            if (remaining.active[k]) {
+                averages.put(whatIf.categoryName(k), neededAverage(k, remaining.counts[k], whatIf.grades[k] + raise));
+            }
+        }
+        return new NeededGrades(letterGrade, cutoff, NeededGrades.Outcome.POSSIBLE, remaining.uniform(target),
+                Collections.unmodifiableMap(averages));
+    }
+
+    /**
+     * @return The lowest final grade, before rounding, that reaches a cutoff.
+     */
+    private double rawTarget(double cutoff) {
+        return whatIf.round ? whatIf.scale.lowestRoundingTo(cutoff) : cutoff;
+    }
+
+    /**
+     * Calculates a category's grade when its remaining items all score the same.
+     * The dropped grades are the cheapest mix of its i lowest old grades and dropCount - i copies of the
+     * score, so i counts the lowest old grades below the score, within what the remaining items allow.
+     * @param k The index of the category.
+     * @param count The number of remaining items; the category must keep at least one grade.
+     * @param score The score on each remaining item.
+     */
+    private double categoryGrade(int k, int count, double score) {
+        double[] lowest = whatIf.lowest[k];
+        int dropping = Math.max(0, whatIf.dropCounts[k]);
+        int below = 0;
+        while (below < lowest.length && lowest[below] < score) {
+            below++;
+        }
+        int oldDropped = Math.max(dropping - count, below);
+        double sum = whatIf.sums[k] - prefixSums[k][oldDropped] + (count - dropping + oldDropped) * score;
+        return sum / (whatIf.sizes[k] + count - dropping);
+    }
+
+    /**
+     * Finds the lowest score that, on each remaining item of a category, brings it to a grade, or 0 if
+     * any score does. Walks the linear pieces of categoryGrade from the lowest scores up; the last piece
+     * always rises, so a score is always found.
+     */
+    private double neededAverage(int k, int count, double grade) {
+        double[] lowest = whatIf.lowest[k];
+        double[] prefix = prefixSums[k];
+        int dropping = Math.max(0, whatIf.dropCounts[k]);
+        int kept = whatIf.sizes[k] + count - dropping;
+        for (int oldDropped = Math.max(0, dropping - count); oldDropped <= lowest.length; oldDropped++) {
+            double upper = oldDropped < lowest.length ? lowest[oldDropped] : Double.POSITIVE_INFINITY;
+            int counted = count - dropping + oldDropped;  // Remaining items that are not dropped
+            double base = whatIf.sums[k] - prefix[oldDropped];
+            if (counted == 0) {
+                // Only the first piece can be flat: every remaining item is dropped, whatever it scores,
+                // so if the grade is reached here any score up to the piece's end reaches it
+                if (base / kept >= grade) {
+                    return Math.min(0.0, upper);
+                }
+                continue;
+            }
+            double score = (grade * kept - base) / counted;
+            if (score <= upper) {
+                return score;
+            }
+        }
+        return Double.NaN;  // Only reached with a NaN grade
+    }
+
+    /**
+     * The remaining items of one request, with everything the letter grades share: which categories
+     * can still change, the current final grade, and the final grade at each corner of the uniform score.
+     */
+    private final class Remaining {
+        final int[] counts;
+        /// Whether a category has remaining items that count: it has weight and keeps at least one grade
+        final boolean[] active;
+        /// The weight of the active categories
+        final double weight;
+        /// The current final grade, before rounding
+        final double current;
+        /// The part of the final grade from categories that cannot change
+        final double fixed;
+        /// The scores where a category's grade changes slope, ascending, and the final grade at each
+        final double[] corners;
+        final double[] cornerGrades;
+
+        Remaining(Map<String, Integer> remainingItems) {
+            int categoryCount = whatIf.categoryCount();
+            counts = new int[categoryCount];
+            active = new boolean[categoryCount];
+            double activeWeight = 0.0;
+            double currentGrade = 0.0;
+            double fixedGrade = 0.0;
+            int cornerCount = 0;
+            for (int k = 0; k < categoryCount; k++) {
+                counts[k] = remainingItems.getOrDefault(whatIf.categoryName(k), 0);
+                double weight = whatIf.weights[k];
+                currentGrade += whatIf.grades[k] * weight;
+                active[k] = counts[k] > 0 && weight != 0
+                        && whatIf.sizes[k] + counts[k] - Math.max(0, whatIf.dropCounts[k]) > 0;
+                if (active[k]) {
+                    activeWeight += weight;
+                    cornerCount += whatIf.lowest[k].length;
+                } else {
+                    fixedGrade += whatIf.grades[k] * weight;
+                }
+            }
+            weight = activeWeight;
+            current = currentGrade;
+            fixed = fixedGrade;
+
+            corners = new double[cornerCount];
+            int next = 0;
+            for (int k = 0; k < categoryCount; k++) {
+                if (active[k]) {
+                    double[] lowest = whatIf.lowest[k];
+                    System.arraycopy(lowest, 0, corners, next, lowest.length);
+                    next += lowest.length;
+                }
+            }
+            Arrays.sort(corners);
+            cornerGrades = new double[cornerCount];
+            for (int i = 0; i < cornerCount; i++) {
+                cornerGrades[i] = finalGrade(corners[i]);
+            }
+        }
+
+        /**
+         * @return The final grade, before rounding, when every remaining item scores the same.
+         */
+        double finalGrade(double score) {
+            double finalGrade = fixed;
+            for (int k = 0; k < counts.length; k++) {
+                if (active[k]) {
+                    finalGrade += categoryGrade(k, counts[k], score) * whatIf.weights[k];
+                }
+            }
+            return finalGrade;
+        }
+
+        /**
+         * Finds the lowest score that, on every remaining item, brings the final grade to a target.
+         * The final grade is linear between corners, so the answer is interpolated inside the first
+         * corner that reaches the target, or extended along the slope past either end.
+         */
+        double uniform(double target) {
+            int corner = 0;
+            while (corner < corners.length && cornerGrades[corner] < target) {
+                corner++;
+            }
+            if (corner == corners.length) {
+                double from = corner > 0 ? corners[corner - 1] : 0.0;
+                double at = corner > 0 ? cornerGrades[corner - 1] : finalGrade(0.0);
+                return from + (target - at) / slope(true);
+            }
+            if (corner == 0) {
+                double slope = slope(false);
+                return slope > 0 ? corners[0] - (cornerGrades[0] - target) / slope : Math.min(0.0, corners[0]);
+            }
+            double low = corners[corner - 1];
+            double high = corners[corner];
+            double lowGrade = cornerGrades[corner - 1];
+            return low + (high - low) * (target - lowGrade) / (cornerGrades[corner] - lowGrade);
+        }
+
+        /**
+         * @param aboveCorners Whether to take the slope above every corner rather than below them.
+         * @return How fast the final grade rises with the uniform score there.
+         */
+        private double slope(boolean aboveCorners) {
+            double slope = 0.0;
+            for (int k = 0; k < counts.length; k++) {
+                if (active[k]) {
+                    int dropping = Math.max(0, whatIf.dropCounts[k]);
+                    int oldDropped = aboveCorners ? whatIf.lowest[k].length : Math.max(0, dropping - counts[k]);
+                    int counted = counts[k] - dropping + oldDropped;
+                    slope += whatIf.weights[k] * counted / (whatIf.sizes[k] + counts[k] - dropping);
+                }
+            }
+            return slope;
+        }
+    }
+}
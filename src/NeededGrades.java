@@ -0,0 +1,29 @@
+import java.util.Map;
+
+/**
+ * The average needed on the remaining items of each category to reach a letter grade. Both the averages
+ * and the uniform average account for dropped grades: a remaining item can itself be dropped, and a
+ * dropped old grade can come back when enough remaining items score below it.
+ * @param letter The desired letter grade.
+ * @param target The cutoff of the desired letter grade.
+ * @param outcome Whether the letter grade can still be reached.
+ * @param uniform The single average that, scored on every remaining item of every category, reaches the
+ *                letter grade; only filled in when the outcome is POSSIBLE, and NaN otherwise.
+ * @param averages The needed average on the remaining items of each category that has any, in category
+ *                 order; only filled in when the outcome is POSSIBLE. An average above 100 cannot be
+ *                 reached in that category, and one below 0 is already secured.
+ */
+public record NeededGrades(String letter, double target, Outcome outcome, double uniform, Map<String, Double> averages) {
+    public enum Outcome {
+        /// The class has no weighted categories to calculate with
+        NO_CATEGORIES,
+        /// The current grades already reach the target
+        ALREADY_MET,
+        /// There are no remaining items left to raise the grade with
+        NO_REMAINING_ITEMS,
+        /// Even perfect scores on every remaining item would not reach the target
+        NOT_POSSIBLE,
+        /// The target can be reached with the averages given
+        POSSIBLE
+    }
+}
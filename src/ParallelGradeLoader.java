@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Loads a grades.csv file by memory-mapping it, splitting it into newline-aligned chunks and parsing
+ * the chunks in parallel on a fork-join pool. Chunk results are merged in file order, so the grades of
+ * each category keep the order they have in the file.
+ */
+public class ParallelGradeLoader {
+    /// Files are split into chunks of roughly this many bytes
+    static final int CHUNK_SIZE = 32 << 20;
+    /// How far to look past a chunk boundary for the end of the current line at a time
+    private static final int BOUNDARY_WINDOW = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a loader that runs on the given pool.
+     * @param pool The pool that parses chunks.
+     */
+    public ParallelGradeLoader(ForkJoinPool pool) {
+        this(pool, CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a loader that runs on the given pool with a custom chunk size.
+     * @param pool The pool that parses chunks.
+     * @param chunkSize The approximate number of bytes per chunk.
+     */
+    public ParallelGradeLoader(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Loads every valid row of a grades file.
+     * @param file The grades file; its first line is a header.
+     * @return The grades of each class and category, in file order.
+     * @throws IOException if the file cannot be opened, mapped or read.
+     */
+    public Map<String, Map<String, GradeList>> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            List<ForkJoinTask<Map<String, Map<String, GradeList>>>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                boolean first = i == 0;
+                tasks.add(pool.submit(() -> parseChunk(channel, start, end, first)));
+            }
+
+            // Merge chunk results in file order
+            Map<String, Map<String, GradeList>> merged = new LinkedHashMap<>();
+            for (ForkJoinTask<Map<String, Map<String, GradeList>>> task : tasks) {
+                for (Map.Entry<String, Map<String, GradeList>> classEntry : task.join().entrySet()) {
+                    Map<String, GradeList> categories = merged.computeIfAbsent(classEntry.getKey(), k -> new LinkedHashMap<>());
+                    for (Map.Entry<String, GradeList> categoryEntry : classEntry.getValue().entrySet()) {
+                        GradeList existing = categories.putIfAbsent(categoryEntry.getKey(), categoryEntry.getValue());
+                        if (existing != null) {
+                            existing.addAll(categoryEntry.getValue());
+                        }
+                    }
+                }
+            }
+            return merged;
+        } catch (RuntimeException e) {
+            // Unwrap I/O failures raised inside chunk tasks
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Splits the file into chunks of about chunkSize bytes, moving each boundary forward to just past
+     * the next newline so no line is split between chunks.
+     * @return The chunk boundaries, starting with 0 and ending with the file size.
+     */
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long next = chunkSize;
+        while (next < size) {
+            long boundary = nextLineStart(channel, next, size);
+            if (boundary >= size) {
+                break;
+            }
+            bounds.add(boundary);
+            next = boundary + chunkSize;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return The offset just past the first newline at or after position, or size if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        while (position < size) {
+            int window = (int) Math.min(BOUNDARY_WINDOW, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            for (int i = 0; i < window; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += window;
+        }
+        return size;
+    }
+
+    /**
+     * Maps and parses one chunk into its own class/category map.
+     */
+    private static Map<String, Map<String, GradeList>> parseChunk(FileChannel channel, long start, long end, boolean skipHeader) {
+        Map<String, Map<String, GradeList>> result = new HashMap<>();
+        if (end <= start) {
+            return result;
+        }
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        new GradeCsvParser().parse(buffer, 0, (int) (end - start), skipHeader, new GradeCsvParser.GradeSink() {
+            private String lastClass;
+            private String lastCategory;
+            private GradeList lastGrades;
+
+            @Override
+            public void accept(String className, String category, double grade) {
+                // Names are interned by the parser, so identity comparison is enough
+                if (className != lastClass || category != lastCategory) {
+                    lastGrades = result.computeIfAbsent(className, k -> new LinkedHashMap<>())
+                            .computeIfAbsent(category, k -> new GradeList());
+                    lastClass = className;
+                    lastCategory = category;
+                }
+                lastGrades.add(grade);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Interns names (class or category names) to dense integer ids.
+ * Ids are assigned in first-seen order starting at 0 and are never reused,
+ * so they can index plain arrays in place of string-keyed maps.
+ */
+public class SymbolTable {
+    /// Maps each interned name to its id
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    /// Holds the canonical name for each id
+    private final ArrayList<String> names = new ArrayList<>();
+
+    /**
+     * Returns the id for a name, assigning the next free id if the name is new.
+     * @param name The name to intern.
+     * @return The id of the name.
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Looks up the id for a name without interning it.
+     * @param name The name to look up.
+     * @return The id of the name, or -1 if it has not been interned.
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id The id to look up.
+     * @return The name interned under the given id.
+     */
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * @return The number of interned names, which is also the next id to be assigned.
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Removes all interned names.
+     */
+    public void clear() {
+        ids.clear();
+        names.clear();
+    }
+}
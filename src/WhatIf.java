@@ -0,0 +1,190 @@
+/**
+ * Evaluates hypothetical grades for one class without copying or rescanning its grades.
+ * <p>
+ * When created, the engine captures each category's aggregates from the grade book: the number
+ * and sum of its grades, the lowest grades it drops (in ascending order), its current grade,
+ * weight and drop count, and the class's compiled grading scale. A scenario is a small overlay of
+ * extra grades per category. A category with no extra grades keeps its current grade. A category
+ * with extra grades combines its sum with theirs and finds the grades to drop by merging the extras
+ * into its sorted lowest grades. A scenario therefore costs O(categories + extra grades) whatever
+ * the size of the class, and batches of thousands of scenarios are cheap.
+ * <p>
+ * The engine reflects the grade book at the time it was created and is not thread-safe; create a new
+ * one after the class changes. NeededGradeSolver reads the same aggregates to solve for grades instead
+ * of evaluating them.
+ */
+public class WhatIf {
+    private final String className;
+    final String[] categories;
+    final double[] weights;
+    final int[] dropCounts;
+    final int[] sizes;
+    final double[] sums;
+    /// The lowest dropCounts[k] grades of each category, ascending (all of them if there are fewer)
+    final double[][] lowest;
+    /// The current grade of each category
+    final double[] grades;
+    final boolean round;
+    final CompiledScale scale;
+    /// Scratch space for merging extra grades into a category's lowest grades
+    private double[] merged = new double[0];
+
+    WhatIf(String className, String[] categories, double[] weights, int[] dropCounts, int[] sizes, double[] sums,
+           double[][] lowest, double[] grades, boolean round, CompiledScale scale) {
+        this.className = className;
+        this.categories = categories;
+        this.weights = weights;
+        this.dropCounts = dropCounts;
+        this.sizes = sizes;
+        this.sums = sums;
+        this.lowest = lowest;
+        this.grades = grades;
+        this.round = round;
+        this.scale = scale;
+    }
+
+    /**
+     * Creates an engine over the same aggregates with its own scratch space, for use on another thread.
+     * @return The copy.
+     */
+    public WhatIf copy() {
+        return new WhatIf(className, categories, weights, dropCounts, sizes, sums, lowest, grades, round, scale);
+    }
+
+    /**
+     * @return The name of the class.
+     */
+    public String className() {
+        return className;
+    }
+
+    /**
+     * @return The number of categories; scenarios index categories from 0 to this minus 1.
+     */
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    /**
+     * @param index The index of a category.
+     * @return The name of the category.
+     */
+    public String categoryName(int index) {
+        return categories[index];
+    }
+
+    /**
+     * @param categoryName The name of a category.
+     * @return The index of the category.
+     * @throws IllegalArgumentException if the class does not have the category.
+     */
+    public int categoryIndex(String categoryName) {
+        for (int k = 0; k < categories.length; k++) {
+            if (categories[k].equals(categoryName)) {
+                return k;
+            }
+        }
+        throw new IllegalArgumentException("Category does not exist in " + className + ": " + categoryName);
+    }
+
+    /**
+     * Calculates what a category grade would be with extra grades.
+     * @param category The index of the category.
+     * @param extraGrades The hypothetical grades to add, or null for none.
+     * @return The category grade after dropping the lowest grades, old and new alike.
+     */
+    public double categoryGrade(int category, double[] extraGrades) {
+        if (extraGrades == null || extraGrades.length == 0) {
+            return grades[category];
+        }
+        int size = sizes[category] + extraGrades.length;
+        int dropping = dropCounts[category];
+        double sum = sums[category];
+        for (double grade : extraGrades) {
+            sum += grade;
+        }
+        if (dropping <= 0) {
+            return sum / size;
+        }
+        if (dropping >= size) {
+            return 0.0 / (size - dropping);  // Same as calculateCatGrade when every grade is dropped
+        }
+        return (sum - lowestSum(lowest[category], extraGrades, dropping)) / (size - dropping);
+    }
+
+    /**
+     * Calculates what the final grade would be with extra grades.
+     * @param extraGrades The hypothetical grades to add to each category, indexed like the categories;
+     * a null entry, or a shorter array, leaves the remaining categories unchanged.
+     * @return The final grade with the hypothetical grades, after rounding if the class rounds.
+     */
+    public double finalGrade(double[][] extraGrades) {
+        double finalGrade = 0.0;
+        for (int k = 0; k < categories.length; k++) {
+            double[] extra = extraGrades != null && k < extraGrades.length ? extraGrades[k] : null;
+            finalGrade += categoryGrade(k, extra) * weights[k];
+        }
+        return round ? scale.round(finalGrade) : finalGrade;
+    }
+
+    /**
+     * Evaluates a batch of scenarios.
+     * @param scenarios The extra grades of each scenario, each laid out as for finalGrade(double[][]).
+     * @return The final grade of each scenario.
+     */
+    public double[] finalGrades(double[][][] scenarios) {
+        double[] results = new double[scenarios.length];
+        for (int s = 0; s < scenarios.length; s++) {
+            results[s] = finalGrade(scenarios[s]);
+        }
+        return results;
+    }
+
+    /**
+     * @param finalGrade A final grade, such as one returned by finalGrade.
+     * @return Its letter grade on the class's grading scale.
+     */
+    public String letter(double finalGrade) {
+        return scale.letter(finalGrade);
+    }
+
+    /**
+     * @param finalGrade A final grade, such as one returned by finalGrade.
+     * @return The GRADE_LABELS index of its letter grade, or -1 if the class has no grading scale.
+     */
+    int label(double finalGrade) {
+        return scale.label(finalGrade);
+    }
+
+    /**
+     * Sums the `dropping` lowest grades out of a category's lowest grades and some extra grades,
+     * by inserting the extras into a sorted copy of the lowest grades and keeping only the lowest.
+     */
+    private double lowestSum(double[] baseLowest, double[] extraGrades, int dropping) {
+        if (merged.length < dropping) {
+            merged = new double[dropping];
+        }
+        int count = Math.min(baseLowest.length, dropping);
+        System.arraycopy(baseLowest, 0, merged, 0, count);
+        for (double grade : extraGrades) {
+            if (count == dropping) {
+                if (grade >= merged[count - 1]) {
+                    continue;
+                }
+                count--;  // Evict the highest of the lowest
+            }
+            int position = count;
+            while (position > 0 && merged[position - 1] > grade) {
+                merged[position] = merged[position - 1];
+                position--;
+            }
+            merged[position] = grade;
+            count++;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < count; i++) {
+            sum += merged[i];
+        }
+        return sum;
+    }
+}
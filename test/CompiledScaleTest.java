@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledScaleTest {
+    /**
+     * A compiled scale gives the letter grade and rounding that scanning the scale does, on random
+     * scales with unused letters, duplicate cutoffs and some out of order, for grades on and around
+     * every cutoff, NaN and grades anywhere else.
+     */
+    @Test
+    void compiledScaleMatchesLinearScans() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int trial = 0; trial < 10_000; trial++) {
+            List<Double> scale = randomScale(random, trial % 10 == 0);
+            CompiledScale compiled = CompiledScale.compile(scale);
+            for (int probe = 0; probe < 50; probe++) {
+                double grade;
+                Double near = scale.get(random.nextInt(scale.size()));
+                if (probe == 0) {
+                    grade = Double.NaN;
+                } else if (near != null && probe % 2 == 0) {
+                    grade = near + (random.nextInt(21) - 10) / 100.0;  // On, and up to 0.1 either side of, a cutoff
+                } else {
+                    grade = random.nextDouble(-5, 110);
+                }
+                assertEquals(referenceLetter(grade, scale), compiled.letter(grade), scale + " " + grade);
+                assertEquals(referenceRound(grade, scale), compiled.round(grade), scale + " " + grade);
+            }
+        }
+    }
+
+    /**
+     * @return A scale of GRADE_LABELS length ending in F = 0, with descending cutoffs, some unused
+     * letters and duplicates, or shuffled cutoffs if outOfOrder.
+     */
+    private static List<Double> randomScale(SplittableRandom random, boolean outOfOrder) {
+        List<Double> scale = new ArrayList<>();
+        double cutoff = 100;
+        for (int i = 0; i < GradeBook.GRADE_LABELS.length - 1; i++) {
+            cutoff -= random.nextInt(4) == 0 ? 0 : random.nextInt(1, 800) / 100.0;
+            scale.add(random.nextInt(5) == 0 ? null : outOfOrder ? random.nextInt(0, 10_000) / 100.0 : cutoff);
+        }
+        scale.add(0.0);
+        return scale;
+    }
+
+    /**
+     * The first letter grade whose cutoff the grade reaches, or the highest letter grade if it reaches none.
+     */
+    private static String referenceLetter(double finalGrade, List<Double> scale) {
+        for (int i = 0; i < scale.size(); i++) {
+            Double cutoff = scale.get(i);
+            if (cutoff != null && finalGrade >= cutoff) {
+                return GradeBook.GRADE_LABELS[i];
+            }
+        }
+        for (int i = 0; i < scale.size(); i++) {
+            if (scale.get(i) != null) {
+                return GradeBook.GRADE_LABELS[i];
+            }
+        }
+        return CompiledScale.NO_SCALE;
+    }
+
+    /**
+     * The first cutoff above the grade by at most ROUND_SIZE, or the grade itself.
+     */
+    private static double referenceRound(double finalGrade, List<Double> scale) {
+        for (Double cutoff : scale) {
+            if (cutoff != null && finalGrade < cutoff && cutoff - finalGrade <= CompiledScale.ROUND_SIZE) {
+                return cutoff;
+            }
+        }
+        return finalGrade;
+    }
+}
@@ -0,0 +1,178 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentGradeBookTest {
+    private static final int WRITERS = 64;
+    private static final int READERS = 4;
+    private static final int CLASSES = 4;
+    private static final int CATEGORIES = 2;
+    private static final int GRADES_PER_WRITER = 500;
+    /// Grades encode their writer and sequence number as writer * SEQUENCE_LIMIT + sequence
+    private static final int SEQUENCE_LIMIT = 1_000_000;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Writers add grades to shared classes while readers check every snapshot they see and a saver
+     * saves in a loop:
+     * <ul>
+     * <li>every snapshot a reader sees is at least as new as the last one it saw of that class,</li>
+     * <li>every snapshot is internally consistent: its grade count matches its version and its category
+     * and final grades match its own grades,</li>
+     * <li>each writer's grades appear in the order it added them, with none lost, and</li>
+     * <li>reloading the saved grade book from its journal gives the same grades.</li>
+     * </ul>
+     */
+    @Test
+    void concurrentWritesAreLinearizable() throws InterruptedException {
+        ConcurrentGradeBook gradeBook = new ConcurrentGradeBook(new GradeBook(directory));
+        long[] baseVersions = new long[CLASSES];
+        int[] baseSizes = new int[CLASSES];
+        for (int c = 0; c < CLASSES; c++) {
+            String className = "class" + c;
+            gradeBook.createClass(className);
+            for (int k = 0; k < CATEGORIES; k++) {
+                String category = "category" + k;
+                gradeBook.createCategory(className, category);
+                gradeBook.setWeight(className, category, 100.0 / CATEGORIES);
+                gradeBook.setDropped(className, category, 1);
+                // Two grades below SEQUENCE_LIMIT, so every category keeps more grades than it drops
+                gradeBook.addGrades(className, category, new double[] {100, 0});
+                baseSizes[c] += 2;
+            }
+            baseVersions[c] = gradeBook.snapshot(className).version();
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(start(failures, () -> {
+                long[] lastVersions = new long[CLASSES];
+                for (int i = 0; writing.get(); i++) {
+                    int c = i % CLASSES;
+                    ConcurrentGradeBook.ClassSnapshot snapshot = gradeBook.snapshot("class" + c);
+                    if (snapshot.version() < lastVersions[c]) {
+                        failures.add("class" + c + " went back from version " + lastVersions[c] + " to " + snapshot.version());
+                    }
+                    lastVersions[c] = snapshot.version();
+                    checkSnapshot(snapshot, baseSizes[c] + snapshot.version() - baseVersions[c], failures);
+                }
+            }));
+        }
+        Thread saver = start(failures, () -> {
+            while (writing.get()) {
+                if (!gradeBook.save()) {
+                    failures.add("save failed");
+                }
+            }
+        });
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(start(failures, () -> {
+                for (int i = 0; i < GRADES_PER_WRITER; i++) {
+                    gradeBook.addGrade(className(writer), category(writer), (double) (writer + 1) * SEQUENCE_LIMIT + i);
+                }
+            }));
+        }
+        joinAll(writers);
+        writing.set(false);
+        joinAll(readers);
+        saver.join();
+
+        // Every writer's grades must all be there, in the order it added them
+        for (int w = 0; w < WRITERS; w++) {
+            long expected = 0;
+            for (double grade : gradeBook.grades(className(w), category(w))) {
+                if ((long) (grade / SEQUENCE_LIMIT) == w + 1) {
+                    if ((long) grade % SEQUENCE_LIMIT != expected) {
+                        failures.add("writer " + w + " grade " + expected + " is out of order");
+                    }
+                    expected++;
+                }
+            }
+            if (expected != GRADES_PER_WRITER) {
+                failures.add("writer " + w + " has " + expected + " of " + GRADES_PER_WRITER + " grades");
+            }
+        }
+        assertTrue(failures.isEmpty(), () -> failures.size() + " problems, first: " + failures.get(0));
+
+        // The journal records the same order, so a reload must agree exactly
+        assertTrue(gradeBook.save());
+        gradeBook.close();
+        GradeBook reloaded = new GradeBook(directory);
+        reloaded.load();
+        for (int c = 0; c < CLASSES; c++) {
+            String className = "class" + c;
+            for (int k = 0; k < CATEGORIES; k++) {
+                String category = "category" + k;
+                assertArrayEquals(gradeBook.grades(className, category), reloaded.grades(className, category),
+                        className + "," + category + " reloads differently");
+            }
+            assertEquals(gradeBook.finalGrade(className).value(), reloaded.finalGrade(className).value(), className);
+        }
+        reloaded.close();
+    }
+
+    private static String className(int writer) {
+        return "class" + (writer % CLASSES);
+    }
+
+    private static String category(int writer) {
+        return "category" + (writer / CLASSES % CATEGORIES);
+    }
+
+    /**
+     * Checks that a snapshot holds the expected number of grades and that its category and final
+     * grades were computed from exactly those grades.
+     */
+    private static void checkSnapshot(ConcurrentGradeBook.ClassSnapshot snapshot, long expectedSize, List<String> failures) {
+        long size = 0;
+        double finalGrade = 0;
+        for (ConcurrentGradeBook.CategorySnapshot category : snapshot.categories().values()) {
+            size += category.size();
+            GradeList grades = GradeList.wrap(category.toArray());
+            double expected = grades.sumWithoutLowest(category.dropped()) / (grades.size() - category.dropped());
+            if (Math.abs(expected - category.grade()) > 1e-9 * Math.max(1, Math.abs(expected))) {
+                failures.add(snapshot.className() + " v" + snapshot.version() + " category grade " + category.grade()
+                        + " does not match its grades (" + expected + ")");
+            }
+            finalGrade += category.grade() * category.weight();
+        }
+        if (size != expectedSize) {
+            failures.add(snapshot.className() + " v" + snapshot.version() + " has " + size + " grades, expected " + expectedSize);
+        }
+        if (Math.abs(finalGrade - snapshot.finalGrade().value()) > 1e-9 * Math.max(1, Math.abs(finalGrade))) {
+            failures.add(snapshot.className() + " v" + snapshot.version() + " final grade does not match its categories");
+        }
+    }
+
+    /**
+     * Starts a thread whose uncaught exceptions count as failures.
+     */
+    private static Thread start(List<String> failures, Runnable task) {
+        Thread thread = new Thread(task);
+        thread.setUncaughtExceptionHandler((t, e) -> failures.add(t.getName() + " threw " + e));
+        thread.start();
+        return thread;
+    }
+
+    private static void joinAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
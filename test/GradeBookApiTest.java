@@ -0,0 +1,137 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeBookApiTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Each mutator moves the final grade and letter grade to the value worked out by hand.
+     */
+    @Test
+    void mutatorsChangeTheFinalGrade() {
+        GradeBook gradeBook = mathClass();
+        // Tests: 80, 90, 70 dropping 1 is 85; Homework: 100, 50 is 75; 85 * 0.6 + 75 * 0.4
+        assertFinalGrade(81.0, "B-", gradeBook.finalGrade("Math"));
+
+        assertEquals(50.0, gradeBook.setGrade("Math", "Homework", 1, 97));
+        assertFinalGrade(90.4, "A-", gradeBook.finalGrade("Math"));
+
+        assertEquals(70.0, gradeBook.removeGrade("Math", "Tests", 2));
+        gradeBook.setDropped("Math", "Tests", 0);
+        assertFinalGrade(90.4, "A-", gradeBook.finalGrade("Math"));
+
+        gradeBook.setWeight("Math", "Tests", 50);
+        gradeBook.setWeight("Math", "Homework", 50);
+        assertFinalGrade(91.75, "A-", gradeBook.finalGrade("Math"));
+
+        assertEquals(3, gradeBook.addGrade("Math", "Tests", 60));
+        assertFinalGrade((230.0 / 3 + 98.5) / 2, "B+", gradeBook.finalGrade("Math"));
+        gradeBook.close();
+    }
+
+    /**
+     * With rounding on, a final grade within ROUND_SIZE below a cutoff reaches it, turning rounding off
+     * gives the raw grade back, and a new scale changes the letter grade and cutoffs.
+     */
+    @Test
+    void roundingAndScaleApplyToTheFinalGrade() {
+        GradeBook gradeBook = mathClass();
+        gradeBook.setGrade("Math", "Homework", 1, 94.9);  // Homework 97.45; 51 + 38.98 = 89.98
+        assertFinalGrade(89.98, "B+", gradeBook.finalGrade("Math"));
+        gradeBook.setRounding("Math", true);
+        assertEquals(new FinalGrade(90.0, "A-"), gradeBook.finalGrade("Math"));
+        gradeBook.setRounding("Math", false);
+        assertFinalGrade(89.98, "B+", gradeBook.finalGrade("Math"));
+
+        gradeBook.setGradingScale("Math", List.of(95.0, 89.0));
+        assertEquals("A", gradeBook.finalGrade("Math").letter());
+        assertEquals(89.0, gradeBook.letterCutoff("Math", "A"));
+        assertEquals(-1.0, gradeBook.letterCutoff("Math", "B"));
+        assertEquals(0.0, gradeBook.letterCutoff("Math", "F"));
+        gradeBook.close();
+    }
+
+    /**
+     * Category statistics, what-if grades and needed grades are results, and reading them leaves the
+     * grade book unchanged.
+     */
+    @Test
+    void queriesReturnResultsWithoutChangingTheGradeBook() {
+        GradeBook gradeBook = mathClass();
+        assertEquals(new CategoryStats(3, 85.0, 80.0, 80.0, 90.0, 70.0), gradeBook.categoryStats("Math", "Tests"));
+
+        assertEquals(90.0, gradeBook.hypotheticalCategoryGrade("Math", "Tests", new double[] {100}));
+        // Tests: 80, 90, 70, 100 dropping 1 is 90; 90 * 0.6 + 75 * 0.4
+        assertEquals(84.0, gradeBook.hypotheticalFinalGrade("Math", Map.of("Tests", new double[] {100})), 1e-9);
+        assertFinalGrade(81.0, "B-", gradeBook.finalGrade("Math"));
+
+        NeededGrades needed = gradeBook.neededGrades("Math", "B", Map.of("Homework", 1));
+        assertEquals(NeededGrades.Outcome.POSSIBLE, needed.outcome());
+        // Homework needs an average of 80 over three items, so the new one needs 90
+        assertEquals(90.0, needed.uniform(), 1e-9);
+        assertEquals(90.0, needed.averages().get("Homework"), 1e-9);
+        // An A- needs 97.5 on Homework, out of reach even with 100 on the new item
+        assertEquals(NeededGrades.Outcome.NOT_POSSIBLE, gradeBook.neededGrades("Math", "A-", Map.of("Homework", 1)).outcome());
+        assertEquals(NeededGrades.Outcome.ALREADY_MET, gradeBook.neededGrades("Math", "B-", Map.of()).outcome());
+        assertArrayEquals(new double[] {80, 90, 70}, gradeBook.grades("Math", "Tests"));
+        gradeBook.close();
+    }
+
+    /**
+     * Unknown classes and categories and invalid grades are rejected without changing anything.
+     */
+    @Test
+    void invalidChangesAreRejected() {
+        GradeBook gradeBook = mathClass();
+        assertFalse(gradeBook.createClass("Math"));
+        assertFalse(gradeBook.createCategory("Math", "Tests"));
+        assertThrows(IllegalArgumentException.class, () -> gradeBook.createCategory("Art", "Tests"));
+        assertThrows(IllegalArgumentException.class, () -> gradeBook.addGrade("Math", "Quizzes", 90));
+        assertThrows(IllegalArgumentException.class, () -> gradeBook.finalGrade("Art"));
+        assertThrows(IllegalArgumentException.class, () -> gradeBook.addGrades("Math", "Tests", new double[] {95, -1}));
+        assertThrows(IllegalArgumentException.class, () -> gradeBook.addGrade("Math", "Tests", Double.NaN));
+        assertThrows(IndexOutOfBoundsException.class, () -> gradeBook.setGrade("Math", "Tests", 3, 90));
+        assertThrows(IndexOutOfBoundsException.class, () -> gradeBook.removeGrade("Math", "Tests", 3));
+        assertArrayEquals(new double[] {80, 90, 70}, gradeBook.grades("Math", "Tests"));
+        assertFinalGrade(81.0, "B-", gradeBook.finalGrade("Math"));
+
+        assertTrue(gradeBook.deleteClass("Math"));
+        assertFalse(gradeBook.deleteClass("Math"));
+        assertFalse(gradeBook.hasClass("Math"));
+        gradeBook.close();
+    }
+
+    /**
+     * Creates "Math" with Tests (60%, dropping 1) of 80, 90 and 70 and Homework (40%) of 100 and 50, on
+     * the standard scale without rounding.
+     */
+    private GradeBook mathClass() {
+        GradeBook gradeBook = new GradeBook(directory);
+        assertTrue(gradeBook.createClass("Math"));
+        assertTrue(gradeBook.createCategory("Math", "Tests"));
+        assertTrue(gradeBook.createCategory("Math", "Homework"));
+        gradeBook.setWeight("Math", "Tests", 60);
+        gradeBook.setWeight("Math", "Homework", 40);
+        gradeBook.setDropped("Math", "Tests", 1);
+        gradeBook.setGradingScale("Math", TestGradeBooks.STANDARD_SCALE);
+        assertEquals(3, gradeBook.addGrades("Math", "Tests", new double[] {80, 90, 70}));
+        assertEquals(2, gradeBook.addGrades("Math", "Homework", new double[] {100, 50}));
+        return gradeBook;
+    }
+
+    private static void assertFinalGrade(double value, String letter, FinalGrade actual) {
+        assertEquals(value, actual.value(), 1e-9);
+        assertEquals(letter, actual.letter());
+    }
+}
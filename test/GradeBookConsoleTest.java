@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeBookConsoleTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * DisplayWriter.writeFixed prints what String.format("%.2f") prints, on ties, near-ties, negatives,
+     * huge and non-finite values.
+     */
+    @Test
+    void writeFixedMatchesStringFormat() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] special = {0, -0.0, 0.005, 0.015, 1.005, 84.625, -0.001, 99.995, 1e15, Double.NaN, Double.POSITIVE_INFINITY};
+        ByteArrayOutputStream formatted = new ByteArrayOutputStream();
+        DisplayWriter writer = new DisplayWriter(formatted, StandardCharsets.UTF_8);
+        for (int i = 0; i < 200_000; i++) {
+            double value = switch (i % 4) {
+                case 0 -> special[i / 4 % special.length];
+                case 1 -> random.nextInt(1_000_001) / 1000.0;  // Many exact thousandths, so many ties
+                case 2 -> random.nextDouble(-200, 200);
+                default -> random.nextInt(20_001) / 100.0 / 3.0 * 3.0;
+            };
+            formatted.reset();
+            writer.writeFixed(value, 2);
+            writer.flush();
+            assertEquals(String.format(Locale.ROOT, "%.2f", value), formatted.toString(StandardCharsets.UTF_8), "value " + value);
+        }
+    }
+
+    /**
+     * Displaying the grade book class by class prints exactly what formatting each class's grades,
+     * statistics and final grade with String.format prints.
+     */
+    @Test
+    void displayMatchesStringFormat() throws IOException {
+        new GradeBookGenerator(42, 20, 4, 30, 0).write(directory);
+        GradeBook gradeBook = new GradeBook(directory);
+        gradeBook.load();
+
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        PrintStream standardOutput = System.out;
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        try {
+            assertTrue(new GradeBookConsole(gradeBook, new Scanner("")).displayClassesGrades());
+        } finally {
+            System.setOut(standardOutput);
+        }
+        assertEquals(referenceDisplay(gradeBook), captured.toString(StandardCharsets.UTF_8));
+        gradeBook.close();
+    }
+
+    /**
+     * Formats the grade book the way displayClassesGrades did before DisplayWriter, with String.format
+     * for every number.
+     */
+    private static String referenceDisplay(GradeBook gradeBook) {
+        String line = System.lineSeparator();
+        StringBuilder out = new StringBuilder();
+        for (String className : gradeBook.classNames()) {
+            out.append(className).append(line).append("---------------").append(line);
+            for (String category : gradeBook.categoryNames(className)) {
+                CategoryStats stats = gradeBook.categoryStats(className, category);
+                double[] grades = gradeBook.grades(className, category);
+                out.append(category).append(": ").append(format(gradeBook.calculateCatGrade(className, category))).append(" | Grades: ");
+                for (int i = 0; i < grades.length; i++) {
+                    out.append(format(grades[i])).append(i < grades.length - 1 ? ", " : "");
+                }
+                out.append(line).append("Statistics for ").append(category).append(":\n");
+                out.append(" - Average: ").append(format(stats.average())).append('\n');
+                out.append(" - Median: ").append(format(stats.median())).append('\n');
+                out.append(" - Highest: ").append(format(stats.highest())).append('\n');
+                out.append(" - Lowest: ").append(format(stats.lowest())).append('\n').append(line);
+            }
+            FinalGrade finalGrade = gradeBook.finalGrade(className);
+            out.append("Final Grade: ").append(format(finalGrade.value())).append("   ").append(finalGrade.letter()).append(line);
+            out.append("---------------\n").append(line);
+        }
+        return out.toString();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeBookGeneratorTest {
+    private static final String[] FILES = {"grades.csv", "percentage.csv", "drop.csv", "rounding.csv", "gradingScale.csv"};
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The same seed writes byte-identical files, and another seed writes different grades.
+     */
+    @Test
+    void sameSeedGivesIdenticalFiles() throws IOException {
+        Path first = Files.createDirectory(directory.resolve("first"));
+        Path second = Files.createDirectory(directory.resolve("second"));
+        Path other = Files.createDirectory(directory.resolve("other"));
+        new GradeBookGenerator(42, 20, 5, 30, 1.2).write(first);
+        new GradeBookGenerator(42, 20, 5, 30, 1.2).write(second);
+        new GradeBookGenerator(43, 20, 5, 30, 1.2).write(other);
+        for (String file : FILES) {
+            assertArrayEquals(Files.readAllBytes(first.resolve(file)), Files.readAllBytes(second.resolve(file)), file);
+        }
+        assertFalse(Files.readString(first.resolve("grades.csv")).equals(Files.readString(other.resolve("grades.csv"))));
+    }
+
+    /**
+     * The files have the headers the grade book expects and load without errors into N classes of M
+     * categories, with every grade written, weights adding up to 100 and a scale ending in F = 0.
+     */
+    @Test
+    void outputLoadsIntoTheGradeBook() throws IOException {
+        long written = new GradeBookGenerator(7, 12, 3, 25, 0).write(directory);
+        assertEquals(12 * 3 * 25, written);
+        assertEquals("Class,Category,Grade", firstLine("grades.csv"));
+        assertEquals("Class,Category,Percent", firstLine("percentage.csv"));
+        assertEquals("Class,Category,Dropped", firstLine("drop.csv"));
+        assertEquals("Class,Round", firstLine("rounding.csv"));
+        assertEquals("Class,A+,A,A-,B+,B,B-,C+,C,C-,D+,D,D-,F", firstLine("gradingScale.csv"));
+
+        GradeBook gradeBook = new GradeBook(directory);
+        assertTrue(gradeBook.load());
+        assertEquals(12, gradeBook.classNames().size());
+        long loaded = 0;
+        for (int c = 0; c < 12; c++) {
+            String className = GradeBookGenerator.className(c);
+            Map<String, Double> weights = gradeBook.weights(className);
+            assertEquals(3, weights.size(), className);
+            assertEquals(100.0, weights.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9, className);
+            for (int k = 0; k < 3; k++) {
+                for (double grade : gradeBook.grades(className, GradeBookGenerator.categoryName(k))) {
+                    assertTrue(grade >= 0 && grade <= 110, className + " " + grade);
+                    loaded++;
+                }
+            }
+            List<Double> scale = gradeBook.gradingScale(className);
+            assertEquals(GradeBook.GRADE_LABELS.length, scale.size(), className);
+            assertEquals(0.0, scale.get(scale.size() - 1), className);
+        }
+        assertEquals(written, loaded);
+        gradeBook.close();
+    }
+
+    /**
+     * With a skew, the first classes are the largest and the total stays close to N * M * K grades.
+     */
+    @Test
+    void skewMakesTheFirstClassesLargest() throws IOException {
+        long written = new GradeBookGenerator(42, 50, 2, 40, 1.0).write(directory);
+        GradeBook gradeBook = new GradeBook(directory);
+        assertTrue(gradeBook.load());
+        String category = GradeBookGenerator.categoryName(0);
+        int first = gradeBook.grades(GradeBookGenerator.className(0), category).length;
+        int last = gradeBook.grades(GradeBookGenerator.className(49), category).length;
+        assertTrue(first > 10 * last, first + " vs " + last);
+        assertEquals(50 * 2 * 40, written, 50 * 2);
+        gradeBook.close();
+    }
+
+    private String firstLine(String file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(file))) {
+            return reader.readLine();
+        }
+    }
+}
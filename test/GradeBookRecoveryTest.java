@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeBookRecoveryTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * A crash after a generation is committed but before the journal segments it includes are deleted
+     * leaves those segments behind. Loading that generation's CSV files must not replay them again.
+     */
+    @Test
+    void csvFallbackSkipsJournalSegmentsTheGenerationIncludes() throws IOException {
+        GradeBook gradeBook = new GradeBook(directory);
+        gradeBook.load();
+        gradeBook.createClass("Math");
+        gradeBook.createCategory("Math", "Tests");
+        gradeBook.setWeight("Math", "Tests", 100);
+        gradeBook.addGrade("Math", "Tests", 90);
+        assertTrue(gradeBook.checkpoint());
+
+        gradeBook.addGrade("Math", "Tests", 80);
+        assertTrue(gradeBook.save());
+        Path saved = Files.createTempDirectory(directory, "journal");
+        List<Path> segments = journalSegments();
+        assertTrue(!segments.isEmpty());
+        for (Path segment : segments) {
+            Files.copy(segment, saved.resolve(segment.getFileName()));
+        }
+        assertTrue(gradeBook.checkpoint());
+        gradeBook.close();
+
+        // Put back the segments the checkpoint deleted, and lose the snapshot so the CSV files are imported
+        try (Stream<Path> files = Files.list(saved)) {
+            for (Path segment : files.toList()) {
+                Files.copy(segment, directory.resolve(segment.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.delete(directory.resolve("gradebook.bin"));
+
+        GradeBook reloaded = new GradeBook(directory);
+        reloaded.load();
+        assertArrayEquals(new double[]{90, 80}, reloaded.grades("Math", "Tests"));
+        reloaded.close();
+    }
+
+    /**
+     * When one CSV file is missing, loading still waits for the others, so every grade is in the grade
+     * book when load() returns and nothing changes it afterwards.
+     */
+    @Test
+    void csvImportWaitsForEveryFileWhenOneFails() throws IOException {
+        long written = new GradeBookGenerator(42, 50, 4, 2_000, 0).write(directory);
+        Files.delete(directory.resolve("percentage.csv"));
+
+        GradeBook gradeBook = new GradeBook(directory);
+        assertFalse(gradeBook.load());
+        long loaded = 0;
+        for (String className : gradeBook.classNames()) {
+            for (String category : gradeBook.categoryNames(className)) {
+                loaded += gradeBook.grades(className, category).length;
+            }
+        }
+        assertEquals(written, loaded);
+        gradeBook.close();
+    }
+
+    private List<Path> journalSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith("gradebook.journal.")).forEach(segments::add);
+        }
+        return segments;
+    }
+}
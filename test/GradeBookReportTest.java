@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradeBookReportTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * A report on any number of threads lists every class in order, with the same categories, grades,
+     * statistics and final grade the grade book gives for each one on its own.
+     */
+    @Test
+    void reportMatchesTheGradeBookOnAnyNumberOfThreads() throws IOException {
+        new GradeBookGenerator(42, 300, 4, 40, 0).write(directory);
+        GradeBook gradeBook = new GradeBook(directory);
+        gradeBook.load();
+        List<String> classNames = new ArrayList<>(gradeBook.classNames());
+
+        for (int threads : new int[] {1, 2, 4, 7}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                gradeBook.invalidateAllClasses();
+                List<GradeBookReport.ClassReport> reports = new GradeBookReport(pool).generate(gradeBook, classNames);
+                assertEquals(classNames.size(), reports.size());
+                for (int i = 0; i < reports.size(); i++) {
+                    checkClass(gradeBook, classNames.get(i), reports.get(i));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        gradeBook.close();
+    }
+
+    private static void checkClass(GradeBook gradeBook, String className, GradeBookReport.ClassReport report) {
+        assertEquals(className, report.className());
+        assertEquals(gradeBook.finalGrade(className), report.finalGrade(), className);
+        List<String> categories = new ArrayList<>(gradeBook.categoryNames(className));
+        assertEquals(categories.size(), report.categories().size(), className);
+        for (int k = 0; k < categories.size(); k++) {
+            String category = categories.get(k);
+            GradeBookReport.CategoryReport categoryReport = report.categories().get(k);
+            assertEquals(category, categoryReport.name(), className);
+            assertArrayEquals(gradeBook.grades(className, category), categoryReport.grades().toArray(), className + "," + category);
+
+            CategoryStats expected = gradeBook.categoryStats(className, category);
+            CategoryStats actual = categoryReport.stats();
+            assertEquals(gradeBook.calculateCatGrade(className, category), actual.grade(), className + "," + category);
+            assertEquals(expected.count(), actual.count());
+            assertEquals(expected.average(), actual.average());
+            assertEquals(expected.median(), actual.median());
+            assertEquals(expected.highest(), actual.highest());
+            assertEquals(expected.lowest(), actual.lowest());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeBookServerTest {
+    @TempDir
+    Path directory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private GradeBookServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    /**
+     * Every endpoint answers with the grade book's values, and percent-encoded class names, category
+     * names and query parameters are decoded.
+     */
+    @Test
+    void routesAnswerFromTheGradeBook() throws IOException, InterruptedException {
+        ConcurrentGradeBook gradeBook = introMath(new ConcurrentGradeBook(new GradeBook(directory)));
+        start(gradeBook);
+
+        assertResponse(200, "{\"classes\":[\"Intro Math\"]}", get("/classes"));
+        HttpResponse<String> summary = get("/classes/Intro%20Math");
+        assertEquals(200, summary.statusCode());
+        assertTrue(summary.body().startsWith("{\"class\":\"Intro Math\",\"finalGrade\":81.0,\"letter\":\"B-\""), summary.body());
+        assertTrue(summary.body().contains("{\"name\":\"Home work\",\"grade\":75.0,"), summary.body());
+        assertResponse(200, "{\"class\":\"Intro Math\",\"category\":\"Tests\",\"count\":3,\"grade\":85.0,"
+                + "\"average\":80.0,\"median\":80.0,\"highest\":90.0,\"lowest\":70.0}", get("/classes/Intro%20Math/categories/Tests"));
+
+        // Home work needs an average of 80 over three items, so the new one needs 90
+        assertResponse(200, "{\"class\":\"Intro Math\",\"letter\":\"B\",\"target\":83.0,\"outcome\":\"POSSIBLE\","
+                + "\"uniform\":90.0,\"averages\":{\"Home work\":90.0}}", get("/classes/Intro%20Math/needed?letter=b&remaining=Home+work%3A1"));
+        HttpResponse<String> every = get("/classes/Intro%20Math/needed?remaining=Home%20work:1");
+        assertEquals(200, every.statusCode());
+        assertTrue(every.body().startsWith("[{\"class\":\"Intro Math\",\"letter\":\"A+\""), every.body());
+
+        // Needed grades follow writes, like the other endpoints
+        // Tests: 80, 90, 70, 60 dropping 1 is 80, so a B- needs 80 on Home work, 85 on each of two new items
+        gradeBook.addGrade("Intro Math", "Tests", 60);
+        assertResponse(200, "{\"class\":\"Intro Math\",\"letter\":\"B-\",\"target\":80.0,\"outcome\":\"POSSIBLE\","
+                + "\"uniform\":85.0,\"averages\":{\"Home work\":85.0}}", get("/classes/Intro%20Math/needed?letter=B-&remaining=Home%20work:2"));
+        gradeBook.close();
+    }
+
+    /**
+     * A malformed query gives 400, an unknown class, category or path 404, a method other than GET 405
+     * and an unexpected failure 500, each with an error message.
+     */
+    @Test
+    void errorsMapToStatusCodes() throws IOException, InterruptedException {
+        ConcurrentGradeBook gradeBook = introMath(new ConcurrentGradeBook(new GradeBook(directory)) {
+            @Override
+            public CategoryStats categoryStats(String className, String categoryName) {
+                throw new IllegalStateException("broken");
+            }
+        });
+        start(gradeBook);
+
+        assertResponse(400, "{\"error\":\"Expected category:count in remaining, got Tests\"}",
+                get("/classes/Intro%20Math/needed?letter=B&remaining=Tests"));
+        assertResponse(400, "{\"error\":\"Expected a whole number of remaining items, got Tests:x\"}",
+                get("/classes/Intro%20Math/needed?letter=B&remaining=Tests:x"));
+        assertEquals(400, get("/classes/Intro%20Math/needed?letter=Z").statusCode());
+
+        assertResponse(404, "{\"error\":\"Class does not exist: Art\"}", get("/classes/Art"));
+        assertResponse(404, "{\"error\":\"Category does not exist in Intro Math: Quizzes\"}",
+                get("/classes/Intro%20Math/categories/Quizzes"));
+        assertEquals(404, get("/students").statusCode());
+        assertEquals(404, get("/classes/Intro%20Math/grades").statusCode());
+
+        HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri("/classes"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertResponse(405, "{\"error\":\"Only GET is supported\"}", post);
+        assertEquals("GET", post.headers().firstValue("Allow").orElse(null));
+
+        assertResponse(500, "{\"error\":\"Internal server error\"}", get("/classes/Intro%20Math/categories/Tests"));
+        gradeBook.close();
+    }
+
+    /**
+     * Creates "Intro Math" with Tests (60%, dropping 1) of 80, 90 and 70 and "Home work" (40%) of 100
+     * and 50, on the standard scale without rounding: a final grade of 81.
+     */
+    private static ConcurrentGradeBook introMath(ConcurrentGradeBook gradeBook) {
+        gradeBook.createClass("Intro Math");
+        gradeBook.createCategory("Intro Math", "Tests");
+        gradeBook.createCategory("Intro Math", "Home work");
+        gradeBook.setWeight("Intro Math", "Tests", 60);
+        gradeBook.setWeight("Intro Math", "Home work", 40);
+        gradeBook.setDropped("Intro Math", "Tests", 1);
+        gradeBook.setGradingScale("Intro Math", TestGradeBooks.STANDARD_SCALE);
+        gradeBook.addGrades("Intro Math", "Tests", new double[] {80, 90, 70});
+        gradeBook.addGrades("Intro Math", "Home work", new double[] {100, 50});
+        return gradeBook;
+    }
+
+    private void start(ConcurrentGradeBook gradeBook) throws IOException {
+        server = new GradeBookServer(gradeBook, 0);
+        server.start();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.port() + path);
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void assertResponse(int status, String body, HttpResponse<String> response) {
+        assertEquals(status, response.statusCode(), response.body());
+        assertEquals(body, response.body());
+        assertEquals("application/json; charset=utf-8", response.headers().firstValue("Content-Type").orElse(null));
+    }
+}
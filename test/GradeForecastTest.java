@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradeForecastTest {
+    /// More than one chunk, with the last one partly filled
+    private static final long TRIALS = 3 * GradeForecast.CHUNK_TRIALS / 2;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Replaying each chunk's random stream one trial at a time through hypotheticalFinalGrade gives the
+     * same letter counts as the forecast.
+     */
+    @Test
+    void forecastMatchesReplayingHypotheticalFinalGrade() {
+        GradeBook gradeBook = new GradeBook(directory);
+        Map<String, Integer> remaining = createClass(gradeBook);
+        GradeForecast.Forecast forecast = new GradeForecast().forecast(gradeBook, "forecast", remaining, TRIALS, 7);
+        Map<String, Long> expected = replayForecast(gradeBook, "forecast", remaining, TRIALS, 7);
+        for (Map.Entry<String, GradeForecast.LetterOdds> entry : forecast.letters().entrySet()) {
+            long count = Math.round(entry.getValue().probability() * TRIALS);
+            assertEquals(expected.getOrDefault(entry.getKey(), 0L), count, entry.getKey());
+        }
+        gradeBook.close();
+    }
+
+    /**
+     * The same seed gives the same forecast on any number of threads.
+     */
+    @Test
+    void forecastIsTheSameOnAnyNumberOfThreads() {
+        GradeBook gradeBook = new GradeBook(directory);
+        Map<String, Integer> remaining = createClass(gradeBook);
+        GradeForecast.Forecast serial = new GradeForecast(new ForkJoinPool(1)).forecast(gradeBook, "forecast", remaining, TRIALS, 7);
+        for (int threads : new int[] {2, 4, 7}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(serial, new GradeForecast(pool).forecast(gradeBook, "forecast", remaining, TRIALS, 7), threads + " threads");
+            } finally {
+                pool.shutdown();
+            }
+        }
+        gradeBook.close();
+    }
+
+    /**
+     * Creates a rounding class "forecast" of four categories with dropped grades.
+     * @return The remaining items of each category.
+     */
+    private static Map<String, Integer> createClass(GradeBook gradeBook) {
+        int[] dropped = new int[4];
+        int[] sizes = new int[4];
+        for (int k = 0; k < sizes.length; k++) {
+            dropped[k] = k % 3;
+            sizes[k] = 4 + 2 * k;
+        }
+        List<String> categories = TestGradeBooks.createClass(gradeBook, "forecast", true, dropped, sizes, 50.01, new SplittableRandom(42));
+        Map<String, Integer> remaining = new LinkedHashMap<>();
+        for (int k = 0; k < categories.size(); k++) {
+            remaining.put(categories.get(k), 3 + 2 * k);
+        }
+        return remaining;
+    }
+
+    /**
+     * Replays the random streams of a forecast one trial at a time through hypotheticalFinalGrade,
+     * drawing each category's grades in the same order the forecast does.
+     * @return The number of trials that ended with each letter grade.
+     */
+    private static Map<String, Long> replayForecast(GradeBook gradeBook, String className, Map<String, Integer> remaining,
+                                                    long trials, long seed) {
+        WhatIf whatIf = gradeBook.whatIf(className);
+        Map<String, Long> letters = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long start = 0; start < trials; start += GradeForecast.CHUNK_TRIALS) {
+            SplittableRandom chunkRandom = random.split();
+            for (long trial = start; trial < Math.min(trials, start + GradeForecast.CHUNK_TRIALS); trial++) {
+                Map<String, double[]> extra = new HashMap<>();
+                for (int k = 0; k < whatIf.categoryCount(); k++) {
+                    String category = whatIf.categoryName(k);
+                    double[] from = gradeBook.grades(className, category);
+                    double[] items = new double[remaining.get(category)];
+                    for (int i = 0; i < items.length; i++) {
+                        items[i] = from[chunkRandom.nextInt(from.length)];
+                    }
+                    extra.put(category, items);
+                }
+                double finalGrade = gradeBook.hypotheticalFinalGrade(className, extra);
+                letters.merge(gradeBook.getLetterGrade(finalGrade, className), 1L, Long::sum);
+            }
+        }
+        return letters;
+    }
+}
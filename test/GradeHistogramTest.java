@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradeHistogramTest {
+    /**
+     * Merging the histograms of many categories gives the histogram of all their grades, and its
+     * quartiles and 90th percentile are within one bin of the exact values.
+     */
+    @Test
+    void mergedHistogramsMatchAllGrades() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<GradeList> categories = new ArrayList<>();
+        int total = 0;
+        for (int k = 0; k < 200; k++) {
+            GradeList grades = new GradeList();
+            grades.histogram();  // Start keeping the histogram up to date
+            int size = random.nextInt(1, 1_000);
+            for (int i = 0; i < size; i++) {
+                grades.add(random.nextInt(12_001) / 100.0);
+            }
+            categories.add(grades);
+            total += size;
+        }
+
+        GradeHistogram merged = new GradeHistogram();
+        double[] all = new double[total];
+        int next = 0;
+        for (GradeList grades : categories) {
+            merged.merge(grades.histogram());
+            double[] array = grades.toArray();
+            System.arraycopy(array, 0, all, next, array.length);
+            next += array.length;
+        }
+        assertArrayEquals(GradeHistogram.of(all, all.length).counts(), merged.counts());
+
+        double[] sorted = all.clone();
+        Arrays.sort(sorted);
+        for (double quantile : new double[] {0.25, 0.5, 0.75, 0.9}) {
+            double exact = sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+            assertEquals(exact, merged.quantile(quantile), GradeHistogram.BIN_WIDTH, "quantile " + quantile);
+        }
+    }
+
+    /**
+     * A histogram kept up through adds, edits and removals equals one built afresh from the grades.
+     */
+    @Test
+    void histogramKeptThroughEditsMatchesRebuilt() {
+        SplittableRandom random = new SplittableRandom(42);
+        GradeList edited = new GradeList();
+        edited.histogram();
+        for (int i = 0; i < 10_000; i++) {
+            int action = random.nextInt(4);
+            double grade = random.nextInt(15_001) / 100.0;
+            if (action == 0 && !edited.isEmpty()) {
+                edited.set(random.nextInt(edited.size()), grade);
+            } else if (action == 1 && !edited.isEmpty()) {
+                edited.remove(random.nextInt(edited.size()));
+            } else if (action == 2) {
+                edited.addAll(new double[] {grade, grade / 2});
+            } else {
+                edited.add(grade);
+            }
+        }
+        GradeHistogram rebuilt = GradeHistogram.of(edited.toArray(), edited.size());
+        assertArrayEquals(rebuilt.counts(), edited.histogram().counts());
+        assertEquals(edited.size(), edited.histogram().count());
+    }
+}
@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradeImporterTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * A header line is skipped, and rows naming an unknown class or category or holding a negative,
+     * infinite or non-numeric grade are rejected with their own reason while the rest are imported.
+     * A class whose every row was rejected is not listed as changed.
+     */
+    @Test
+    void invalidRowsAreRejectedWithTheirReason() throws IOException {
+        CountingGradeBook gradeBook = mathAndArt();
+        GradeImporter.Result result = importRows(gradeBook, """
+                Class,Category,Grade
+                Math,Tests,90
+                Physics,Tests,80
+                Art,Essays,70
+                Math,Tests,-5
+                Math,Tests,NaN
+                Math,Tests,1e999
+                Math,Tests,eighty
+                Math,Homework,85
+                """);
+
+        assertEquals(2, result.imported());
+        assertEquals(6, result.rejected());
+        assertEquals(List.of(
+                new GradeImporter.Reject(3, GradeImporter.UNKNOWN_CLASS + ": Physics"),
+                new GradeImporter.Reject(4, GradeImporter.UNKNOWN_CATEGORY + ": Art,Essays"),
+                new GradeImporter.Reject(5, GradeImporter.NEGATIVE_GRADE),
+                new GradeImporter.Reject(6, GradeImporter.NOT_FINITE_GRADE),
+                new GradeImporter.Reject(7, GradeImporter.NOT_FINITE_GRADE),
+                new GradeImporter.Reject(8, GradeCsvParser.NOT_A_NUMBER)), result.rejects());
+        assertEquals(List.of("Math"), result.classes());
+        assertArrayEquals(new double[] {90}, gradeBook.grades("Math", "Tests"));
+        assertArrayEquals(new double[] {85}, gradeBook.grades("Math", "Homework"));
+        gradeBook.close();
+    }
+
+    /**
+     * Rows spread over several batches are all imported, with one addGrades call per category however
+     * many batches its rows arrived in.
+     */
+    @Test
+    void eachCategoryIsAddedOnceAcrossBatches() throws IOException {
+        CountingGradeBook gradeBook = mathAndArt();
+        StringBuilder rows = new StringBuilder();
+        int count = 2 * GradeImporter.BATCH_SIZE + 3;
+        for (int i = 0; i < count; i++) {
+            rows.append(i % 2 == 0 ? "Math,Tests," : "Art,Drawings,").append(i % 101).append('\n');
+        }
+        GradeImporter.Result result = importRows(gradeBook, rows.toString());
+
+        assertEquals(count, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals(List.of("Math", "Art"), result.classes());
+        assertEquals(Map.of("Math,Tests", 1, "Art,Drawings", 1), gradeBook.addGradesCalls);
+        double[] tests = gradeBook.grades("Math", "Tests");
+        assertEquals((count + 1) / 2, tests.length);
+        for (int i = 0; i < tests.length; i++) {
+            assertEquals(2 * i % 101, tests[i]);
+        }
+        assertEquals(count / 2, gradeBook.grades("Art", "Drawings").length);
+        gradeBook.close();
+    }
+
+    /**
+     * Rejects are kept in line order whether the parser or the grade book rejected them, so the ones
+     * kept once MAX_KEPT_REJECTS is reached are the first by line.
+     */
+    @Test
+    void keptRejectsAreTheFirstByLine() throws IOException {
+        CountingGradeBook gradeBook = mathAndArt();
+        StringBuilder rows = new StringBuilder("Class,Category,Grade\n");
+        List<Long> expectedLines = new ArrayList<>();
+        long line = 1;
+        for (int i = 0; i < GradeImporter.MAX_KEPT_REJECTS; i++) {
+            rows.append(i % 3 == 0 ? "Math,Tests,oops\n" : "Physics,Tests,90\n");
+            expectedLines.add(++line);
+        }
+        // Parser rejects after the kept ones, in the same batch
+        rows.append("Math,Tests,oops\n").append("Math,Tests\n");
+        GradeImporter.Result result = importRows(gradeBook, rows.toString());
+
+        assertEquals(GradeImporter.MAX_KEPT_REJECTS + 2, result.rejected());
+        List<Long> keptLines = new ArrayList<>();
+        for (GradeImporter.Reject reject : result.rejects()) {
+            keptLines.add(reject.line());
+        }
+        assertEquals(expectedLines, keptLines);
+        gradeBook.close();
+    }
+
+    private static GradeImporter.Result importRows(GradeBook gradeBook, String rows) throws IOException {
+        return new GradeImporter(gradeBook).importGrades(new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Creates "Math" with Tests and Homework and "Art" with Drawings, all empty.
+     */
+    private CountingGradeBook mathAndArt() {
+        CountingGradeBook gradeBook = new CountingGradeBook(directory);
+        gradeBook.createClass("Math");
+        gradeBook.createCategory("Math", "Tests");
+        gradeBook.createCategory("Math", "Homework");
+        gradeBook.createClass("Art");
+        gradeBook.createCategory("Art", "Drawings");
+        return gradeBook;
+    }
+
+    /**
+     * Counts the addGrades calls for each category.
+     */
+    private static final class CountingGradeBook extends GradeBook {
+        final Map<String, Integer> addGradesCalls = new HashMap<>();
+
+        CountingGradeBook(Path directory) {
+            super(directory);
+        }
+
+        @Override
+        public int addGrades(String className, String categoryName, double[] grades) {
+            addGradesCalls.merge(className + "," + categoryName, 1, Integer::sum);
+            return super.addGrades(className, categoryName, grades);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradeJournalTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Every kind of entry comes back from replay as it was recorded, in order, across rotated segments,
+     * and replay starts at the segment it is asked to.
+     */
+    @Test
+    void entriesRoundTripAcrossSegments() throws IOException {
+        GradeJournal journal = new GradeJournal(directory, 0);
+        Recorder expected = new Recorder();
+        record(journal, expected, j -> j.addClass("Math"));
+        record(journal, expected, j -> j.addCategory("Math", "Tests"));
+        record(journal, expected, j -> j.setPercentage("Math", "Tests", 60));
+        record(journal, expected, j -> j.setPercentage("Math", "Tests", Double.NaN));
+        record(journal, expected, j -> j.addGrade("Math", "Tests", 91.25));
+        journal.sync();
+        assertEquals(1, journal.rotate());
+
+        List<String> firstSegment = new ArrayList<>(expected.entries);
+        record(journal, expected, j -> j.editGrade("Math", "Tests", 0, 88.5));
+        record(journal, expected, j -> j.deleteGrade("Math", "Tests", 0));
+        record(journal, expected, j -> j.setDropped("Math", "Tests", 2));
+        record(journal, expected, j -> j.setRounding("Math", true));
+        record(journal, expected, j -> j.setGradingScale("Math", new double[] {97, Double.NaN, 90, 0}));
+        record(journal, expected, j -> j.addClass("Éducation physique"));
+        record(journal, expected, j -> j.deleteClass("Math"));
+        journal.sync();
+        journal.close();
+
+        Recorder replayed = new Recorder();
+        assertEquals(1, GradeJournal.replay(directory, 0, replayed));
+        assertEquals(expected.entries, replayed.entries);
+        assertEquals(List.of(0L, 1L), GradeJournal.listSegments(directory));
+
+        Recorder fromSecond = new Recorder();
+        GradeJournal.replay(directory, 1, fromSecond);
+        assertEquals(expected.entries.subList(firstSegment.size(), expected.entries.size()), fromSecond.entries);
+
+        GradeJournal.deleteSegmentsBefore(directory, 1);
+        assertEquals(List.of(1L), GradeJournal.listSegments(directory));
+    }
+
+    /**
+     * A last entry torn by a crash is dropped on replay, and the segment is cut back to the entries
+     * before it, so entries appended afterwards replay after them.
+     */
+    @Test
+    void tornLastEntryIsDiscarded() throws IOException {
+        GradeJournal journal = new GradeJournal(directory, 0);
+        journal.addGrade("Math", "Tests", 90);
+        journal.addGrade("Math", "Tests", 80);
+        long complete = journal.sync();
+        journal.addGrade("Math", "Tests", 70);
+        journal.sync();
+        journal.close();
+
+        Path segment = directory.resolve("gradebook.journal.0");
+        byte[] bytes = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(bytes, bytes.length - 3));
+
+        Recorder replayed = new Recorder();
+        GradeJournal.replay(directory, 0, replayed);
+        assertEquals(List.of("addGrade Math Tests 90.0", "addGrade Math Tests 80.0"), replayed.entries);
+        assertEquals(complete, Files.size(segment));
+
+        GradeJournal reopened = new GradeJournal(directory, 0);
+        reopened.addGrade("Math", "Tests", 60);
+        reopened.sync();
+        reopened.close();
+        Recorder again = new Recorder();
+        GradeJournal.replay(directory, 0, again);
+        assertEquals(List.of("addGrade Math Tests 90.0", "addGrade Math Tests 80.0", "addGrade Math Tests 60.0"), again.entries);
+    }
+
+    /**
+     * An entry whose checksum does not match ends replay of its segment.
+     */
+    @Test
+    void corruptEntryEndsReplay() throws IOException {
+        GradeJournal journal = new GradeJournal(directory, 0);
+        journal.addGrade("Math", "Tests", 90);
+        journal.sync();
+        journal.addGrade("Math", "Tests", 80);
+        journal.addGrade("Math", "Tests", 70);
+        journal.sync();
+        journal.close();
+
+        Path segment = directory.resolve("gradebook.journal.0");
+        byte[] bytes = Files.readAllBytes(segment);
+        int secondEntry = bytes.length / 3;
+        bytes[secondEntry + Integer.BYTES + 2] ^= 1;  // Inside the payload of the second entry
+        Files.write(segment, bytes);
+
+        Recorder replayed = new Recorder();
+        GradeJournal.replay(directory, 0, replayed);
+        assertEquals(List.of("addGrade Math Tests 90.0"), replayed.entries);
+    }
+
+    /**
+     * Entries recorded but not synced never reach the segment when discarded.
+     */
+    @Test
+    void discardedEntriesAreNotWritten() throws IOException {
+        GradeJournal journal = new GradeJournal(directory, 0);
+        journal.addGrade("Math", "Tests", 90);
+        journal.sync();
+        journal.addGrade("Math", "Tests", 80);
+        journal.discardPending();
+        journal.sync();
+        journal.close();
+
+        Recorder replayed = new Recorder();
+        GradeJournal.replay(directory, 0, replayed);
+        assertEquals(List.of("addGrade Math Tests 90.0"), replayed.entries);
+    }
+
+    private static void record(GradeJournal journal, Recorder expected, Consumer<GradeMutations> mutation) {
+        mutation.accept(journal);
+        mutation.accept(expected);
+    }
+
+    /**
+     * Writes down every mutation it receives as a line of text.
+     */
+    private static final class Recorder implements GradeMutations {
+        final List<String> entries = new ArrayList<>();
+
+        @Override
+        public void addClass(String className) {
+            entries.add("addClass " + className);
+        }
+
+        @Override
+        public void addCategory(String className, String category) {
+            entries.add("addCategory " + className + " " + category);
+        }
+
+        @Override
+        public void addGrade(String className, String category, double grade) {
+            entries.add("addGrade " + className + " " + category + " " + grade);
+        }
+
+        @Override
+        public void editGrade(String className, String category, int index, double grade) {
+            entries.add("editGrade " + className + " " + category + " " + index + " " + grade);
+        }
+
+        @Override
+        public void deleteGrade(String className, String category, int index) {
+            entries.add("deleteGrade " + className + " " + category + " " + index);
+        }
+
+        @Override
+        public void setPercentage(String className, String category, double percent) {
+            entries.add("setPercentage " + className + " " + category + " " + percent);
+        }
+
+        @Override
+        public void setDropped(String className, String category, double dropped) {
+            entries.add("setDropped " + className + " " + category + " " + dropped);
+        }
+
+        @Override
+        public void setRounding(String className, boolean round) {
+            entries.add("setRounding " + className + " " + round);
+        }
+
+        @Override
+        public void setGradingScale(String className, double[] cutoffs) {
+            entries.add("setGradingScale " + className + " " + Arrays.toString(cutoffs));
+        }
+
+        @Override
+        public void deleteClass(String className) {
+            entries.add("deleteClass " + className);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NeededGradeProjectionTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * A projection on any number of threads writes the same file as one on a single thread, with a row
+     * for every answer of every class, and rejects each malformed row of the remaining items.
+     */
+    @Test
+    void projectionIsTheSameOnAnyNumberOfThreads() throws IOException {
+        GradeBook gradeBook = new GradeBook(directory);
+        Map<String, Map<String, Integer>> roster = TestGradeBooks.createRoster(gradeBook, 300, new SplittableRandom(42));
+        Path remainingFile = directory.resolve("remaining.csv");
+        try (BufferedWriter remaining = Files.newBufferedWriter(remainingFile)) {
+            remaining.write("Class,Category,Remaining\n");
+            for (Map.Entry<String, Map<String, Integer>> entry : roster.entrySet()) {
+                for (Map.Entry<String, Integer> category : entry.getValue().entrySet()) {
+                    remaining.write(entry.getKey() + "," + category.getKey() + "," + category.getValue() + "\n");
+                }
+            }
+            // Rows that must be rejected
+            remaining.write("nosuchclass,category0,1\n");
+            remaining.write("class0,nosuchcategory,1\n");
+            remaining.write("class0,category0,-1\n");
+            remaining.write("class0,category0,1.5\n");
+            remaining.write("class0,category0\n");
+        }
+
+        NeededGradeProjection serial = new NeededGradeProjection(gradeBook, new ForkJoinPool(1));
+        Map<String, Map<String, Integer>> remaining;
+        try (InputStream in = Files.newInputStream(remainingFile)) {
+            remaining = serial.readRemaining(in);
+        }
+        long expectedRows = 0;
+        for (String className : gradeBook.classNames()) {
+            for (NeededGrades needed : gradeBook.neededGrades(className, remaining.getOrDefault(className, Map.of()))) {
+                expectedRows += Math.max(1, needed.averages().size());
+            }
+        }
+        Path serialFile = directory.resolve("serial.csv");
+        try (InputStream in = Files.newInputStream(remainingFile)) {
+            serial.run(in, serialFile);
+        }
+
+        for (int threads : new int[] {2, 4, 7}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Path parallelFile = directory.resolve("parallel" + threads + ".csv");
+                NeededGradeProjection.Result result;
+                try (InputStream in = Files.newInputStream(remainingFile)) {
+                    result = new NeededGradeProjection(gradeBook, pool).run(in, parallelFile);
+                }
+                assertArrayEquals(Files.readAllBytes(serialFile), Files.readAllBytes(parallelFile), threads + " threads");
+                assertEquals(expectedRows, result.rows());
+                assertEquals(expectedRows + 1, Files.readAllLines(parallelFile).size());
+                assertEquals(5, result.rejected());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        gradeBook.close();
+    }
+}
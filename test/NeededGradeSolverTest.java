@@ -0,0 +1,131 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NeededGradeSolverTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Every answer for every letter grade, with and without rounding, matches the what-if final grade:
+     * the averages reach the letter grade, and the uniform average is the lowest one that does.
+     */
+    @Test
+    void answersAreMinimalAndExactAgainstWhatIf() {
+        GradeBook gradeBook = new GradeBook(directory);
+        Map<String, Map<String, Integer>> roster = TestGradeBooks.createRoster(gradeBook, 500, new SplittableRandom(42));
+
+        for (Map.Entry<String, List<NeededGrades>> entry : gradeBook.neededGrades(roster).entrySet()) {
+            WhatIf whatIf = gradeBook.whatIf(entry.getKey());
+            int[] counts = new int[whatIf.categoryCount()];
+            for (int k = 0; k < counts.length; k++) {
+                // Items that would leave a category with every grade dropped cannot change it
+                int count = roster.get(entry.getKey()).get(whatIf.categoryName(k));
+                counts[k] = whatIf.sizes[k] + count > whatIf.dropCounts[k] ? count : 0;
+            }
+            for (NeededGrades needed : entry.getValue()) {
+                checkNeeded(whatIf, counts, needed);
+            }
+        }
+        gradeBook.close();
+    }
+
+    /**
+     * On a scale whose cutoffs are out of order, an earlier, lower cutoff takes the grades just below a
+     * later one, so the lowest grade that rounds to the later cutoff is the earlier cutoff itself.
+     */
+    @Test
+    void roundingOnANonDescendingScaleIsSolvedPromptly() {
+        GradeBook gradeBook = new GradeBook(directory);
+        gradeBook.createClass("class");
+        gradeBook.setRounding("class", true);
+        gradeBook.setGradingScale("class", Arrays.asList(null, 89.97, 90.0));
+        gradeBook.createCategory("class", "exams");
+        gradeBook.setWeight("class", "exams", 100.0);
+        gradeBook.addGrades("class", "exams", new double[] {80.0});
+
+        CompiledScale scale = gradeBook.whatIf("class").scale;
+        double lowest = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> scale.lowestRoundingTo(90.0));
+        assertEquals(89.97, lowest);
+        assertEquals(90.0, scale.round(lowest));
+        assertTrue(scale.round(Math.nextDown(lowest)) < 90.0);
+
+        NeededGrades needed = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> gradeBook.neededGrades("class", "A-", Map.of("exams", 1)));
+        assertEquals(NeededGrades.Outcome.POSSIBLE, needed.outcome());
+        assertEquals(99.94, needed.uniform(), 1e-9);
+        gradeBook.close();
+    }
+
+    /**
+     * The lowest grade that rounds to a cutoff rounds to it and the grade just below does not, on
+     * random scales in and out of order.
+     */
+    @Test
+    void lowestRoundingToIsTheEdgeOfRounding() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int trial = 0; trial < 2_000; trial++) {
+            Double[] cutoffs = new Double[GradeBook.GRADE_LABELS.length];
+            for (int i = 0; i < cutoffs.length; i++) {
+                cutoffs[i] = random.nextInt(4) == 0 ? null : random.nextInt(8_990, 9_010) / 100.0;
+            }
+            CompiledScale scale = CompiledScale.compile(Arrays.asList(cutoffs));
+            for (Double cutoff : cutoffs) {
+                if (cutoff == null) {
+                    continue;
+                }
+                double lowest = scale.lowestRoundingTo(cutoff);
+                assertTrue(scale.round(lowest) >= cutoff, Arrays.toString(cutoffs) + " " + cutoff);
+                assertTrue(scale.round(Math.nextDown(lowest)) < cutoff, Arrays.toString(cutoffs) + " " + cutoff);
+            }
+        }
+    }
+
+    private static void checkNeeded(WhatIf whatIf, int[] counts, NeededGrades needed) {
+        String context = whatIf.className() + "," + needed.letter();
+        double[][] perfect = new double[counts.length][];
+        boolean anyRemaining = false;
+        for (int k = 0; k < counts.length; k++) {
+            perfect[k] = new double[counts[k]];
+            Arrays.fill(perfect[k], 100.0);
+            anyRemaining |= counts[k] > 0;
+        }
+        boolean reached = whatIf.finalGrade(null) >= needed.target();
+        switch (needed.outcome()) {
+            case ALREADY_MET -> assertTrue(reached, context);
+            case NO_REMAINING_ITEMS -> assertTrue(!reached && !anyRemaining, context);
+            case NOT_POSSIBLE -> assertTrue(!reached && whatIf.finalGrade(perfect) < needed.target(), context);
+            case POSSIBLE -> {
+                double[][] uniform = new double[counts.length][];
+                double[][] justBelow = new double[counts.length][];
+                double[][] perCategory = new double[counts.length][];
+                for (int k = 0; k < counts.length; k++) {
+                    uniform[k] = new double[counts[k]];
+                    Arrays.fill(uniform[k], needed.uniform() + 1e-7);
+                    justBelow[k] = new double[counts[k]];
+                    Arrays.fill(justBelow[k], needed.uniform() - 1e-4);
+                    Double average = needed.averages().get(whatIf.categoryName(k));
+                    if (average != null) {
+                        perCategory[k] = new double[counts[k]];
+                        Arrays.fill(perCategory[k], average + 1e-7);
+                    }
+                }
+                assertTrue(!reached, context);
+                assertTrue(whatIf.finalGrade(uniform) >= needed.target(), context);
+                assertTrue(needed.uniform() <= 0 || whatIf.finalGrade(justBelow) < needed.target(), context);
+                assertTrue(whatIf.finalGrade(perCategory) >= needed.target(), context);
+            }
+            default -> throw new AssertionError(context + ": " + needed.outcome());
+        }
+    }
+}
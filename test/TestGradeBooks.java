@@ -0,0 +1,79 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the grade books the tests share.
+ */
+final class TestGradeBooks {
+    /// The usual cutoffs from A+ to D-
+    static final List<Double> STANDARD_SCALE = List.of(97.0, 93.0, 90.0, 87.0, 83.0, 80.0, 77.0, 73.0, 70.0, 67.0, 63.0, 60.0);
+
+    private TestGradeBooks() {
+    }
+
+    /**
+     * Creates a class on the standard scale whose categories, "category0" onwards, share the weight
+     * equally and hold random grades.
+     * @param gradeBook The grade book to create the class in.
+     * @param className The name of the class.
+     * @param round Whether the class rounds its final grade.
+     * @param dropped The number of dropped grades of each category.
+     * @param sizes The number of grades of each category.
+     * @param lowestGrade The lowest grade drawn; grades are drawn in hundredths from it up to 100.
+     * @param random The source of the grades.
+     * @return The names of the categories, in order.
+     */
+    static List<String> createClass(GradeBook gradeBook, String className, boolean round, int[] dropped, int[] sizes,
+                                    double lowestGrade, SplittableRandom random) {
+        gradeBook.createClass(className);
+        gradeBook.setRounding(className, round);
+        gradeBook.setGradingScale(className, STANDARD_SCALE);
+        int lowest = (int) Math.round(lowestGrade * 100);
+        List<String> categories = new ArrayList<>();
+        for (int k = 0; k < sizes.length; k++) {
+            String category = "category" + k;
+            gradeBook.createCategory(className, category);
+            gradeBook.setWeight(className, category, 100.0 / sizes.length);
+            gradeBook.setDropped(className, category, dropped[k]);
+            double[] grades = new double[sizes[k]];
+            for (int i = 0; i < grades.length; i++) {
+                grades[i] = random.nextInt(lowest, 10_001) / 100.0;
+            }
+            gradeBook.addGrades(className, category, grades);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /**
+     * Creates classes "class0" onwards of four categories each, with random rounding, dropped grades,
+     * sizes from empty to 11 grades between 40 and 100, and remaining items.
+     * @param gradeBook The grade book to create the classes in.
+     * @param classCount The number of classes.
+     * @param random The source of every random choice.
+     * @return The remaining items of each category of each class, from 0 to 5.
+     */
+    static Map<String, Map<String, Integer>> createRoster(GradeBook gradeBook, int classCount, SplittableRandom random) {
+        Map<String, Map<String, Integer>> roster = new LinkedHashMap<>();
+        for (int c = 0; c < classCount; c++) {
+            int[] dropped = new int[4];
+            int[] sizes = new int[4];
+            for (int k = 0; k < sizes.length; k++) {
+                dropped[k] = random.nextInt(4);
+                // A category that drops exactly as many grades as it has has no grade at all, so skip that size
+                int size = random.nextInt(12);
+                sizes[k] = size > 0 && size == dropped[k] ? size + 1 : size;
+            }
+            String className = "class" + c;
+            Map<String, Integer> remaining = new LinkedHashMap<>();
+            for (String category : createClass(gradeBook, className, random.nextBoolean(), dropped, sizes, 40.01, random)) {
+                remaining.put(category, random.nextInt(6));
+            }
+            roster.put(className, remaining);
+        }
+        return roster;
+    }
+}
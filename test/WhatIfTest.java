@@ -0,0 +1,74 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WhatIfTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * The what-if engine gives the final grade that copying each category and appending the hypothetical
+     * grades gives, with dropped grades and rounding, for random scenarios one at a time and in a batch.
+     */
+    @Test
+    void whatIfMatchesCopyingTheGrades() {
+        int categoryCount = 5;
+        GradeBook gradeBook = new GradeBook(directory);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] dropped = new int[categoryCount];
+        int[] sizes = new int[categoryCount];
+        for (int k = 1; k < categoryCount; k++) {
+            dropped[k] = k;
+            sizes[k] = random.nextInt(k + 1, 200);
+        }
+        String className = "whatif";
+        TestGradeBooks.createClass(gradeBook, className, true, dropped, sizes, 0.0, random);
+
+        WhatIf whatIf = gradeBook.whatIf(className);
+        double[][][] scenarios = new double[1_000][][];
+        for (int s = 0; s < scenarios.length; s++) {
+            scenarios[s] = new double[categoryCount][];
+            for (int k = 0; k < categoryCount; k++) {
+                if (random.nextBoolean()) {
+                    scenarios[s][k] = new double[random.nextInt(1, 6)];
+                    for (int i = 0; i < scenarios[s][k].length; i++) {
+                        scenarios[s][k][i] = random.nextInt(12_001) / 100.0;  // Some very low, some over 100
+                    }
+                }
+            }
+        }
+
+        double[] batch = whatIf.finalGrades(scenarios);
+        for (int s = 0; s < scenarios.length; s++) {
+            double expected = referenceWhatIf(gradeBook, whatIf, scenarios[s]);
+            assertEquals(expected, whatIf.finalGrade(scenarios[s]), 1e-9 * Math.max(1, Math.abs(expected)), "scenario " + s);
+            assertEquals(whatIf.finalGrade(scenarios[s]), batch[s], "scenario " + s);
+        }
+        gradeBook.close();
+    }
+
+    /**
+     * A scenario's final grade found by copying every category and appending its hypothetical grades.
+     */
+    private static double referenceWhatIf(GradeBook gradeBook, WhatIf whatIf, double[][] scenario) {
+        String className = whatIf.className();
+        double finalGrade = 0.0;
+        for (String category : gradeBook.categoryNames(className)) {
+            GradeList grades = GradeList.wrap(gradeBook.grades(className, category));
+            double[] extra = scenario[whatIf.categoryIndex(category)];
+            if (extra != null) {
+                for (double grade : extra) {
+                    grades.add(grade);
+                }
+            }
+            int dropping = (int) gradeBook.dropped(className, category);
+            double weight = gradeBook.weights(className).get(category) / 100.0;
+            finalGrade += (grades.isEmpty() ? 0.0 : grades.sumWithoutLowest(dropping) / (grades.size() - dropping)) * weight;
+        }
+        return gradeBook.rounds(className) ? gradeBook.applyRounding(finalGrade, className) : finalGrade;
+    }
+}